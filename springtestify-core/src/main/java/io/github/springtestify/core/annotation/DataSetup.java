@@ -31,6 +31,9 @@ public @interface DataSetup {
 
     /**
      * Whether to clear existing data before loading new data.
+     * <p>
+     * The rows of the tables, entities or collections the files load into are deleted once,
+     * before the first file loading into them. SQL files are executed without clearing anything.
      * @return true if existing data should be cleared, false otherwise
      */
     boolean clearBeforeLoad() default true;
@@ -43,6 +46,21 @@ public @interface DataSetup {
      */
     String format() default "";
 
+    /**
+     * The entity class the rows of the data files are bound to.
+     * <p>
+     * Required for JSON files whose root is an array. JSON files whose root is an object
+     * name the entity of each array by its field name instead.
+     * @return the entity class, or {@code void.class} if not specified
+     */
+    Class<?> entity() default void.class;
+
+    /**
+     * The number of rows written to the database before the pending work is flushed.
+     * @return the batch size
+     */
+    int batchSize() default 1000;
+
     /**
      * The data type of the files.
      * <p>
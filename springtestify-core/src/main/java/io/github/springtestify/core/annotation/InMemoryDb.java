@@ -1,5 +1,6 @@
 package io.github.springtestify.core.annotation;
 
+import io.github.springtestify.core.enums.DbProfile;
 import io.github.springtestify.core.enums.DbType;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.core.annotation.AliasFor;
@@ -34,6 +35,9 @@ public @interface InMemoryDb {
 
     /**
      * Whether to apply database migrations.
+     * <p>
+     * Flyway or Liquibase is used when present, otherwise the versioned SQL files in
+     * {@code db/migration}. The migrated schema is cached and restored in one step by later contexts.
      * @return true if migrations should be applied, false otherwise
      */
     boolean migrate() default false;
@@ -44,6 +48,67 @@ public @interface InMemoryDb {
      */
     String[] scripts() default {};
 
+    /**
+     * The number of consecutive DML statements from {@link #scripts()} grouped into one JDBC batch.
+     * @return the batch size
+     */
+    int batchSize() default 1000;
+
+    /**
+     * The number of script statements executed between two commits.
+     * <p>
+     * Ignored when the scripts run inside an existing transaction.
+     * @return the commit interval
+     */
+    int commitInterval() default 10000;
+
+    /**
+     * Whether to defer the database until the first connection is actually used.
+     * <p>
+     * The DataSource is replaced by a proxy that starts the engine, creates the schema, runs the
+     * migrations and {@link #scripts()} and loads class-level {@link DataSetup} files only when the
+     * first statement is executed. Test classes that never query the database skip all of it.
+     * @return true if the database should be initialized lazily
+     */
+    boolean lazy() default false;
+
+    /**
+     * The engine settings the in-memory database is started with.
+     * <p>
+     * {@link DbProfile#FAST} is on by default and applies settings vetted for each database type,
+     * see {@code EngineProfiles} in the db module. Set {@code profile = DbProfile.STANDARD} to opt
+     * out and run on the engine defaults, for instance to reproduce a behavior of the production
+     * settings.
+     * @return the engine profile
+     */
+    DbProfile profile() default DbProfile.FAST;
+
+    /**
+     * Whether to record the SQL statements executed by the tests and track the connections they use.
+     * <p>
+     * The DataSource beans of the context are proxied to feed the query budgets, the connection leak
+     * report and the lock wait warnings of the db module. Recording is also on for test classes
+     * using {@link #explainQueries()} or annotated, or with methods annotated, with {@link PerformanceTest}.
+     * @return true if statements should be recorded
+     */
+    boolean recordStatements() default false;
+
+    /**
+     * Whether to capture the execution plan of each distinct statement executed by the tests.
+     * <p>
+     * Statements reading a table with a full scan over {@link #fullScanThreshold()} rows are logged
+     * and summarized with index suggestions in {@code target/springtestify/index-advice.md}.
+     * Supported on H2 and HSQLDB.
+     * @return true if query plans should be captured
+     */
+    boolean explainQueries() default false;
+
+    /**
+     * The number of rows above which a full table scan is flagged when {@link #explainQueries()} is on.
+     * @return the full scan threshold
+     */
+    int fullScanThreshold() default 100;
+
     /**
      * Alias for {@link AutoConfigureTestDatabase#replace}.
      * <p>
@@ -14,6 +14,14 @@ import java.lang.annotation.*;
  *     // Test method
  * }
  * </pre>
+ * <p>
+ * Query budgets are checked against the JDBC statements executed by the test method:
+ * <pre>
+ * &#064;PerformanceTest(maxQueries = 3, maxIdenticalQueries = 1)
+ * public void testOrdersWithItems() {
+ *     // Test method
+ * }
+ * </pre>
  */
 @Target({ElementType.TYPE, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
@@ -22,10 +30,10 @@ public @interface PerformanceTest {
     /**
      * The performance threshold for the test.
      * <p>
-     * This can be specified in milliseconds (e.g., "50ms") or other time units.
+     * This can be specified in milliseconds (e.g., "50ms") or other time units. Empty for no threshold.
      * @return the performance threshold
      */
-    String threshold();
+    String threshold() default "";
 
     /**
      * The number of warmup iterations to run before measuring performance.
@@ -44,4 +52,21 @@ public @interface PerformanceTest {
      * @return true if the test should fail when the threshold is exceeded, false otherwise
      */
     boolean failOnViolation() default true;
+
+    /**
+     * The maximum number of JDBC statements the test may execute, a batch counting as one.
+     * <p>
+     * A negative value disables the check.
+     * @return the maximum number of statements
+     */
+    int maxQueries() default -1;
+
+    /**
+     * The maximum number of times the same statement shape may be executed, that is the same SQL
+     * with different literal or parameter values. A value of 1 catches N+1 selects.
+     * <p>
+     * A negative value disables the check.
+     * @return the maximum number of identical statements
+     */
+    int maxIdenticalQueries() default -1;
 }
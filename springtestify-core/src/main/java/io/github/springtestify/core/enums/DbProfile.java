@@ -0,0 +1,18 @@
+package io.github.springtestify.core.enums;
+
+/**
+ * Enumeration of engine setting profiles for in-memory databases.
+ * <p>
+ * A profile selects the connection settings an in-memory database is started with.
+ */
+public enum DbProfile {
+    /**
+     * Settings tuned for test throughput, such as a larger statement cache.
+     */
+    FAST,
+
+    /**
+     * The engine defaults.
+     */
+    STANDARD;
+}
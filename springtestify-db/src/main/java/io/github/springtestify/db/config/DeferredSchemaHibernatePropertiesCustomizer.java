@@ -0,0 +1,93 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.db.initializer.LazyInitializingDataSource;
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps Hibernate from connecting to a {@link LazyInitializingDataSource} while it starts.
+ * <p>
+ * JDBC metadata is not read at bootstrap, so the dialect must be configured, which the lazy
+ * mode does for embedded databases. The {@code hibernate.hbm2ddl.auto} action is taken out of
+ * the bootstrap and registered to run on the first connection instead.
+ */
+class DeferredSchemaHibernatePropertiesCustomizer implements HibernatePropertiesCustomizer {
+
+    private static final String USE_JDBC_METADATA_DEFAULTS = "hibernate.temp.use_jdbc_metadata_defaults";
+
+    private final boolean dialectConfigured;
+
+    DeferredSchemaHibernatePropertiesCustomizer(boolean dialectConfigured) {
+        this.dialectConfigured = dialectConfigured;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (dialectConfigured) {
+            hibernateProperties.put(USE_JDBC_METADATA_DEFAULTS, false);
+        }
+
+        Object action = hibernateProperties.get(AvailableSettings.HBM2DDL_AUTO);
+        if (action == null || "none".equals(action.toString())) {
+            return;
+        }
+
+        hibernateProperties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+        Object existing = hibernateProperties.get(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER);
+        List<Integrator> integrators = new ArrayList<>();
+        if (existing instanceof IntegratorProvider) {
+            integrators.addAll(((IntegratorProvider) existing).getIntegrators());
+        }
+        integrators.add(new DeferredSchemaIntegrator(action.toString()));
+        hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> integrators);
+    }
+
+    /**
+     * Applies the schema action once the session factory is built, on the first connection
+     * of the DataSource.
+     */
+    private static class DeferredSchemaIntegrator implements Integrator {
+
+        private final String action;
+
+        DeferredSchemaIntegrator(String action) {
+            this.action = action;
+        }
+
+        @Override
+        public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                              SessionFactoryServiceRegistry serviceRegistry) {
+            Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+            settings.put(AvailableSettings.HBM2DDL_AUTO, action);
+
+            ConnectionProvider connectionProvider = serviceRegistry.getService(ConnectionProvider.class);
+            DataSource dataSource = connectionProvider != null && connectionProvider.isUnwrappableAs(DataSource.class)
+                    ? connectionProvider.unwrap(DataSource.class)
+                    : null;
+
+            // The in-memory database goes away with the context, there is nothing to drop on close
+            LazyInitializingDataSource.runOnFirstConnection(dataSource, "Hibernate schema " + action,
+                    () -> SchemaManagementToolCoordinator.process(metadata, serviceRegistry, settings, drop -> { }));
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                 SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
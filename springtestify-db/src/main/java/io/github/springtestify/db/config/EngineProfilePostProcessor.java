@@ -0,0 +1,161 @@
+package io.github.springtestify.db.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.embedded.ConnectionProperties;
+import org.springframework.jdbc.datasource.embedded.DataSourceFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Starts the embedded test database of Spring Boot with the settings of an engine profile.
+ * <p>
+ * Spring Boot builds the database that replaces the DataSource of a test with a fixed URL. This
+ * post-processor swaps its definition for an equivalent {@link EmbeddedDatabase} whose URL carries
+ * the profile settings. It runs as a plain bean factory post-processor, that is after the
+ * replacement, and after the renaming done in lazy mode.
+ * <p>
+ * Since Derby 10.15, {@code org.apache.derby.jdbc.EmbeddedDriver}, which Spring's Derby support
+ * loads, lives in {@code derbytools}. Without it, a Derby database is started through the driver
+ * that {@code derby.jar} registers with the {@link DriverManager}.
+ */
+class EngineProfilePostProcessor implements BeanFactoryPostProcessor {
+
+    private static final String EMBEDDED_DATA_SOURCE_FACTORY_BEAN =
+            "org.springframework.boot.test.autoconfigure.jdbc.TestDatabaseAutoConfiguration$EmbeddedDataSourceFactoryBean";
+
+    private static final boolean DERBY_EMBEDDED_DRIVER_PRESENT = ClassUtils.isPresent(
+            "org.apache.derby.jdbc.EmbeddedDriver", EngineProfilePostProcessor.class.getClassLoader());
+
+    private final EmbeddedDatabaseType type;
+    private final String urlSettings;
+
+    /**
+     * Creates a post-processor.
+     *
+     * @param type the type of the embedded database
+     * @param urlSettings the settings to append to its URL
+     */
+    EngineProfilePostProcessor(EmbeddedDatabaseType type, String urlSettings) {
+        this.type = type;
+        this.urlSettings = urlSettings;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        if (!(beanFactory instanceof BeanDefinitionRegistry)) {
+            return;
+        }
+
+        BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+        for (String name : registry.getBeanDefinitionNames()) {
+            BeanDefinition embedded = registry.getBeanDefinition(name);
+            if (!EMBEDDED_DATA_SOURCE_FACTORY_BEAN.equals(embedded.getBeanClassName())) {
+                continue;
+            }
+
+            RootBeanDefinition profiled = new RootBeanDefinition(EmbeddedDatabase.class, this::createDatabase);
+            profiled.setPrimary(embedded.isPrimary());
+            profiled.setLazyInit(embedded.isLazyInit());
+            profiled.setAutowireCandidate(embedded.isAutowireCandidate());
+            profiled.setDestroyMethodName("shutdown");
+            registry.removeBeanDefinition(name);
+            registry.registerBeanDefinition(name, profiled);
+        }
+    }
+
+    private EmbeddedDatabase createDatabase() {
+        if (type == EmbeddedDatabaseType.DERBY && !DERBY_EMBEDDED_DRIVER_PRESENT) {
+            return new DerbyMemoryDatabase(UUID.randomUUID().toString(), urlSettings);
+        }
+        EmbeddedDatabaseFactory factory = new EmbeddedDatabaseFactory();
+        factory.setGenerateUniqueDatabaseName(true);
+        factory.setDatabaseType(type);
+        factory.setDataSourceFactory(new ProfiledDataSourceFactory(urlSettings));
+        return factory.getDatabase();
+    }
+
+    /**
+     * An in-memory Derby database reached through the driver registered by {@code derby.jar}.
+     */
+    private static class DerbyMemoryDatabase extends DelegatingDataSource implements EmbeddedDatabase {
+
+        private final String name;
+
+        DerbyMemoryDatabase(String name, String urlSettings) {
+            this.name = name;
+            String url = "jdbc:derby:memory:" + name + ";create=true" + urlSettings;
+            try {
+                setTargetDataSource(new SimpleDriverDataSource(DriverManager.getDriver(url), url, "sa", ""));
+            } catch (SQLException e) {
+                throw new IllegalStateException("No Derby driver registered for " + url, e);
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            try {
+                DriverManager.getConnection("jdbc:derby:memory:" + name + ";drop=true").close();
+            } catch (SQLException e) {
+                // Derby reports a successful drop with an exception
+            }
+        }
+    }
+
+    /**
+     * Creates the DataSource of the embedded database, appending the profile settings to its URL.
+     */
+    private static class ProfiledDataSourceFactory implements DataSourceFactory {
+
+        private final SimpleDriverDataSource dataSource = new SimpleDriverDataSource();
+        private final String urlSettings;
+
+        ProfiledDataSourceFactory(String urlSettings) {
+            this.urlSettings = urlSettings;
+        }
+
+        @Override
+        public ConnectionProperties getConnectionProperties() {
+            return new ConnectionProperties() {
+                @Override
+                public void setDriverClass(Class<? extends Driver> driverClass) {
+                    dataSource.setDriverClass(driverClass);
+                }
+
+                @Override
+                public void setUrl(String url) {
+                    dataSource.setUrl(url + urlSettings);
+                }
+
+                @Override
+                public void setUsername(String username) {
+                    dataSource.setUsername(username);
+                }
+
+                @Override
+                public void setPassword(String password) {
+                    dataSource.setPassword(password);
+                }
+            };
+        }
+
+        @Override
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.core.enums.DbProfile;
+import io.github.springtestify.core.enums.DbType;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The connection URL settings of each {@link DbProfile}, per database type.
+ * <p>
+ * The {@link DbProfile#FAST} settings only keep what measurably helps an in-memory engine. H2 2.x
+ * dropped {@code LOG} and {@code UNDO_LOG}, and an in-memory store has no file for
+ * {@code CACHE_SIZE}, HSQLDB's {@code hsqldb.log_data} or Derby's durability options to act on.
+ * What does matter is H2's query cache, which holds the parsed form of only 8 statements per
+ * session by default: a suite issuing more distinct statements than that, as any JPA test does,
+ * parses them again on every execution.
+ * <p>
+ * {@link DbProfile#FAST} is therefore the same as {@link DbProfile#STANDARD} for HSQLDB and Derby,
+ * whose in-memory defaults leave nothing to tune.
+ */
+public final class EngineProfiles {
+
+    private static final Map<DbType, String> FAST_SETTINGS = new EnumMap<>(DbType.class);
+
+    static {
+        // Keeps the statements of a whole repository test in the parsed form
+        FAST_SETTINGS.put(DbType.H2, ";QUERY_CACHE_SIZE=256");
+        FAST_SETTINGS.put(DbType.MYSQL_COMPATIBLE, ";QUERY_CACHE_SIZE=256");
+        FAST_SETTINGS.put(DbType.POSTGRES_COMPATIBLE, ";QUERY_CACHE_SIZE=256");
+    }
+
+    private EngineProfiles() {
+    }
+
+    /**
+     * Returns the settings to append to the connection URL of a database.
+     *
+     * @param dbType the database type
+     * @param profile the engine profile
+     * @return the settings, starting with their separator, or an empty string
+     */
+    public static String urlSettings(DbType dbType, DbProfile profile) {
+        return profile == DbProfile.FAST ? FAST_SETTINGS.getOrDefault(dbType, "") : "";
+    }
+
+    /**
+     * Returns the settings to append to the connection URL of an embedded database.
+     *
+     * @param connection the embedded database connection
+     * @param profile the engine profile
+     * @return the settings, starting with their separator, or an empty string
+     */
+    public static String urlSettings(EmbeddedDatabaseConnection connection, DbProfile profile) {
+        switch (connection) {
+            case H2:
+                return urlSettings(DbType.H2, profile);
+            case HSQLDB:
+                return urlSettings(DbType.HSQLDB, profile);
+            case DERBY:
+                return urlSettings(DbType.DERBY, profile);
+            default:
+                return "";
+        }
+    }
+}
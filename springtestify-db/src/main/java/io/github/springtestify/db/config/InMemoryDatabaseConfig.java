@@ -1,6 +1,7 @@
 package io.github.springtestify.db.config;
 
 import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbProfile;
 import io.github.springtestify.core.enums.DbType;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
@@ -20,12 +21,25 @@ import java.util.Map;
  * <p>
  * This class configures a DataSource based on the {@link InMemoryDb} annotation
  * settings found on the test class.
+ * <p>
+ * The URL carries the settings of the engine profile selected through
+ * {@value #PROFILE_PROPERTY}, see {@link EngineProfiles}.
  */
 @TestConfiguration
 @EnableConfigurationProperties(DataSourceProperties.class)
 @ConditionalOnClass(DataSource.class)
 public class InMemoryDatabaseConfig {
 
+    /**
+     * Property selecting the {@link DbType} of the DataSource.
+     */
+    public static final String TYPE_PROPERTY = "spring.test.database.type";
+
+    /**
+     * Property selecting the {@link DbProfile} of the DataSource, set from {@link InMemoryDb#profile()}.
+     */
+    public static final String PROFILE_PROPERTY = "spring.test.database.profile";
+
     private final Environment environment;
 
     private static final Map<DbType, String> DB_URLS = new HashMap<>();
@@ -72,7 +86,7 @@ public class InMemoryDatabaseConfig {
         DbType dbType = DbType.H2;
 
         // Check for custom database type configuration
-        String dbTypeProperty = environment.getProperty("spring.test.database.type");
+        String dbTypeProperty = environment.getProperty(TYPE_PROPERTY);
         if (dbTypeProperty != null && !dbTypeProperty.isEmpty()) {
             try {
                 dbType = DbType.valueOf(dbTypeProperty.toUpperCase());
@@ -81,9 +95,24 @@ public class InMemoryDatabaseConfig {
             }
         }
 
+        // Set from @InMemoryDb, whose profile defaults to FAST; engine defaults without the annotation
+        DbProfile profile = DbProfile.STANDARD;
+        String profileProperty = environment.getProperty(PROFILE_PROPERTY);
+        if (profileProperty != null && !profileProperty.isEmpty()) {
+            try {
+                profile = DbProfile.valueOf(profileProperty.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // Fallback to default if the specified profile is invalid
+            }
+        }
+
+        if (!DB_URLS.containsKey(dbType)) {
+            dbType = DbType.H2;
+        }
+
         DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(DB_DRIVERS.getOrDefault(dbType, DB_DRIVERS.get(DbType.H2)));
-        dataSource.setUrl(DB_URLS.getOrDefault(dbType, DB_URLS.get(DbType.H2)));
+        dataSource.setDriverClassName(DB_DRIVERS.get(dbType));
+        dataSource.setUrl(DB_URLS.get(dbType) + EngineProfiles.urlSettings(dbType, profile));
         dataSource.setUsername(properties.getUsername());
         dataSource.setPassword(properties.getPassword());
 
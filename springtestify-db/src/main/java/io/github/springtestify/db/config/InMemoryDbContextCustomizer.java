@@ -0,0 +1,228 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.core.enums.DbProfile;
+import io.github.springtestify.core.enums.DbType;
+import io.github.springtestify.db.matrix.DbMatrixRunner;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotatedBeanDefinitionReader;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A context customizer for test classes annotated with {@code @InMemoryDb}.
+ * <p>
+ * This customizer:
+ * <ul>
+ *   <li>Reports how long the context took to start, and whether the database was lazy</li>
+ *   <li>Starts the database with the URL settings of the {@link DbProfile}, see {@link EngineProfiles}</li>
+ *   <li>When run by the {@link DbMatrixRunner}, starts the database on the engine of the matrix</li>
+ *   <li>In lazy mode, registers {@link LazyDataSourceConfiguration} and, for embedded databases,
+ *   defaults the JPA database and schema action so that Hibernate does not need a connection
+ *   to start</li>
+ * </ul>
+ * The lazy flag, the profile and the matrix engine are part of the customizer's identity, so
+ * contexts differing by any of them are cached apart.
+ */
+public class InMemoryDbContextCustomizer implements ContextCustomizer {
+
+    private static final Log logger = LogFactory.getLog(InMemoryDbContextCustomizer.class);
+
+    private static final String TEST_DATABASE_CONNECTION_PROPERTY = "spring.test.database.connection";
+
+    private final boolean lazy;
+    private final boolean embedded;
+    private final DbProfile profile;
+    private final DbType engine;
+
+    /**
+     * Creates a customizer.
+     *
+     * @param lazy whether the database is initialized lazily
+     * @param embedded whether the DataSource is replaced by an embedded test database
+     * @param profile the engine profile of the database
+     * @param engine the engine imposed by the {@link DbMatrixRunner}, or null
+     */
+    public InMemoryDbContextCustomizer(boolean lazy, boolean embedded, DbProfile profile, DbType engine) {
+        this.lazy = lazy;
+        this.embedded = embedded;
+        this.profile = profile;
+        this.engine = engine;
+    }
+
+    @Override
+    public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+        context.addApplicationListener(new StartupReporter(context, mergedConfig.getTestClass(), lazy));
+
+        ConfigurableEnvironment environment = context.getEnvironment();
+        if (engine != null) {
+            // The engine of the matrix wins over anything configured
+            Map<String, Object> overrides = new HashMap<>();
+            overrides.put(TEST_DATABASE_CONNECTION_PROPERTY, embeddedConnection(engine).name());
+            overrides.put(InMemoryDatabaseConfig.TYPE_PROPERTY, engine.name());
+            environment.getPropertySources().addFirst(new MapPropertySource("springTestifyMatrixEngine", overrides));
+        }
+        environment.getPropertySources().addLast(new MapPropertySource("springTestifyDatabaseProfile",
+                Collections.singletonMap(InMemoryDatabaseConfig.PROFILE_PROPERTY, profile.name())));
+        if (embedded) {
+            EmbeddedDatabaseConnection connection = embeddedConnection(environment, context.getClassLoader());
+            String urlSettings = compatibilityMode(engine) + EngineProfiles.urlSettings(connection, profile);
+            // The property mapping of @AutoConfigureTestDatabase would otherwise hide the matrix engine
+            if (!urlSettings.isEmpty() || engine != null) {
+                context.addBeanFactoryPostProcessor(new EngineProfilePostProcessor(connection.getType(), urlSettings));
+            }
+        }
+
+        if (!lazy) {
+            return;
+        }
+
+        if (context instanceof BeanDefinitionRegistry) {
+            new AnnotatedBeanDefinitionReader((BeanDefinitionRegistry) context)
+                    .registerBean(LazyDataSourceConfiguration.class);
+        }
+
+        // Defaults only, anything configured by the application wins
+        Map<String, Object> defaults = new HashMap<>();
+        if (embedded) {
+            String database = jpaDatabase(embeddedConnection(environment, context.getClassLoader()));
+            if (database != null) {
+                defaults.put("spring.jpa.database", database);
+            }
+            // Spring Boot would connect to find out whether the database is embedded
+            defaults.put("spring.jpa.hibernate.ddl-auto", schemaManagerPresent(environment) ? "none" : "create-drop");
+        }
+        environment.getPropertySources().addLast(new MapPropertySource("springTestifyLazyDataSource", defaults));
+    }
+
+    /**
+     * Determines the embedded database Spring Boot replaces the DataSource with.
+     *
+     * @param environment the environment of the context
+     * @param classLoader the class loader of the context
+     * @return the embedded database connection
+     */
+    private static EmbeddedDatabaseConnection embeddedConnection(ConfigurableEnvironment environment,
+                                                                 ClassLoader classLoader) {
+        String configured = environment.getProperty(TEST_DATABASE_CONNECTION_PROPERTY);
+        return configured != null
+                ? EmbeddedDatabaseConnection.valueOf(configured.toUpperCase())
+                : EmbeddedDatabaseConnection.get(classLoader);
+    }
+
+    /**
+     * Determines the embedded database of an engine.
+     *
+     * @param engine the engine
+     * @return the embedded database connection
+     */
+    private static EmbeddedDatabaseConnection embeddedConnection(DbType engine) {
+        switch (engine) {
+            case HSQLDB:
+                return EmbeddedDatabaseConnection.HSQLDB;
+            case DERBY:
+                return EmbeddedDatabaseConnection.DERBY;
+            default:
+                return EmbeddedDatabaseConnection.H2;
+        }
+    }
+
+    /**
+     * Returns the URL settings of the compatibility mode of an engine.
+     *
+     * @param engine the engine, or null
+     * @return the settings, or an empty string
+     */
+    private static String compatibilityMode(DbType engine) {
+        if (engine == DbType.MYSQL_COMPATIBLE) {
+            return ";MODE=MySQL";
+        }
+        if (engine == DbType.POSTGRES_COMPATIBLE) {
+            return ";MODE=PostgreSQL";
+        }
+        return "";
+    }
+
+    /**
+     * Determines the JPA database of an embedded database.
+     *
+     * @param connection the embedded database connection
+     * @return the name of the JPA database, or null if unknown
+     */
+    private static String jpaDatabase(EmbeddedDatabaseConnection connection) {
+        switch (connection) {
+            case H2:
+                return "H2";
+            case HSQLDB:
+                return "HSQL";
+            case DERBY:
+                return "DERBY";
+            default:
+                return null;
+        }
+    }
+
+    private static boolean schemaManagerPresent(ConfigurableEnvironment environment) {
+        ClassLoader classLoader = InMemoryDbContextCustomizer.class.getClassLoader();
+        return (ClassUtils.isPresent("org.flywaydb.core.Flyway", classLoader)
+                && environment.getProperty("spring.flyway.enabled", Boolean.class, true))
+                || (ClassUtils.isPresent("liquibase.integration.spring.SpringLiquibase", classLoader)
+                && environment.getProperty("spring.liquibase.enabled", Boolean.class, true));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        InMemoryDbContextCustomizer other = (InMemoryDbContextCustomizer) obj;
+        return lazy == other.lazy && embedded == other.embedded && profile == other.profile
+                && engine == other.engine;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lazy, embedded, profile, engine);
+    }
+
+    /**
+     * Logs the startup time of the context once it is refreshed.
+     */
+    private static class StartupReporter implements ApplicationListener<ContextRefreshedEvent> {
+
+        private final ConfigurableApplicationContext context;
+        private final Class<?> testClass;
+        private final boolean lazy;
+        private final long start = System.nanoTime();
+
+        StartupReporter(ConfigurableApplicationContext context, Class<?> testClass, boolean lazy) {
+            this.context = context;
+            this.testClass = testClass;
+            this.lazy = lazy;
+        }
+
+        @Override
+        public void onApplicationEvent(ContextRefreshedEvent event) {
+            if (event.getApplicationContext() == context && logger.isInfoEnabled()) {
+                logger.info(String.format("Started test context for %s in %d ms (lazy database: %s)",
+                        testClass.getSimpleName(), (System.nanoTime() - start) / 1_000_000, lazy ? "on" : "off"));
+            }
+        }
+    }
+}
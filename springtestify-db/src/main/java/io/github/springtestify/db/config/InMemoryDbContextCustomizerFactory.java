@@ -0,0 +1,38 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import io.github.springtestify.db.matrix.DbMatrixRunner;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+
+import java.util.List;
+
+/**
+ * Factory for creating {@link InMemoryDbContextCustomizer} instances.
+ * <p>
+ * This factory creates customizers for test classes annotated with {@link InMemoryDb} on a
+ * relational database type. While the {@link DbMatrixRunner} runs a test class, the engine of the
+ * matrix replaces the one of the annotation.
+ */
+public class InMemoryDbContextCustomizerFactory implements ContextCustomizerFactory {
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                    List<ContextConfigurationAttributes> configAttributes) {
+        InMemoryDb annotation = AnnotatedElementUtils.findMergedAnnotation(testClass, InMemoryDb.class);
+
+        if (annotation == null || annotation.type() == DbType.MONGODB) {
+            return null;
+        }
+
+        AutoConfigureTestDatabase testDatabase =
+                AnnotatedElementUtils.findMergedAnnotation(testClass, AutoConfigureTestDatabase.class);
+        boolean embedded = testDatabase == null || testDatabase.replace() != AutoConfigureTestDatabase.Replace.NONE;
+        return new InMemoryDbContextCustomizer(annotation.lazy(), embedded, annotation.profile(),
+                DbMatrixRunner.engineOf(testClass));
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.db.initializer.LazyInitializingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration backing the DataSource of a test context with a {@link LazyInitializingDataSource}.
+ * <p>
+ * Registered by {@link InMemoryDbContextCustomizer} for test classes annotated with
+ * {@code @InMemoryDb(lazy = true)}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyDataSourceConfiguration {
+
+    @Bean
+    static LazyDataSourcePostProcessor springTestifyLazyDataSourcePostProcessor() {
+        return new LazyDataSourcePostProcessor();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = {
+            "org.hibernate.integrator.spi.Integrator",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer"
+    })
+    static class DeferredSchemaConfiguration {
+
+        @Bean
+        DeferredSchemaHibernatePropertiesCustomizer springTestifyDeferredSchemaCustomizer(Environment environment) {
+            return new DeferredSchemaHibernatePropertiesCustomizer(
+                    environment.containsProperty("spring.jpa.database")
+                    || environment.containsProperty("spring.jpa.database-platform")
+                    || environment.containsProperty("spring.jpa.properties.hibernate.dialect"));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.db.initializer.LazyInitializingDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces every DataSource bean with a {@link LazyInitializingDataSource}.
+ * <p>
+ * The original definition is kept under {@code <name>Target} as a lazy, non-autowirable bean, so
+ * the DataSource (and with it the embedded engine) is only created on the first connection. This
+ * post-processor is not ordered, so it runs after the test database replacement of Spring Boot.
+ */
+class LazyDataSourcePostProcessor implements BeanDefinitionRegistryPostProcessor {
+
+    static final String TARGET_SUFFIX = "Target";
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+        if (!(registry instanceof ListableBeanFactory)) {
+            return;
+        }
+
+        BeanFactory beanFactory = (BeanFactory) registry;
+        for (String name : ((ListableBeanFactory) registry).getBeanNamesForType(DataSource.class, true, false)) {
+            BeanDefinition target = registry.getBeanDefinition(name);
+            if (LazyInitializingDataSource.class.getName().equals(target.getBeanClassName())
+                    || !target.isAutowireCandidate()) {
+                continue;
+            }
+
+            String targetName = name + TARGET_SUFFIX;
+            boolean primary = target.isPrimary();
+            registry.removeBeanDefinition(name);
+            target.setLazyInit(true);
+            target.setPrimary(false);
+            target.setAutowireCandidate(false);
+            registry.registerBeanDefinition(targetName, target);
+
+            RootBeanDefinition lazy = new RootBeanDefinition(LazyInitializingDataSource.class,
+                    () -> new LazyInitializingDataSource(() -> beanFactory.getBean(targetName, DataSource.class)));
+            lazy.setPrimary(primary);
+            registry.registerBeanDefinition(name, lazy);
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+    }
+}
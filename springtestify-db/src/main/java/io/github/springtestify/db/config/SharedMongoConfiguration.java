@@ -0,0 +1,49 @@
+package io.github.springtestify.db.config;
+
+import com.mongodb.client.MongoClient;
+import io.github.springtestify.db.mongo.PerClassMongoDatabaseFactory;
+import io.github.springtestify.db.mongo.SharedEmbeddedMongo;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * Configuration connecting a test context to the {@link SharedEmbeddedMongo} process.
+ * <p>
+ * Registered by {@link SharedMongoContextCustomizerFactory} for test classes annotated with
+ * {@code @InMemoryDb(type = DbType.MONGODB)}. It is processed before the auto-configurations,
+ * so the Spring Boot Mongo auto-configuration backs off and uses these beans instead.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SharedMongoConfiguration {
+
+    private static final String DEFAULT_DATABASE = "test";
+
+    // The client is shared across contexts and must survive their shutdown
+    @Bean(destroyMethod = "")
+    @ConditionalOnMissingBean
+    public MongoClient springTestifyMongoClient() {
+        return SharedEmbeddedMongo.get().getClient();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(MongoDatabaseFactory.class)
+    public PerClassMongoDatabaseFactory springTestifyMongoDatabaseFactory(MongoClient mongoClient) {
+        return new PerClassMongoDatabaseFactory(mongoClient, DEFAULT_DATABASE);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(MongoOperations.class)
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory,
+                                       ObjectProvider<MongoConverter> mongoConverter) {
+        MongoConverter converter = mongoConverter.getIfAvailable();
+        return converter != null
+                ? new MongoTemplate(mongoDatabaseFactory, converter)
+                : new MongoTemplate(mongoDatabaseFactory);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.springtestify.db.config;
+
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotatedBeanDefinitionReader;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.MergedContextConfiguration;
+
+import java.util.Collections;
+
+/**
+ * A context customizer connecting MongoDB tests to the shared embedded {@code mongod}.
+ * <p>
+ * This customizer:
+ * <ul>
+ *   <li>Registers {@link SharedMongoConfiguration}, which provides the client, the per-class
+ *   database factory and the template</li>
+ *   <li>Excludes Spring Boot's embedded Mongo auto-configuration, which would otherwise start
+ *   a {@code mongod} for every context</li>
+ * </ul>
+ * All MongoDB contexts use equal customizers, so this customizer never prevents context caching.
+ */
+public class SharedMongoContextCustomizer implements ContextCustomizer {
+
+    private static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+    private static final String EMBEDDED_MONGO_AUTO_CONFIGURATION =
+            "org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration";
+
+    @Override
+    public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+        if (context instanceof BeanDefinitionRegistry) {
+            new AnnotatedBeanDefinitionReader((BeanDefinitionRegistry) context)
+                    .registerBean(SharedMongoConfiguration.class);
+        }
+
+        // Keep any exclusions configured by the application
+        ConfigurableEnvironment environment = context.getEnvironment();
+        String excluded = environment.getProperty(EXCLUDE_PROPERTY, "");
+        environment.getPropertySources().addFirst(new MapPropertySource("springTestifySharedMongo",
+                Collections.singletonMap(EXCLUDE_PROPERTY, excluded.isEmpty()
+                        ? EMBEDDED_MONGO_AUTO_CONFIGURATION
+                        : excluded + "," + EMBEDDED_MONGO_AUTO_CONFIGURATION)));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj != null && obj.getClass() == getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
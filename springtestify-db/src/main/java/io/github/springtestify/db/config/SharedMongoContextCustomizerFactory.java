@@ -0,0 +1,38 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Factory for creating {@link SharedMongoContextCustomizer} instances.
+ * <p>
+ * This factory creates customizers for test classes annotated with
+ * {@code @InMemoryDb(type = DbType.MONGODB)}, provided the MongoDB driver and the embedded
+ * Mongo library are on the classpath.
+ */
+public class SharedMongoContextCustomizerFactory implements ContextCustomizerFactory {
+
+    private static final boolean MONGO_PRESENT =
+            ClassUtils.isPresent("com.mongodb.client.MongoClient", SharedMongoContextCustomizerFactory.class.getClassLoader())
+            && ClassUtils.isPresent("de.flapdoodle.embed.mongo.MongodStarter",
+                    SharedMongoContextCustomizerFactory.class.getClassLoader());
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                    List<ContextConfigurationAttributes> configAttributes) {
+        InMemoryDb annotation = AnnotatedElementUtils.findMergedAnnotation(testClass, InMemoryDb.class);
+
+        if (MONGO_PRESENT && annotation != null && annotation.type() == DbType.MONGODB) {
+            return new SharedMongoContextCustomizer();
+        }
+
+        return null;
+    }
+}
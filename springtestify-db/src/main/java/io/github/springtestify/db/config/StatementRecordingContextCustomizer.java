@@ -0,0 +1,51 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.db.profiler.QueryPlanAnalyzer;
+import io.github.springtestify.db.profiler.StatementRecordingPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.MergedContextConfiguration;
+
+/**
+ * A context customizer recording the SQL statements executed by the tests.
+ * <p>
+ * This customizer registers the {@link StatementRecordingPostProcessor}, which wraps the DataSource
+ * beans of the context. Contexts only differ by their full scan threshold when query plans are
+ * captured, so this customizer does not otherwise prevent context caching.
+ */
+public class StatementRecordingContextCustomizer implements ContextCustomizer {
+
+    private final int fullScanThreshold;
+
+    /**
+     * Creates a customizer.
+     *
+     * @param fullScanThreshold the full scan threshold of the captured query plans, negative to not
+     *                          capture them
+     */
+    public StatementRecordingContextCustomizer(int fullScanThreshold) {
+        this.fullScanThreshold = fullScanThreshold;
+    }
+
+    @Override
+    public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+        QueryPlanAnalyzer queryPlanAnalyzer = fullScanThreshold >= 0 ? new QueryPlanAnalyzer(fullScanThreshold) : null;
+        context.getBeanFactory().addBeanPostProcessor(new StatementRecordingPostProcessor(queryPlanAnalyzer));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return fullScanThreshold == ((StatementRecordingContextCustomizer) obj).fullScanThreshold;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(fullScanThreshold);
+    }
+}
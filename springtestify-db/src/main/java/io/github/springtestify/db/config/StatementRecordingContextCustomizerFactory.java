@@ -0,0 +1,59 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.annotation.PerformanceTest;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+import java.util.List;
+
+/**
+ * Factory for creating {@link StatementRecordingContextCustomizer} instances.
+ * <p>
+ * This factory only creates a customizer for the test classes asking for statements to be recorded,
+ * provided Spring JDBC is on the classpath: those annotated with {@code @InMemoryDb(recordStatements = true)}
+ * or {@code @InMemoryDb(explainQueries = true)}, and those annotated, or with methods annotated, with
+ * {@link PerformanceTest}. The DataSource beans of other test classes are left untouched. Query plans
+ * are only captured with {@code explainQueries}.
+ */
+public class StatementRecordingContextCustomizerFactory implements ContextCustomizerFactory {
+
+    private static final boolean JDBC_PRESENT = ClassUtils.isPresent(
+            "org.springframework.jdbc.datasource.DelegatingDataSource",
+            StatementRecordingContextCustomizerFactory.class.getClassLoader());
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                    List<ContextConfigurationAttributes> configAttributes) {
+        if (!JDBC_PRESENT) {
+            return null;
+        }
+
+        InMemoryDb annotation = AnnotatedElementUtils.findMergedAnnotation(testClass, InMemoryDb.class);
+        boolean explain = annotation != null && annotation.explainQueries();
+        boolean record = explain || (annotation != null && annotation.recordStatements())
+                || hasPerformanceTest(testClass);
+        if (!record) {
+            return null;
+        }
+        return new StatementRecordingContextCustomizer(explain ? Math.max(annotation.fullScanThreshold(), 0) : -1);
+    }
+
+    private static boolean hasPerformanceTest(Class<?> testClass) {
+        if (AnnotatedElementUtils.hasAnnotation(testClass, PerformanceTest.class)) {
+            return true;
+        }
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(testClass)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, PerformanceTest.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.springtestify.db.initializer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptStatementFailedException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Executes SQL statements with JDBC batching and periodic commits.
+ * <p>
+ * Consecutive DML statements ({@code INSERT}, {@code UPDATE}, {@code DELETE}, {@code MERGE})
+ * are grouped into batches of up to {@code batchSize} statements; any other statement flushes
+ * the pending batch and is executed on its own, so DDL always sees the rows inserted before it.
+ * When the connection is not bound to a transaction, auto-commit is switched off during the run
+ * and the work is committed every {@code commitInterval} statements. When a statement fails, the
+ * statements executed since the last commit are rolled back, so a failing script leaves at most
+ * the chunks it already committed.
+ */
+public class BatchedScriptExecutor {
+
+    private static final Log logger = LogFactory.getLog(BatchedScriptExecutor.class);
+
+    private final DataSource dataSource;
+    private final int batchSize;
+    private final int commitInterval;
+
+    public BatchedScriptExecutor(DataSource dataSource, int batchSize, int commitInterval) {
+        if (batchSize < 1 || commitInterval < 1) {
+            throw new IllegalArgumentException("Batch size and commit interval must be positive");
+        }
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Executes a script that has already been split into statements.
+     *
+     * @param script the parsed script
+     * @return the number of executed statements
+     */
+    public long execute(ParsedScriptCache.ParsedScript script) {
+        Iterator<String> statements = script.getStatements().iterator();
+        return execute(script.getResource(), () -> statements.hasNext() ? statements.next() : null);
+    }
+
+    /**
+     * Executes a script while reading it incrementally.
+     *
+     * @param resource the script resource, used for error reporting
+     * @param reader   the statement reader over the script
+     * @return the number of executed statements
+     */
+    public long execute(Resource resource, SqlStatementReader reader) {
+        return execute(resource, reader::nextStatement);
+    }
+
+    private long execute(Resource resource, StatementSource source) {
+        long start = System.nanoTime();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        boolean manageCommits = !DataSourceUtils.isConnectionTransactional(connection, dataSource);
+        Boolean autoCommit = null;
+        long executed = 0;
+        int batched = 0;
+        int batchStart = 0;
+        int sinceCommit = 0;
+        boolean completed = false;
+
+        try (Statement statement = connection.createStatement()) {
+            if (manageCommits && connection.getAutoCommit()) {
+                autoCommit = Boolean.TRUE;
+                connection.setAutoCommit(false);
+            }
+
+            String sql;
+            while ((sql = source.next()) != null) {
+                executed++;
+                try {
+                    if (isDml(sql)) {
+                        if (batched == 0) {
+                            batchStart = (int) executed;
+                        }
+                        statement.addBatch(sql);
+                        if (++batched == batchSize) {
+                            statement.executeBatch();
+                            batched = 0;
+                        }
+                    } else {
+                        if (batched > 0) {
+                            statement.executeBatch();
+                            batched = 0;
+                        }
+                        batchStart = (int) executed;
+                        statement.execute(sql);
+                    }
+                } catch (SQLException e) {
+                    throw new ScriptStatementFailedException(sql, batchStart, new EncodedResource(resource), e);
+                }
+
+                if (manageCommits && ++sinceCommit >= commitInterval) {
+                    if (batched > 0) {
+                        executeBatch(statement, resource, batchStart);
+                        batched = 0;
+                    }
+                    connection.commit();
+                    sinceCommit = 0;
+                }
+            }
+
+            if (batched > 0) {
+                executeBatch(statement, resource, batchStart);
+            }
+            if (manageCommits) {
+                connection.commit();
+            }
+            completed = true;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read SQL script: " + resource.getDescription(), e);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to execute SQL script: " + resource.getDescription(), e);
+        } finally {
+            if (manageCommits && !completed) {
+                rollback(connection);
+            }
+            restoreAutoCommit(connection, autoCommit);
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        report(resource, executed, System.nanoTime() - start);
+        return executed;
+    }
+
+    private static void executeBatch(Statement statement, Resource resource, int batchStart) {
+        try {
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new ScriptStatementFailedException("batch starting at this statement", batchStart,
+                    new EncodedResource(resource), e);
+        }
+    }
+
+    private static boolean isDml(String sql) {
+        int end = 0;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        String keyword = sql.substring(0, end).toUpperCase(Locale.ROOT);
+        return keyword.equals("INSERT") || keyword.equals("UPDATE")
+                || keyword.equals("DELETE") || keyword.equals("MERGE");
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not roll back the failed script", e);
+        }
+    }
+
+    private static void restoreAutoCommit(Connection connection, Boolean autoCommit) {
+        if (autoCommit == null) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            // The connection is released right after, nothing else to do
+        }
+    }
+
+    private static void report(Resource resource, long statements, long elapsedNanos) {
+        if (logger.isInfoEnabled()) {
+            long millis = Math.max(1, elapsedNanos / 1_000_000);
+            logger.info(String.format("Executed %d statements from %s in %d ms (%d statements/s)",
+                    statements, resource.getDescription(), millis, statements * 1000 / millis));
+        }
+    }
+
+    /**
+     * Supplies statements one at a time, returning null when the script is exhausted.
+     */
+    @FunctionalInterface
+    private interface StatementSource {
+        String next() throws IOException;
+    }
+}
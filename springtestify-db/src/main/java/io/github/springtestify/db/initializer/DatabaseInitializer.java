@@ -1,76 +1,177 @@
 package io.github.springtestify.db.initializer;
 
 import io.github.springtestify.core.annotation.InMemoryDb;
-import org.springframework.boot.test.context.TestConfiguration;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationListener;
-import org.springframework.context.event.ContextRefreshedEvent;
+import io.github.springtestify.db.migration.SchemaMigrator;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.MergedAnnotations;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.TestContext;
 import org.springframework.test.context.support.AbstractTestExecutionListener;
 
 import javax.sql.DataSource;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 /**
- * Database initializer that executes SQL scripts specified in the {@link InMemoryDb} annotation.
+ * Test execution listener that initializes the database of the test classes annotated with {@link InMemoryDb}.
  * <p>
- * This class listens for the {@link ContextRefreshedEvent} and executes any SQL scripts
- * specified in the {@link InMemoryDb} annotation on the test class.
+ * When {@link InMemoryDb#migrate()} is set, the schema migrations are applied through the
+ * {@link SchemaMigrator} before any of the {@link InMemoryDb#scripts()} runs. The resources and the
+ * DataSource are looked up from the test's application context.
+ * <p>
+ * Scripts are split once per JVM through the {@link ParsedScriptCache}, and every script
+ * executed against the DataSource is recorded in the {@link ScriptExecutionLedger}. When a
+ * later test class asks for an identical script on the same DataSource, it is skipped as
+ * long as the database state is known to be unchanged, that is, all tests that ran in
+ * between were rolled back.
+ * <p>
+ * With {@link InMemoryDb#lazy()}, migrations and scripts are deferred to the first connection
+ * of the {@link LazyInitializingDataSource}.
  */
-@TestConfiguration
-public class DatabaseInitializer extends AbstractTestExecutionListener
-        implements ApplicationListener<ContextRefreshedEvent> {
+public class DatabaseInitializer extends AbstractTestExecutionListener {
+
+    /**
+     * Scripts above this size (in bytes) are executed in streaming mode.
+     */
+    private static final long STREAMING_THRESHOLD = 8L * 1024 * 1024;
+
+    private static final String TRANSACTIONAL_ANNOTATION = "org.springframework.transaction.annotation.Transactional";
 
     private final ResourceLoader resourceLoader;
-    private final DataSource dataSource;
 
-    public DatabaseInitializer(ResourceLoader resourceLoader, DataSource dataSource) {
+    public DatabaseInitializer() {
+        this(null);
+    }
+
+    public DatabaseInitializer(ResourceLoader resourceLoader) {
         this.resourceLoader = resourceLoader;
-        this.dataSource = dataSource;
     }
 
     @Override
-    public void onApplicationEvent(ContextRefreshedEvent event) {
-        // This method will be called when the application context is refreshed
-        // We don't need to do anything here as the initialization happens in beforeTestClass
+    public int getOrder() {
+        // Before the data loading listeners, so that data is loaded into the initialized schema
+        return 1960;
     }
 
     @Override
     public void beforeTestClass(TestContext testContext) throws Exception {
-        Class<?> testClass = testContext.getTestClass();
-        InMemoryDb annotation = testClass.getAnnotation(InMemoryDb.class);
+        InMemoryDb annotation = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestClass(), InMemoryDb.class);
+        if (annotation == null || (!annotation.migrate() && annotation.scripts().length == 0)) {
+            return;
+        }
+
+        DataSource dataSource = testContext.getApplicationContext().getBeanProvider(DataSource.class).getIfUnique();
+        if (dataSource == null) {
+            throw new IllegalStateException("No unique DataSource available to initialize the database of "
+                    + testContext.getTestClass().getName());
+        }
+        ResourceLoader loader = resourceLoader != null ? resourceLoader : testContext.getApplicationContext();
+
+        if (annotation.migrate()) {
+            LazyInitializingDataSource.runOnFirstConnection(dataSource, "migrations",
+                    () -> new SchemaMigrator(loader).migrate(dataSource));
+        }
 
-        if (annotation != null && annotation.scripts().length > 0) {
-            executeScripts(annotation.scripts());
+        if (annotation.scripts().length > 0) {
+            LazyInitializingDataSource.runOnFirstConnection(dataSource, "@InMemoryDb scripts",
+                    () -> executeScripts(annotation.scripts(), loader, dataSource,
+                            new BatchedScriptExecutor(dataSource, annotation.batchSize(), annotation.commitInterval())));
+        }
+    }
+
+    @Override
+    public void afterTestMethod(TestContext testContext) throws Exception {
+        if (!testContext.hasApplicationContext()
+                || !AnnotatedElementUtils.hasAnnotation(testContext.getTestClass(), InMemoryDb.class)
+                || isRolledBack(testContext)) {
+            return;
+        }
+
+        DataSource dataSource = testContext.getApplicationContext().getBeanProvider(DataSource.class).getIfUnique();
+        if (dataSource != null) {
+            ScriptExecutionLedger.invalidate(dataSource);
         }
     }
 
     /**
-     * Executes the specified SQL scripts against the configured DataSource.
+     * Executes the specified SQL scripts against the DataSource.
+     * <p>
+     * Scripts that were already executed against this DataSource with the same content are skipped.
+     * Scripts larger than {@link #STREAMING_THRESHOLD} bytes are not cached but read statement by
+     * statement while they are executed, so they load in bounded memory, and are checksummed in the
+     * same pass. Both modes split statements with the same rules.
      *
      * @param scriptLocations the locations of the SQL scripts to execute
+     * @param resourceLoader  the loader resolving the script locations
+     * @param dataSource      the DataSource the scripts run against
+     * @param executor        the executor running the statements
      */
-    private void executeScripts(String[] scriptLocations) {
-        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
-
-        Arrays.stream(scriptLocations)
-                .map(resourceLoader::getResource)
-                .forEach(populator::addScript);
+    private static void executeScripts(String[] scriptLocations, ResourceLoader resourceLoader,
+                                       DataSource dataSource, BatchedScriptExecutor executor) {
+        for (String scriptLocation : scriptLocations) {
+            Resource resource = resourceLoader.getResource(scriptLocation);
+            if (!resource.exists()) {
+                throw new IllegalArgumentException("SQL script not found: " + scriptLocation);
+            }
+            try {
+                if (contentLength(resource) > STREAMING_THRESHOLD) {
+                    String key = ParsedScriptCache.streamedKey(resource);
+                    if (key == null || !ScriptExecutionLedger.isExecuted(dataSource, key)) {
+                        CRC32 checksum = new CRC32();
+                        try (SqlStatementReader reader = new SqlStatementReader(new InputStreamReader(
+                                new CheckedInputStream(resource.getInputStream(), checksum), StandardCharsets.UTF_8))) {
+                            executor.execute(resource, reader);
+                        }
+                        ScriptExecutionLedger.markExecuted(dataSource,
+                                ParsedScriptCache.recordStreamed(resource, checksum));
+                    }
+                } else {
+                    ParsedScriptCache.ParsedScript script = ParsedScriptCache.get(resource);
+                    if (!ScriptExecutionLedger.isExecuted(dataSource, script.getKey())) {
+                        executor.execute(script);
+                        ScriptExecutionLedger.markExecuted(dataSource, script.getKey());
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read SQL script: " + scriptLocation, e);
+            }
+        }
+    }
 
-        populator.execute(dataSource);
+    private static long contentLength(Resource resource) {
+        try {
+            return resource.contentLength();
+        } catch (IOException e) {
+            // Unknown length, stream it to be safe
+            return Long.MAX_VALUE;
+        }
     }
 
     /**
-     * Checks if the specified script exists as a resource.
+     * Determines whether the changes made by the current test method were rolled back.
+     * <p>
+     * Only transactional tests that are not marked with {@code @Rollback(false)} or {@code @Commit}
+     * leave the database untouched.
      *
-     * @param scriptLocation the location of the script
-     * @return true if the script exists, false otherwise
+     * @param testContext the test context
+     * @return true if the database state is known to be unchanged
      */
-    private boolean scriptExists(String scriptLocation) {
-        Resource resource = resourceLoader.getResource(scriptLocation);
-        return resource.exists();
+    private static boolean isRolledBack(TestContext testContext) {
+        boolean transactional = MergedAnnotations.from(testContext.getTestMethod(),
+                MergedAnnotations.SearchStrategy.TYPE_HIERARCHY).isPresent(TRANSACTIONAL_ANNOTATION)
+                || MergedAnnotations.from(testContext.getTestClass(),
+                MergedAnnotations.SearchStrategy.TYPE_HIERARCHY).isPresent(TRANSACTIONAL_ANNOTATION);
+
+        Rollback rollback = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestMethod(), Rollback.class);
+        if (rollback == null) {
+            rollback = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestClass(), Rollback.class);
+        }
+
+        return transactional && (rollback == null || rollback.value());
     }
 }
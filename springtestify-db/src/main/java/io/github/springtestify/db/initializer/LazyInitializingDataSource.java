@@ -0,0 +1,201 @@
+package io.github.springtestify.db.initializer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Supplier;
+
+/**
+ * A DataSource that defers the database until a connection is actually used.
+ * <p>
+ * Connections handed out by this DataSource are proxies: transactions can be started, committed
+ * and rolled back without touching the database. The target DataSource is only created when the
+ * first statement is executed, and the initializers registered through
+ * {@link #runOnFirstConnection(DataSource, String, Runnable)} (schema creation, migrations, scripts,
+ * class-level data) run right before that statement, in registration order.
+ * <p>
+ * Initializers run outside of any transaction bound to this DataSource, on connections of their own.
+ */
+public class LazyInitializingDataSource extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(LazyInitializingDataSource.class);
+
+    private final Supplier<DataSource> targetDataSourceSupplier;
+    private final Queue<DeferredInitializer> initializers = new ArrayDeque<>();
+
+    private volatile boolean initialized;
+    private Thread initializingThread;
+    private int executedInitializers;
+
+    /**
+     * Creates a lazy DataSource.
+     *
+     * @param targetDataSourceSupplier supplies the target DataSource on the first connection
+     */
+    public LazyInitializingDataSource(Supplier<DataSource> targetDataSourceSupplier) {
+        this.targetDataSourceSupplier = targetDataSourceSupplier;
+        // The defaults of the embedded engines, so that no connection is needed to determine them
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    /**
+     * Runs the given work when the DataSource is first connected to.
+     * <p>
+     * The work runs immediately if the DataSource is not lazy or has already been initialized.
+     *
+     * @param dataSource the DataSource the work needs
+     * @param description a description of the work, used in the startup report
+     * @param work the work to run
+     */
+    public static void runOnFirstConnection(DataSource dataSource, String description, Runnable work) {
+        if (dataSource instanceof LazyInitializingDataSource) {
+            ((LazyInitializingDataSource) dataSource).runOnFirstConnection(description, work);
+        } else {
+            work.run();
+        }
+    }
+
+    /**
+     * Runs the given work when this DataSource is first connected to, or immediately if it
+     * has already been initialized.
+     *
+     * @param description a description of the work, used in the startup report
+     * @param work the work to run
+     */
+    public void runOnFirstConnection(String description, Runnable work) {
+        synchronized (this) {
+            if (!initialized) {
+                initializers.add(new DeferredInitializer(description, work));
+                return;
+            }
+        }
+        work.run();
+    }
+
+    /**
+     * Returns whether the target DataSource has been created and initialized.
+     *
+     * @return true once the first statement has been executed
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // The target DataSource is only resolved on the first connection
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        // Spring Boot probes the DataSource for its pool type at startup, which must not create the target
+        if (!initialized && iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        if (!initialized) {
+            throw new SQLException("Lazy DataSource is not initialized, cannot unwrap as " + iface.getName());
+        }
+        return super.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return initialized ? super.isWrapperFor(iface) : iface.isInstance(this);
+    }
+
+    @Override
+    protected DataSource obtainTargetDataSource() {
+        if (!initialized) {
+            initialize();
+        }
+        return super.obtainTargetDataSource();
+    }
+
+    /**
+     * Creates the target DataSource and runs the deferred initializers.
+     * <p>
+     * The initializers use this DataSource themselves: on the initializing thread, it then hands
+     * out connections of the target directly. A connection bound to the current transaction is
+     * unbound while they run, as it is the one waiting for its target, and transaction
+     * synchronization is suspended so that their connections are not bound in its place.
+     */
+    private synchronized void initialize() {
+        if (initialized || initializingThread == Thread.currentThread()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        initializingThread = Thread.currentThread();
+        Object connectionHolder = TransactionSynchronizationManager.unbindResourceIfPossible(this);
+        List<TransactionSynchronization> synchronizations = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        try {
+            if (getTargetDataSource() == null) {
+                setTargetDataSource(targetDataSourceSupplier.get());
+            }
+
+            // Initializers are removed as they complete, a failed one is retried on the next connection
+            DeferredInitializer initializer;
+            while ((initializer = initializers.peek()) != null) {
+                initializer.work.run();
+                initializers.remove();
+                executedInitializers++;
+            }
+            initialized = true;
+        } finally {
+            initializingThread = null;
+            if (synchronizations != null) {
+                TransactionSynchronizationManager.initSynchronization();
+                synchronizations.forEach(TransactionSynchronizationManager::registerSynchronization);
+            }
+            if (connectionHolder != null) {
+                TransactionSynchronizationManager.bindResource(this, connectionHolder);
+            }
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info(String.format("Initialized lazy DataSource on first connection in %d ms (%d deferred initializers)",
+                    (System.nanoTime() - start) / 1_000_000, executedInitializers));
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (!initialized && logger.isInfoEnabled()) {
+            StringBuilder skipped = new StringBuilder();
+            for (DeferredInitializer initializer : initializers) {
+                skipped.append(skipped.length() == 0 ? "" : ", ").append(initializer.description);
+            }
+            logger.info("Lazy DataSource was never connected to, skipped database startup"
+                    + (skipped.length() == 0 ? "" : " and " + skipped));
+        }
+    }
+
+    /**
+     * Work waiting for the first connection.
+     */
+    private static class DeferredInitializer {
+
+        private final String description;
+        private final Runnable work;
+
+        DeferredInitializer(String description, Runnable work) {
+            this.description = description;
+            this.work = work;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.springtestify.db.initializer;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * JVM-wide cache of SQL scripts that have already been read and split into statements.
+ * <p>
+ * Entries are keyed by the resource description together with a CRC32 checksum of the
+ * script content, so an edited script is split again while an unchanged one is parsed
+ * only once no matter how many test classes reference it.
+ * <p>
+ * Scripts too large to be cached are executed in streaming mode. Their checksum is computed
+ * while they are read, and kept with their length and modification time to recognize them
+ * the next time without reading them.
+ */
+public final class ParsedScriptCache {
+
+    private static final Map<String, ParsedScript> CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, StreamedScript> STREAMED = new ConcurrentHashMap<>();
+
+    private ParsedScriptCache() {
+    }
+
+    /**
+     * Returns the parsed form of the given script, splitting it only if no entry with the
+     * same location and checksum has been cached yet.
+     *
+     * @param resource the SQL script resource
+     * @return the parsed script
+     * @throws IOException if the script cannot be read
+     */
+    public static ParsedScript get(Resource resource) throws IOException {
+        byte[] content;
+        try (InputStream inputStream = resource.getInputStream()) {
+            content = StreamUtils.copyToByteArray(inputStream);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        String key = key(resource, crc);
+
+        return CACHE.computeIfAbsent(key, k -> new ParsedScript(resource, k, split(resource, content)));
+    }
+
+    /**
+     * Returns the key of a script executed in streaming mode, as recorded the last time it was
+     * streamed, provided its length and modification time have not changed since.
+     *
+     * @param resource the SQL script resource
+     * @return the key, or null if the script has not been streamed yet or may have changed
+     */
+    public static String streamedKey(Resource resource) {
+        StreamedScript streamed = STREAMED.get(resource.getDescription());
+        return streamed != null && streamed.stamp.equals(stamp(resource)) ? streamed.key : null;
+    }
+
+    /**
+     * Records the key of a script that has just been executed in streaming mode, from the checksum
+     * of the content read while executing it, so that it is not read again to tell whether it changed.
+     *
+     * @param resource the SQL script resource
+     * @param checksum the checksum of the whole script content
+     * @return the key made of the resource description and the content checksum
+     */
+    public static String recordStreamed(Resource resource, Checksum checksum) {
+        String key = key(resource, checksum);
+        String stamp = stamp(resource);
+        if (stamp != null) {
+            STREAMED.put(resource.getDescription(), new StreamedScript(stamp, key));
+        }
+        return key;
+    }
+
+    /**
+     * Removes all cached scripts.
+     */
+    public static void clear() {
+        CACHE.clear();
+        STREAMED.clear();
+    }
+
+    private static String key(Resource resource, Checksum checksum) {
+        return resource.getDescription() + "@" + Long.toHexString(checksum.getValue());
+    }
+
+    private static String stamp(Resource resource) {
+        try {
+            return resource.contentLength() + "/" + resource.lastModified();
+        } catch (IOException e) {
+            // Unknown, the script is streamed again every time
+            return null;
+        }
+    }
+
+    private static List<String> split(Resource resource, byte[] content) {
+        String script = new String(content, StandardCharsets.UTF_8);
+
+        // Same separator fallback as ResourceDatabasePopulator: one statement per line
+        // when the script does not use ';' at all
+        String separator = ScriptUtils.DEFAULT_STATEMENT_SEPARATOR;
+        if (!ScriptUtils.containsSqlScriptDelimiters(script, separator)) {
+            separator = ScriptUtils.FALLBACK_STATEMENT_SEPARATOR;
+        }
+
+        List<String> statements = new ArrayList<>();
+        ScriptUtils.splitSqlScript(new EncodedResource(resource, StandardCharsets.UTF_8), script, separator,
+                ScriptUtils.DEFAULT_COMMENT_PREFIXES, ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+                ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER, statements);
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * A SQL script split into individual statements.
+     */
+    public static final class ParsedScript {
+
+        private final Resource resource;
+        private final String key;
+        private final List<String> statements;
+
+        ParsedScript(Resource resource, String key, List<String> statements) {
+            this.resource = resource;
+            this.key = key;
+            this.statements = statements;
+        }
+
+        /**
+         * @return the resource the script was read from
+         */
+        public Resource getResource() {
+            return resource;
+        }
+
+        /**
+         * @return the cache key, made of the resource description and the content checksum
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the statements of the script, in execution order
+         */
+        public List<String> getStatements() {
+            return statements;
+        }
+    }
+
+    /**
+     * The key a streamed script had, with the length and modification time it was read with.
+     */
+    private static final class StreamedScript {
+
+        private final String stamp;
+        private final String key;
+
+        StreamedScript(String stamp, String key) {
+            this.stamp = stamp;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.springtestify.db.initializer;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Records which scripts have already been executed against each {@link DataSource}.
+ * <p>
+ * A script is identified by the key of its {@link ParsedScriptCache.ParsedScript}, so only
+ * an identical script (same location and same content) is considered as already applied.
+ * DataSources are held weakly, so the ledger of a closed application context disappears
+ * together with its DataSource.
+ */
+public final class ScriptExecutionLedger {
+
+    private static final Map<DataSource, Set<String>> EXECUTED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ScriptExecutionLedger() {
+    }
+
+    /**
+     * Checks whether the given script has already been executed against the DataSource.
+     *
+     * @param dataSource the DataSource
+     * @param scriptKey  the key of the parsed script
+     * @return true if the script was executed and the ledger has not been invalidated since
+     */
+    public static boolean isExecuted(DataSource dataSource, String scriptKey) {
+        synchronized (EXECUTED) {
+            Set<String> executed = EXECUTED.get(dataSource);
+            return executed != null && executed.contains(scriptKey);
+        }
+    }
+
+    /**
+     * Records that the given script has been executed against the DataSource.
+     *
+     * @param dataSource the DataSource
+     * @param scriptKey  the key of the parsed script
+     */
+    public static void markExecuted(DataSource dataSource, String scriptKey) {
+        synchronized (EXECUTED) {
+            EXECUTED.computeIfAbsent(dataSource, ds -> new HashSet<>()).add(scriptKey);
+        }
+    }
+
+    /**
+     * Forgets all scripts executed against the DataSource, so they run again next time.
+     * <p>
+     * Call this whenever the database state may have changed in a way the scripts would repair.
+     *
+     * @param dataSource the DataSource
+     */
+    public static void invalidate(DataSource dataSource) {
+        EXECUTED.remove(dataSource);
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.springtestify.db.initializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Incremental SQL script splitter.
+ * <p>
+ * Reads statements one by one from a {@link Reader}, so a script of any size can be executed
+ * while only the current statement is held in memory. Statements are separated by {@code ;}.
+ * Separators inside single-quoted literals and double-quoted identifiers are ignored, and
+ * {@code --} line comments as well as {@code /* ... *}{@code /} block comments are removed.
+ * <p>
+ * Like {@link org.springframework.jdbc.datasource.init.ScriptUtils}, a script that contains no
+ * {@code ;} at all holds one statement per line. As that is only known once the whole script
+ * has been read, such a script is kept in memory until its end.
+ */
+public class SqlStatementReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder statement = new StringBuilder();
+    private final Deque<String> pending = new ArrayDeque<>();
+    private List<Integer> lineBreaks = new ArrayList<>();
+    private int position;
+    private int limit;
+
+    public SqlStatementReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next statement from the script.
+     *
+     * @return the next statement without its separator, or null at the end of the script
+     * @throws IOException if the script cannot be read
+     */
+    public String nextStatement() throws IOException {
+        if (!pending.isEmpty()) {
+            return pending.poll();
+        }
+
+        statement.setLength(0);
+        int c;
+        while ((c = read()) != -1) {
+            char ch = (char) c;
+            if (ch == ';') {
+                // The script uses separators, line breaks no longer matter
+                lineBreaks = null;
+                String sql = statement.toString().trim();
+                if (!sql.isEmpty()) {
+                    return sql;
+                }
+                statement.setLength(0);
+            } else if (ch == '\'' || ch == '"') {
+                readQuoted(ch);
+            } else if (ch == '-' && peek() == '-') {
+                skipLineComment();
+            } else if (ch == '/' && peek() == '*') {
+                skipBlockComment();
+            } else {
+                appendOutsideQuotes(ch);
+            }
+        }
+
+        if (lineBreaks != null) {
+            // No separator in the whole script, fall back to one statement per line
+            splitLines();
+            lineBreaks = null;
+            return pending.poll();
+        }
+        String sql = statement.toString().trim();
+        return sql.isEmpty() ? null : sql;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readQuoted(char quote) throws IOException {
+        statement.append(quote);
+        int c;
+        while ((c = read()) != -1) {
+            statement.append((char) c);
+            // A doubled quote is an escaped quote and simply re-enters the literal on the next char
+            if (c == quote) {
+                return;
+            }
+        }
+    }
+
+    private void skipLineComment() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '\n') {
+                appendOutsideQuotes('\n');
+                return;
+            }
+        }
+    }
+
+    private void skipBlockComment() throws IOException {
+        read();
+        int previous = -1;
+        int c;
+        while ((c = read()) != -1) {
+            if (previous == '*' && c == '/') {
+                statement.append(' ');
+                return;
+            }
+            previous = c;
+        }
+    }
+
+    private void appendOutsideQuotes(char ch) {
+        if (ch == '\n' && lineBreaks != null) {
+            lineBreaks.add(statement.length());
+        }
+        statement.append(ch);
+    }
+
+    private void splitLines() {
+        int start = 0;
+        for (int end : lineBreaks) {
+            addPending(statement.substring(start, end));
+            start = end + 1;
+        }
+        addPending(statement.substring(start));
+    }
+
+    private void addPending(String line) {
+        String sql = line.trim();
+        if (!sql.isEmpty()) {
+            pending.add(sql);
+        }
+    }
+
+    private int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
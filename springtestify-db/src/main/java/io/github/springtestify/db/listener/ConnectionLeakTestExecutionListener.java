@@ -0,0 +1,59 @@
+package io.github.springtestify.db.listener;
+
+import io.github.springtestify.db.profiler.ConnectionTracker;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+
+import java.util.List;
+
+/**
+ * Test execution listener reporting the connections a test method left open.
+ * <p>
+ * This listener is ordered before the {@link TransactionalTestExecutionListener}, so that its
+ * {@code afterTestMethod} runs once the test-managed transaction has been rolled back and its
+ * connection released. Any connection acquired since the test method started and still open at
+ * that point is logged, with the stack that acquired it when {@link ConnectionTracker} captures stacks.
+ * <p>
+ * Connections are only tracked in the contexts recording their statements, see
+ * {@code StatementRecordingContextCustomizerFactory}.
+ */
+public class ConnectionLeakTestExecutionListener extends AbstractTestExecutionListener {
+
+    private static final Log logger = LogFactory.getLog(ConnectionLeakTestExecutionListener.class);
+
+    private static final String MARK_ATTRIBUTE = ConnectionLeakTestExecutionListener.class.getName() + ".mark";
+
+    @Override
+    public int getOrder() {
+        return 3500;
+    }
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) throws Exception {
+        testContext.setAttribute(MARK_ATTRIBUTE, ConnectionTracker.mark());
+    }
+
+    @Override
+    public void afterTestMethod(TestContext testContext) throws Exception {
+        Object mark = testContext.removeAttribute(MARK_ATTRIBUTE);
+        if (mark == null) {
+            return;
+        }
+
+        List<ConnectionTracker.TrackedConnection> leaked = ConnectionTracker.openSince((Long) mark);
+        if (leaked.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder(String.format("%s.%s left %d connection(s) open",
+                testContext.getTestClass().getSimpleName(), testContext.getTestMethod().getName(), leaked.size()));
+        for (ConnectionTracker.TrackedConnection connection : leaked) {
+            message.append(String.format("%n%s%s", connection.isInTransaction() ? "In transaction, " : "",
+                    connection.describe()));
+        }
+        logger.warn(message);
+    }
+}
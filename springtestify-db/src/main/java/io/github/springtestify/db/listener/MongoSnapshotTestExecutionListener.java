@@ -0,0 +1,90 @@
+package io.github.springtestify.db.listener;
+
+import com.mongodb.client.MongoDatabase;
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import io.github.springtestify.db.mongo.MongoChangeTracker;
+import io.github.springtestify.db.mongo.MongoCollectionSnapshots;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test execution listener isolating MongoDB tests through collection snapshots.
+ * <p>
+ * This listener:
+ * <ul>
+ *   <li>Records the change counters of the test database before the class-level data is loaded</li>
+ *   <li>Before the first test method, snapshots every collection written since then, i.e. the
+ *   collections filled by {@code @DataSetup} or {@code @GenerateTestData}</li>
+ *   <li>After each test method, restores only the snapshotted collections that changed</li>
+ * </ul>
+ * Tests therefore always start from the freshly loaded fixtures without reloading them.
+ */
+public class MongoSnapshotTestExecutionListener extends AbstractTestExecutionListener {
+
+    private static final String BASELINE_ATTRIBUTE = "io.github.springtestify.mongoBaseline";
+    private static final String SNAPSHOTS_ATTRIBUTE = "io.github.springtestify.mongoSnapshots";
+
+    @Override
+    public int getOrder() {
+        // After the database switch, before the data loading listeners
+        return 1950;
+    }
+
+    @Override
+    public void beforeTestClass(TestContext testContext) throws Exception {
+        MongoDatabase database = getDatabase(testContext);
+        if (database != null) {
+            testContext.setAttribute(BASELINE_ATTRIBUTE,
+                    MongoChangeTracker.getInstance().getChangeCounts(database.getName()));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void beforeTestMethod(TestContext testContext) throws Exception {
+        if (testContext.hasAttribute(SNAPSHOTS_ATTRIBUTE) || !testContext.hasAttribute(BASELINE_ATTRIBUTE)) {
+            return;
+        }
+        MongoDatabase database = getDatabase(testContext);
+        Map<String, Long> baseline = (Map<String, Long>) testContext.getAttribute(BASELINE_ATTRIBUTE);
+
+        List<String> touched = new ArrayList<>();
+        MongoChangeTracker.getInstance().getChangeCounts(database.getName()).forEach((collection, count) -> {
+            if (!count.equals(baseline.get(collection))) {
+                touched.add(collection);
+            }
+        });
+        testContext.setAttribute(SNAPSHOTS_ATTRIBUTE, MongoCollectionSnapshots.capture(database, touched));
+    }
+
+    @Override
+    public void afterTestMethod(TestContext testContext) throws Exception {
+        MongoCollectionSnapshots snapshots = (MongoCollectionSnapshots) testContext.getAttribute(SNAPSHOTS_ATTRIBUTE);
+        if (snapshots != null) {
+            snapshots.restoreChanged();
+        }
+    }
+
+    @Override
+    public void afterTestClass(TestContext testContext) throws Exception {
+        testContext.removeAttribute(SNAPSHOTS_ATTRIBUTE);
+        testContext.removeAttribute(BASELINE_ATTRIBUTE);
+    }
+
+    private static MongoDatabase getDatabase(TestContext testContext) {
+        InMemoryDb annotation = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestClass(), InMemoryDb.class);
+        if (annotation == null || annotation.type() != DbType.MONGODB) {
+            return null;
+        }
+        MongoDatabaseFactory databaseFactory = testContext.getApplicationContext()
+                .getBeanProvider(MongoDatabaseFactory.class).getIfAvailable();
+        return databaseFactory != null ? databaseFactory.getMongoDatabase() : null;
+    }
+}
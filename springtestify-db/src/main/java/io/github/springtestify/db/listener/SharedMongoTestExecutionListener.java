@@ -0,0 +1,63 @@
+package io.github.springtestify.db.listener;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import io.github.springtestify.db.mongo.PerClassMongoDatabaseFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+import java.util.UUID;
+
+/**
+ * Test execution listener giving each MongoDB test class its own database.
+ * <p>
+ * This listener:
+ * <ul>
+ *   <li>Switches the {@link PerClassMongoDatabaseFactory} to a database named after the test class
+ *   before the class runs, so data loaded by other listeners lands in that database</li>
+ *   <li>Drops the database with {@code dropDatabase} once the class has finished</li>
+ * </ul>
+ * Database names include a token unique to the JVM, so forks sharing one {@code mongod} never
+ * see each other's data.
+ */
+public class SharedMongoTestExecutionListener extends AbstractTestExecutionListener {
+
+    private static final String JVM_TOKEN = UUID.randomUUID().toString().substring(0, 8);
+    private static final int MAX_DATABASE_NAME_LENGTH = 63;
+
+    @Override
+    public int getOrder() {
+        // Before the data loading listeners
+        return 1900;
+    }
+
+    @Override
+    public void beforeTestClass(TestContext testContext) throws Exception {
+        PerClassMongoDatabaseFactory databaseFactory = getDatabaseFactory(testContext);
+        if (databaseFactory != null) {
+            databaseFactory.useDatabase(databaseName(testContext.getTestClass()));
+        }
+    }
+
+    @Override
+    public void afterTestClass(TestContext testContext) throws Exception {
+        PerClassMongoDatabaseFactory databaseFactory = getDatabaseFactory(testContext);
+        if (databaseFactory != null) {
+            databaseFactory.dropDatabase();
+        }
+    }
+
+    private static PerClassMongoDatabaseFactory getDatabaseFactory(TestContext testContext) {
+        InMemoryDb annotation = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestClass(), InMemoryDb.class);
+        if (annotation == null || annotation.type() != DbType.MONGODB) {
+            return null;
+        }
+        return testContext.getApplicationContext().getBeanProvider(PerClassMongoDatabaseFactory.class).getIfAvailable();
+    }
+
+    static String databaseName(Class<?> testClass) {
+        String name = "st_" + JVM_TOKEN + "_" + testClass.getSimpleName().replaceAll("[^A-Za-z0-9_]", "_");
+        return name.length() > MAX_DATABASE_NAME_LENGTH ? name.substring(0, MAX_DATABASE_NAME_LENGTH) : name;
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.springtestify.db.listener;
+
+import io.github.springtestify.core.annotation.PerformanceTest;
+import io.github.springtestify.db.profiler.QueryBudget;
+import io.github.springtestify.db.profiler.QueryPlanAnalyzer;
+import io.github.springtestify.db.profiler.StatementLog;
+import io.github.springtestify.db.profiler.StatementRecorder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Test execution listener recording the SQL statements of each test method.
+ * <p>
+ * This listener:
+ * <ul>
+ *   <li>Starts a {@link StatementLog} right before the test method runs, after the data of
+ *   {@code @DataSetup} has been loaded, so that {@link QueryBudget} only sees the test's own statements</li>
+ *   <li>Checks the {@code maxQueries} and {@code maxIdenticalQueries} budgets of {@link PerformanceTest}
+ *   once the method has run, and reports its statement summary</li>
+ *   <li>Writes the index advice report of the captured query plans after each test class</li>
+ * </ul>
+ */
+public class StatementRecordingTestExecutionListener extends AbstractTestExecutionListener {
+
+    private static final Log logger = LogFactory.getLog(StatementRecordingTestExecutionListener.class);
+
+    @Override
+    public void beforeTestExecution(TestContext testContext) throws Exception {
+        StatementRecorder.start();
+    }
+
+    @Override
+    public void afterTestExecution(TestContext testContext) throws Exception {
+        StatementLog log = StatementRecorder.current();
+        if (log == null) {
+            return;
+        }
+
+        try {
+            PerformanceTest performanceTest = findPerformanceTest(testContext);
+            String testName = testContext.getTestClass().getSimpleName() + "." + testContext.getTestMethod().getName();
+            if (performanceTest != null && logger.isInfoEnabled()) {
+                logger.info(testName + ": " + log.summary());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug(testName + ": " + log.summary());
+            }
+
+            // A failing test is reported as is, its statements are of no help
+            if (performanceTest != null && testContext.getTestException() == null) {
+                checkBudgets(performanceTest, testName);
+            }
+        } finally {
+            StatementRecorder.stop();
+        }
+    }
+
+    @Override
+    public void afterTestClass(TestContext testContext) throws Exception {
+        QueryPlanAnalyzer.writeReport();
+    }
+
+    private static void checkBudgets(PerformanceTest performanceTest, String testName) {
+        try {
+            if (performanceTest.maxQueries() >= 0) {
+                QueryBudget.assertAtMost(performanceTest.maxQueries());
+            }
+            if (performanceTest.maxIdenticalQueries() >= 0) {
+                QueryBudget.assertAtMostIdentical(performanceTest.maxIdenticalQueries());
+            }
+        } catch (AssertionError e) {
+            if (performanceTest.failOnViolation()) {
+                throw e;
+            }
+            logger.warn(testName + " exceeded its query budget. " + e.getMessage());
+        }
+    }
+
+    private static PerformanceTest findPerformanceTest(TestContext testContext) {
+        PerformanceTest annotation = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestMethod(),
+                PerformanceTest.class);
+        return annotation != null
+                ? annotation
+                : AnnotatedElementUtils.findMergedAnnotation(testContext.getTestClass(), PerformanceTest.class);
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.springtestify.db.loader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Loader for CSV data files.
+ * <p>
+ * The first record is the header and names the table columns; the table itself is named
+ * after the file (e.g. {@code users.csv} is loaded into {@code users}). The header is mapped
+ * to the table columns and their SQL types once, then every record is bound to a single
+ * prepared {@code INSERT} and sent in JDBC batches of {@code batchSize} rows.
+ * <p>
+ * On H2, files on the file system are handed over to the native {@code CSVREAD} function,
+ * which bulk-loads the whole file in a single statement.
+ */
+public class CsvDataFileLoader {
+
+    private static final Log logger = LogFactory.getLog(CsvDataFileLoader.class);
+
+    private static final char DELIMITER = ',';
+
+    private final DataSource dataSource;
+    private final int batchSize;
+
+    public CsvDataFileLoader(DataSource dataSource, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads a CSV file into the table it is named after.
+     *
+     * @param resource the CSV file
+     * @return the number of inserted rows
+     */
+    public long load(Resource resource) {
+        return load(resource, tableName(resource));
+    }
+
+    /**
+     * Returns the name of the table a CSV file is loaded into, which is the file name without its extension.
+     *
+     * @param resource the CSV file
+     * @return the table name
+     */
+    public static String tableName(Resource resource) {
+        String filename = resource.getFilename();
+        if (filename == null) {
+            throw new IllegalArgumentException("Cannot derive a table name from " + resource.getDescription());
+        }
+        int extension = filename.lastIndexOf('.');
+        return extension > 0 ? filename.substring(0, extension) : filename;
+    }
+
+    /**
+     * Loads a CSV file into the given table.
+     *
+     * @param resource the CSV file
+     * @param table    the target table
+     * @return the number of inserted rows
+     */
+    public long load(Resource resource, String table) {
+        long start = System.nanoTime();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        boolean manageCommits = !DataSourceUtils.isConnectionTransactional(connection, dataSource);
+        Boolean autoCommit = null;
+        long rows;
+
+        try (CsvRecordReader reader = open(resource)) {
+            if (manageCommits && connection.getAutoCommit()) {
+                autoCommit = Boolean.TRUE;
+                connection.setAutoCommit(false);
+            }
+
+            String[] header = reader.nextRecord();
+            if (header == null) {
+                return 0;
+            }
+            if (header[0] != null && header[0].startsWith("\uFEFF")) {
+                header[0] = header[0].substring(1);
+            }
+
+            TableMapping mapping = TableMapping.resolve(connection, table, header);
+            if (resource.isFile() && isH2(connection)) {
+                rows = loadWithCsvRead(connection, mapping, resource.getFile());
+            } else {
+                rows = loadWithBatches(connection, mapping, reader, manageCommits);
+            }
+
+            if (manageCommits) {
+                connection.commit();
+            }
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException("Failed to load CSV data file: " + resource.getDescription(), e);
+        } finally {
+            if (autoCommit != null) {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    // The connection is released right after, nothing else to do
+                }
+            }
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        LoadReport.log(logger, resource, rows, System.nanoTime() - start);
+        return rows;
+    }
+
+    private static CsvRecordReader open(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            return CsvRecordReader.mapped(resource.getFile().toPath(), DELIMITER);
+        }
+        return CsvRecordReader.streaming(resource.getInputStream(), DELIMITER);
+    }
+
+    private long loadWithBatches(Connection connection, TableMapping mapping, CsvRecordReader reader,
+                                 boolean manageCommits) throws IOException, SQLException {
+        long rows = 0;
+        int batched = 0;
+        try (PreparedStatement statement = connection.prepareStatement(mapping.insertSql())) {
+            String[] record;
+            while ((record = reader.nextRecord()) != null) {
+                for (int i = 0; i < mapping.getTypes().length; i++) {
+                    String value = i < record.length ? record[i] : null;
+                    if (value == null) {
+                        statement.setNull(i + 1, mapping.getTypes()[i]);
+                    } else {
+                        statement.setObject(i + 1, value, mapping.getTypes()[i]);
+                    }
+                }
+                statement.addBatch();
+                rows++;
+
+                if (++batched == batchSize) {
+                    statement.executeBatch();
+                    batched = 0;
+                    if (manageCommits) {
+                        connection.commit();
+                    }
+                }
+            }
+            if (batched > 0) {
+                statement.executeBatch();
+            }
+        }
+        return rows;
+    }
+
+    private static long loadWithCsvRead(Connection connection, TableMapping mapping, File file) throws SQLException {
+        String sql = "INSERT INTO \"" + mapping.getTable() + "\" (" + mapping.columnList() + ") SELECT * FROM CSVREAD('"
+                + file.getAbsolutePath().replace("'", "''") + "', NULL, 'charset=UTF-8')";
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(sql);
+        }
+    }
+
+    private static boolean isH2(Connection connection) throws SQLException {
+        return "H2".equals(connection.getMetaData().getDatabaseProductName());
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.springtestify.db.loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RFC 4180 style CSV parser working directly on bytes.
+ * <p>
+ * Files are memory-mapped with {@link FileChannel#map}, so the file content is never copied
+ * to the heap as a whole; only the bytes of the current field are decoded into a string. Resources
+ * that are not plain files (e.g. inside a jar) are read from a buffered stream with the same parser.
+ * <p>
+ * Fields may be quoted with {@code "}, quotes inside quoted fields are escaped by doubling them,
+ * and records end with {@code \n} or {@code \r\n}. Empty unquoted fields are returned as null.
+ */
+public class CsvRecordReader implements Closeable {
+
+    /**
+     * Largest region mapped at once; bigger files are mapped in consecutive segments.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final ByteSource source;
+    private final char delimiter;
+    private byte[] field = new byte[256];
+
+    private CsvRecordReader(ByteSource source, char delimiter) {
+        this.source = source;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Creates a reader over a memory-mapped file.
+     *
+     * @param file      the CSV file
+     * @param delimiter the field delimiter
+     * @return the reader
+     * @throws IOException if the file cannot be mapped
+     */
+    public static CsvRecordReader mapped(Path file, char delimiter) throws IOException {
+        return new CsvRecordReader(new MappedByteSource(file), delimiter);
+    }
+
+    /**
+     * Creates a reader over a stream.
+     *
+     * @param inputStream the CSV content
+     * @param delimiter   the field delimiter
+     * @return the reader
+     */
+    public static CsvRecordReader streaming(InputStream inputStream, char delimiter) {
+        return new CsvRecordReader(new StreamByteSource(inputStream), delimiter);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields of the record, or null at the end of the file
+     * @throws IOException if the content cannot be read
+     */
+    public String[] nextRecord() throws IOException {
+        int c = source.next();
+        // Skip blank lines between records
+        while (c == '\r' || c == '\n') {
+            c = source.next();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        while (true) {
+            int length = 0;
+            boolean quoted = false;
+
+            if (c == '"') {
+                quoted = true;
+                while (true) {
+                    c = source.next();
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        c = source.next();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    length = append(length, c);
+                }
+            } else {
+                while (c != -1 && c != delimiter && c != '\n' && c != '\r') {
+                    length = append(length, c);
+                    c = source.next();
+                }
+            }
+
+            fields.add(length == 0 && !quoted ? null : new String(field, 0, length, StandardCharsets.UTF_8));
+
+            if (c == delimiter) {
+                c = source.next();
+                continue;
+            }
+            if (c == '\r') {
+                c = source.next();
+                if (c != '\n' && c != -1) {
+                    source.pushBack();
+                }
+            }
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private int append(int length, int b) {
+        if (length == field.length) {
+            field = Arrays.copyOf(field, length * 2);
+        }
+        field[length] = (byte) b;
+        return length + 1;
+    }
+
+    /**
+     * Sequential byte access with a one byte push-back.
+     */
+    private interface ByteSource extends Closeable {
+
+        int next() throws IOException;
+
+        void pushBack();
+    }
+
+    private static final class MappedByteSource implements ByteSource {
+
+        private final FileChannel channel;
+        private final long size;
+        private long segmentStart;
+        private MappedByteBuffer segment;
+
+        MappedByteSource(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.segment = map(0);
+        }
+
+        @Override
+        public int next() throws IOException {
+            if (!segment.hasRemaining()) {
+                long nextStart = segmentStart + segment.capacity();
+                if (nextStart >= size) {
+                    return -1;
+                }
+                segmentStart = nextStart;
+                segment = map(nextStart);
+            }
+            return segment.get() & 0xFF;
+        }
+
+        @Override
+        public void pushBack() {
+            // Only called right after next() returned a byte of the current segment
+            segment.position(segment.position() - 1);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private MappedByteBuffer map(long start) throws IOException {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+        }
+    }
+
+    private static final class StreamByteSource implements ByteSource {
+
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+
+        StreamByteSource(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public int next() throws IOException {
+            if (position == limit) {
+                int read;
+                do {
+                    read = inputStream.read(buffer);
+                } while (read == 0);
+                if (read < 0) {
+                    return -1;
+                }
+                position = 0;
+                limit = read;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public void pushBack() {
+            position--;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+}
@@ -1,28 +1,70 @@
 package io.github.springtestify.db.loader;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.springtestify.core.annotation.DataSetup;
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import io.github.springtestify.db.initializer.BatchedScriptExecutor;
+import io.github.springtestify.db.initializer.LazyInitializingDataSource;
+import io.github.springtestify.db.initializer.SqlStatementReader;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.test.context.TestContext;
 import org.springframework.test.context.support.AbstractTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
-import java.util.Arrays;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data loader that loads test data from files specified in the {@link DataSetup} annotation.
  * <p>
  * This class is responsible for loading test data from files in various formats (JSON, XML, CSV)
  * and persisting it to the database.
+ * <p>
+ * When registered as a test execution listener, the resources, the entity manager and the
+ * transaction manager are looked up from the test's application context. Data is loaded in a
+ * transaction: the test transaction for method-level {@link DataSetup}, or a transaction of its
+ * own for class-level {@link DataSetup}.
+ * <p>
+ * With {@link DataSetup#clearBeforeLoad()}, the rows of the entities and tables a file loads into
+ * are deleted once, right before the first file loading into them. SQL files are not cleared.
  */
 public class DataLoader extends AbstractTestExecutionListener {
 
-    @PersistenceContext
-    private EntityManager entityManager;
-
     private final ResourceLoader resourceLoader;
 
+    public DataLoader() {
+        this(null);
+    }
+
     public DataLoader(ResourceLoader resourceLoader) {
         this.resourceLoader = resourceLoader;
     }
@@ -33,7 +75,7 @@ public class DataLoader extends AbstractTestExecutionListener {
         DataSetup annotation = testClass.getAnnotation(DataSetup.class);
 
         if (annotation != null) {
-            loadData(annotation, testContext);
+            loadData(annotation, testContext, true);
         }
     }
 
@@ -42,52 +84,251 @@ public class DataLoader extends AbstractTestExecutionListener {
         DataSetup annotation = testContext.getTestMethod().getAnnotation(DataSetup.class);
 
         if (annotation != null) {
-            loadData(annotation, testContext);
+            loadData(annotation, testContext, false);
         }
     }
 
     /**
      * Loads data from the files specified in the {@link DataSetup} annotation.
+     * <p>
+     * Class-level data is loaded in a transaction of its own. On a lazy DataSource, it is only
+     * loaded on the first connection, which may happen in the middle of a test transaction.
      *
      * @param annotation the DataSetup annotation
      * @param testContext the test context
+     * @param classLevel whether the annotation is on the test class
      */
-    private void loadData(DataSetup annotation, TestContext testContext) {
-        if (annotation.clearBeforeLoad()) {
-            clearData();
+    private void loadData(DataSetup annotation, TestContext testContext, boolean classLevel) {
+        if (isMongo(annotation, testContext)) {
+            loadMongo(annotation, testContext);
+            return;
         }
 
-        Arrays.stream(annotation.value())
-                .forEach(file -> loadFile(file, annotation.format(), testContext));
+        Runnable load = () -> {
+            // Tables and entities already cleared by a previous file of the annotation
+            Set<String> cleared = new HashSet<>();
+            for (String file : annotation.value()) {
+                loadFile(file, annotation, testContext, classLevel, cleared);
+            }
+        };
+
+        if (classLevel) {
+            LazyInitializingDataSource.runOnFirstConnection(
+                    testContext.getApplicationContext().getBeanProvider(DataSource.class).getIfAvailable(),
+                    "@DataSetup of " + testContext.getTestClass().getSimpleName(), load);
+        } else {
+            load.run();
+        }
     }
 
     /**
-     * Clears all data from the database.
+     * Loads data from a file into the database.
+     *
+     * @param file the file to load
+     * @param annotation the DataSetup annotation
+     * @param testContext the test context
+     * @param newTransaction whether JPA data is loaded in a new transaction rather than the current one
+     * @param cleared the tables and entities already cleared, to which the ones cleared for this file are added
      */
-    private void clearData() {
-        // Implementation would depend on the specific requirements
-        // This could involve truncating tables or executing delete statements
+    private void loadFile(String file, DataSetup annotation, TestContext testContext, boolean newTransaction,
+                          Set<String> cleared) {
+        ApplicationContext applicationContext = testContext.getApplicationContext();
+        Resource resource = getResource(file, testContext);
+        String fileFormat = annotation.format().isEmpty() ? determineFormat(file) : annotation.format();
+
+        switch (fileFormat) {
+            case "json":
+                loadJson(resource, annotation, applicationContext, newTransaction, cleared);
+                break;
+            case "csv":
+                DataSource csvDataSource = applicationContext.getBean(DataSource.class);
+                if (annotation.clearBeforeLoad()) {
+                    clearTables(csvDataSource, Collections.singleton(CsvDataFileLoader.tableName(resource)), cleared);
+                }
+                new CsvDataFileLoader(csvDataSource, annotation.batchSize()).load(resource);
+                break;
+            case "xml":
+                DataSource xmlDataSource = applicationContext.getBean(DataSource.class);
+                if (annotation.clearBeforeLoad()) {
+                    clearTables(xmlDataSource, FlatXmlDataFileLoader.tables(resource), cleared);
+                }
+                new FlatXmlDataFileLoader(xmlDataSource, annotation.batchSize()).load(resource);
+                break;
+            case "sql":
+                loadSql(resource, annotation, applicationContext);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported data format '" + fileFormat + "': " + file);
+        }
     }
 
     /**
-     * Loads data from a file into the database.
+     * Loads the files of a MongoDB {@link DataSetup} into their collections.
+     * <p>
+     * Each file goes to {@link DataSetup#collection()}, or to the collection named after the file
+     * when none is given. Collections are emptied once before the first file is loaded into them.
      *
-     * @param file the file to load
-     * @param format the format of the file (JSON, XML, CSV)
+     * @param annotation the DataSetup annotation
+     * @param testContext the test context
+     */
+    private void loadMongo(DataSetup annotation, TestContext testContext) {
+        MongoDataFileLoader loader = new MongoDataFileLoader(
+                testContext.getApplicationContext().getBean(MongoTemplate.class), annotation.batchSize());
+        Set<String> cleared = new HashSet<>();
+
+        for (String file : annotation.value()) {
+            Resource resource = getResource(file, testContext);
+            String collection = annotation.collection().isEmpty()
+                    ? StringUtils.stripFilenameExtension(resource.getFilename())
+                    : annotation.collection();
+
+            if (annotation.clearBeforeLoad() && cleared.add(collection)) {
+                loader.clear(collection);
+            }
+            loader.load(resource, collection);
+        }
+    }
+
+    /**
+     * Determines whether the data targets MongoDB, either through an explicit collection or
+     * through {@code @InMemoryDb(type = DbType.MONGODB)} on the test class.
+     *
+     * @param annotation the DataSetup annotation
+     * @param testContext the test context
+     * @return true if the data should be loaded into MongoDB
+     */
+    private boolean isMongo(DataSetup annotation, TestContext testContext) {
+        if (!annotation.collection().isEmpty()) {
+            return true;
+        }
+        InMemoryDb inMemoryDb = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestClass(), InMemoryDb.class);
+        return inMemoryDb != null && inMemoryDb.type() == DbType.MONGODB;
+    }
+
+    /**
+     * Resolves a data file, failing if it does not exist.
+     *
+     * @param file the file location
      * @param testContext the test context
+     * @return the resource
      */
-    private void loadFile(String file, String format, TestContext testContext) {
-        Resource resource = resourceLoader.getResource(file);
+    private Resource getResource(String file, TestContext testContext) {
+        Resource resource = (resourceLoader != null ? resourceLoader : testContext.getApplicationContext())
+                .getResource(file);
 
         if (!resource.exists()) {
             throw new IllegalArgumentException("Data file not found: " + file);
         }
+        return resource;
+    }
 
-        String fileFormat = format.isEmpty() ? determineFormat(file) : format;
+    /**
+     * Loads a JSON file through the JPA entity manager.
+     *
+     * @param resource the JSON file
+     * @param annotation the DataSetup annotation
+     * @param applicationContext the application context of the test
+     * @param newTransaction whether to load in a new transaction rather than the current one
+     * @param cleared the tables and entities already cleared
+     */
+    private void loadJson(Resource resource, DataSetup annotation, ApplicationContext applicationContext,
+                          boolean newTransaction, Set<String> cleared) {
+        ObjectMapper objectMapper = applicationContext.getBeanProvider(ObjectMapper.class)
+                .getIfAvailable(() -> new ObjectMapper()
+                        .findAndRegisterModules()
+                        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        JsonDataFileLoader loader = new JsonDataFileLoader(objectMapper, annotation.batchSize());
+        Class<?> entityClass = annotation.entity() == void.class ? null : annotation.entity();
 
-        // Load the data based on the file format
-        // This would involve parsing the file and persisting the data to the database
-        // The implementation would depend on the specific requirements and supported formats
+        inTransaction(applicationContext, newTransaction, entityManager -> {
+            if (annotation.clearBeforeLoad()) {
+                List<Class<?>> entities = loader.entities(resource, entityClass, entityManager);
+                // Entities referencing others are listed after them, so they are deleted first
+                for (int i = entities.size() - 1; i >= 0; i--) {
+                    if (cleared.add(entities.get(i).getName())) {
+                        loader.clear(entities.get(i), entityManager);
+                    }
+                }
+            }
+            loader.load(resource, entityClass, entityManager);
+        });
+    }
+
+    /**
+     * Deletes all rows of the given tables that have not been cleared yet, the tables holding
+     * foreign keys first. The rows are deleted in the current transaction, if any.
+     *
+     * @param dataSource the DataSource
+     * @param tables the table names, in any case
+     * @param cleared the tables and entities already cleared, to which the given tables are added
+     */
+    private void clearTables(DataSource dataSource, Collection<String> tables, Set<String> cleared) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Integer> ranks = new HashMap<>();
+            for (String table : tables) {
+                if (cleared.add(table.toUpperCase(Locale.ROOT))) {
+                    String tableName = TableMapping.findTable(metaData, table);
+                    ranks.put(tableName, TableDependencyOrder.rank(dataSource, connection, tableName));
+                }
+            }
+
+            List<String> ordered = new ArrayList<>(ranks.keySet());
+            ordered.sort(Comparator.comparing(ranks::get, Comparator.reverseOrder()));
+            try (Statement statement = connection.createStatement()) {
+                for (String table : ordered) {
+                    statement.executeUpdate("DELETE FROM \"" + table + "\"");
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to clear tables " + tables, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Executes a SQL file with the batching script executor.
+     *
+     * @param resource the SQL file
+     * @param annotation the DataSetup annotation
+     * @param applicationContext the application context of the test
+     */
+    private void loadSql(Resource resource, DataSetup annotation, ApplicationContext applicationContext) {
+        BatchedScriptExecutor executor = new BatchedScriptExecutor(applicationContext.getBean(DataSource.class),
+                annotation.batchSize(), annotation.batchSize());
+        try (SqlStatementReader reader = new SqlStatementReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            executor.execute(resource, reader);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read SQL data file: " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Runs the given work with an entity manager bound to a transaction, joining the
+     * current transaction if there is one, unless a new transaction is requested.
+     *
+     * @param applicationContext the application context of the test
+     * @param newTransaction whether to suspend the current transaction and start a new one
+     * @param work the work to run
+     */
+    private void inTransaction(ApplicationContext applicationContext, boolean newTransaction,
+                               EntityManagerWork work) {
+        EntityManagerFactory entityManagerFactory = applicationContext.getBeanProvider(EntityManagerFactory.class)
+                .getIfAvailable();
+        if (entityManagerFactory == null) {
+            throw new IllegalStateException("No EntityManagerFactory available to load @DataSetup files");
+        }
+
+        PlatformTransactionManager transactionManager = applicationContext.getBean(PlatformTransactionManager.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        if (newTransaction) {
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                work.execute(EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)));
     }
 
     /**
@@ -109,4 +350,12 @@ public class DataLoader extends AbstractTestExecutionListener {
             throw new IllegalArgumentException("Unsupported file format: " + file);
         }
     }
+
+    /**
+     * Work executed with a transactional entity manager.
+     */
+    @FunctionalInterface
+    private interface EntityManagerWork {
+        void execute(EntityManager entityManager);
+    }
 }
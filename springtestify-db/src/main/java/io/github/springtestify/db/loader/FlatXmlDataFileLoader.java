@@ -0,0 +1,219 @@
+package io.github.springtestify.db.loader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming loader for flat XML datasets.
+ * <p>
+ * Every child element of the root is a row: the element name is the table and the attributes
+ * are the columns, e.g. {@code <dataset><users id="1" name="John"/></dataset>}. The file is
+ * read with a StAX {@link XMLStreamReader} and no DOM is ever built. Rows are added to one
+ * prepared statement per table and column set; once {@code batchSize} rows are pending, all
+ * batches are executed with the referenced tables first, following the foreign keys read from
+ * the JDBC metadata. Within that limit, rows may therefore appear in any table order, while
+ * files larger than a batch are expected to list parent rows before the rows referencing them.
+ */
+public class FlatXmlDataFileLoader {
+
+    private static final Log logger = LogFactory.getLog(FlatXmlDataFileLoader.class);
+
+    private final DataSource dataSource;
+    private final int batchSize;
+
+    public FlatXmlDataFileLoader(DataSource dataSource, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads a flat XML dataset.
+     *
+     * @param resource the XML file
+     * @return the number of inserted rows
+     */
+    public long load(Resource resource) {
+        long start = System.nanoTime();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        boolean manageCommits = !DataSourceUtils.isConnectionTransactional(connection, dataSource);
+        Boolean autoCommit = null;
+        Map<String, TableBatch> batches = new HashMap<>();
+        long rows = 0;
+
+        try (InputStream inputStream = resource.getInputStream()) {
+            if (manageCommits && connection.getAutoCommit()) {
+                autoCommit = Boolean.TRUE;
+                connection.setAutoCommit(false);
+            }
+
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(inputStream);
+            try {
+                int depth = 0;
+                int pending = 0;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if (depth == 2) {
+                            addRow(connection, reader, batches);
+                            rows++;
+                            if (++pending == batchSize) {
+                                flush(batches, connection, manageCommits);
+                                pending = 0;
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    }
+                }
+                flush(batches, connection, manageCommits);
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | SQLException | XMLStreamException e) {
+            throw new RuntimeException("Failed to load XML data file: " + resource.getDescription(), e);
+        } finally {
+            for (TableBatch batch : batches.values()) {
+                batch.close();
+            }
+            if (autoCommit != null) {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    // The connection is released right after, nothing else to do
+                }
+            }
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        LoadReport.log(logger, resource, rows, System.nanoTime() - start);
+        return rows;
+    }
+
+    /**
+     * Reads the tables a flat XML dataset loads into, without loading it.
+     *
+     * @param resource the XML file
+     * @return the table names, in order of first appearance
+     */
+    public static Set<String> tables(Resource resource) {
+        Set<String> tables = new LinkedHashSet<>();
+        try (InputStream inputStream = resource.getInputStream()) {
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(inputStream);
+            try {
+                int depth = 0;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT && ++depth == 2) {
+                        tables.add(reader.getLocalName());
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new RuntimeException("Failed to read XML data file: " + resource.getDescription(), e);
+        }
+        return tables;
+    }
+
+    private void addRow(Connection connection, XMLStreamReader reader, Map<String, TableBatch> batches)
+            throws SQLException {
+        String table = reader.getLocalName();
+        int count = reader.getAttributeCount();
+        String[] columns = new String[count];
+        StringBuilder key = new StringBuilder(table);
+        for (int i = 0; i < count; i++) {
+            columns[i] = reader.getAttributeLocalName(i);
+            key.append(',').append(columns[i]);
+        }
+
+        TableBatch batch = batches.get(key.toString());
+        if (batch == null) {
+            TableMapping mapping = TableMapping.resolve(connection, table, columns);
+            batch = new TableBatch(mapping, connection.prepareStatement(mapping.insertSql()),
+                    TableDependencyOrder.rank(dataSource, connection, mapping.getTable()));
+            batches.put(key.toString(), batch);
+        }
+
+        int[] types = batch.mapping.getTypes();
+        for (int i = 0; i < count; i++) {
+            batch.statement.setObject(i + 1, reader.getAttributeValue(i), types[i]);
+        }
+        batch.statement.addBatch();
+        batch.pending++;
+    }
+
+    private static void flush(Map<String, TableBatch> batches, Connection connection, boolean manageCommits)
+            throws SQLException {
+        List<TableBatch> ordered = new ArrayList<>(batches.values());
+        ordered.sort(Comparator.comparingInt(batch -> batch.rank));
+        for (TableBatch batch : ordered) {
+            if (batch.pending > 0) {
+                batch.statement.executeBatch();
+                batch.pending = 0;
+            }
+        }
+        if (manageCommits) {
+            connection.commit();
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Datasets never need DTDs, and disabling them rules out external entity expansion
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Pending inserts for one table and column set.
+     */
+    private static final class TableBatch {
+
+        private final TableMapping mapping;
+        private final PreparedStatement statement;
+        private final int rank;
+        private int pending;
+
+        TableBatch(TableMapping mapping, PreparedStatement statement, int rank) {
+            this.mapping = mapping;
+            this.statement = statement;
+            this.rank = rank;
+        }
+
+        void close() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // Closing only releases driver resources, nothing else to do
+            }
+        }
+    }
+}
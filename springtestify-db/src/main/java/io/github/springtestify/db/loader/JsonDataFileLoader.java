@@ -0,0 +1,184 @@
+package io.github.springtestify.db.loader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.Resource;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.metamodel.EntityType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming loader for JSON data files.
+ * <p>
+ * The file is read token by token with Jackson's {@link JsonParser}; only the element being
+ * bound is materialized, so files of any size are loaded in constant memory. Two layouts
+ * are supported:
+ * <ul>
+ *   <li>a root array, whose elements are bound to the entity given by {@code DataSetup.entity()}</li>
+ *   <li>a root object whose fields are arrays named after an entity (its JPA entity name or
+ *   simple class name), e.g. {@code {"User": [...], "Order": [...]}}</li>
+ * </ul>
+ * Entities are persisted through the {@link EntityManager}, which is flushed and cleared every
+ * {@code batchSize} rows to keep the persistence context small.
+ */
+public class JsonDataFileLoader {
+
+    private static final Log logger = LogFactory.getLog(JsonDataFileLoader.class);
+
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public JsonDataFileLoader(ObjectMapper objectMapper, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads a JSON data file.
+     *
+     * @param resource      the JSON file
+     * @param entityClass   the entity of a root array, or null if the file names its entities
+     * @param entityManager the entity manager of the current transaction
+     * @return the number of persisted entities
+     */
+    public long load(Resource resource, Class<?> entityClass, EntityManager entityManager) {
+        long start = System.nanoTime();
+        PersistenceUnitUtil unitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        long rows;
+
+        try (InputStream inputStream = resource.getInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            JsonToken root = parser.nextToken();
+            if (root == JsonToken.START_ARRAY) {
+                if (entityClass == null) {
+                    throw new IllegalArgumentException("@DataSetup(entity = ...) is required for JSON arrays: "
+                            + resource.getDescription());
+                }
+                rows = loadArray(parser, resource, entityClass, entityManager, unitUtil, 0);
+            } else if (root == JsonToken.START_OBJECT) {
+                Map<String, Class<?>> entities = entitiesByName(entityManager);
+                rows = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    Class<?> type = entities.get(name);
+                    if (type == null) {
+                        throw new IllegalArgumentException("Unknown entity '" + name + "' in " + resource.getDescription());
+                    }
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        throw new IllegalArgumentException("Expected an array of '" + name + "' in "
+                                + resource.getDescription());
+                    }
+                    rows = loadArray(parser, resource, type, entityManager, unitUtil, rows);
+                }
+            } else {
+                throw new IllegalArgumentException("Expected a JSON array or object in " + resource.getDescription());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load JSON data file: " + resource.getDescription(), e);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        LoadReport.log(logger, resource, rows, System.nanoTime() - start);
+        return rows;
+    }
+
+    /**
+     * Reads the entities a JSON data file loads, without loading it.
+     *
+     * @param resource      the JSON file
+     * @param entityClass   the entity of a root array, or null if the file names its entities
+     * @param entityManager the entity manager resolving the entity names
+     * @return the entity classes, in file order
+     */
+    public List<Class<?>> entities(Resource resource, Class<?> entityClass, EntityManager entityManager) {
+        try (InputStream inputStream = resource.getInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            JsonToken root = parser.nextToken();
+            if (root == JsonToken.START_ARRAY && entityClass != null) {
+                return Collections.singletonList(entityClass);
+            }
+            if (root != JsonToken.START_OBJECT) {
+                // Reported with the file name when the file is loaded
+                return Collections.emptyList();
+            }
+
+            Map<String, Class<?>> entities = entitiesByName(entityManager);
+            List<Class<?>> types = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Class<?> type = entities.get(parser.getCurrentName());
+                if (type != null && !types.contains(type)) {
+                    types.add(type);
+                }
+                parser.nextToken();
+                parser.skipChildren();
+            }
+            return types;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read JSON data file: " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Deletes all rows of an entity with a bulk JPQL delete.
+     *
+     * @param entityClass   the entity
+     * @param entityManager the entity manager of the current transaction
+     */
+    public void clear(Class<?> entityClass, EntityManager entityManager) {
+        String entityName = entityManager.getMetamodel().entity(entityClass).getName();
+        entityManager.createQuery("DELETE FROM " + entityName).executeUpdate();
+    }
+
+    private long loadArray(JsonParser parser, Resource resource, Class<?> entityClass, EntityManager entityManager,
+                           PersistenceUnitUtil unitUtil, long rows) throws IOException {
+        for (int index = 0; parser.nextToken() != JsonToken.END_ARRAY; index++) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected an object of '" + entityClass.getSimpleName()
+                        + "' at element " + index + " in " + resource.getDescription()
+                        + " but found " + parser.currentToken());
+            }
+            Object entity = objectMapper.readValue(parser, entityClass);
+            // Entities with an assigned identifier may already exist and must be merged
+            if (isNew(unitUtil.getIdentifier(entity))) {
+                entityManager.persist(entity);
+            } else {
+                entityManager.merge(entity);
+            }
+
+            if (++rows % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return rows;
+    }
+
+    private static boolean isNew(Object id) {
+        // Primitive identifiers are 0 rather than null until assigned
+        return id == null || (id instanceof Number && ((Number) id).longValue() == 0);
+    }
+
+    private static Map<String, Class<?>> entitiesByName(EntityManager entityManager) {
+        Map<String, Class<?>> entities = new HashMap<>();
+        for (EntityType<?> entityType : entityManager.getMetamodel().getEntities()) {
+            entities.put(entityType.getJavaType().getSimpleName(), entityType.getJavaType());
+            entities.put(entityType.getName(), entityType.getJavaType());
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.springtestify.db.loader;
+
+import org.apache.commons.logging.Log;
+import org.springframework.core.io.Resource;
+
+/**
+ * Reports the throughput of a data file load.
+ */
+final class LoadReport {
+
+    private LoadReport() {
+    }
+
+    /**
+     * Logs the number of rows loaded from a file and the resulting rows per second.
+     *
+     * @param logger       the logger of the loader
+     * @param resource     the loaded file
+     * @param rows         the number of rows loaded
+     * @param elapsedNanos the time taken by the load
+     */
+    static void log(Log logger, Resource resource, long rows, long elapsedNanos) {
+        if (logger.isInfoEnabled()) {
+            long millis = Math.max(1, elapsedNanos / 1_000_000);
+            logger.info(String.format("Loaded %d rows from %s in %d ms (%d rows/s)",
+                    rows, resource.getDescription(), millis, rows * 1000 / millis));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.springtestify.db.loader;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.RawBsonDocumentCodec;
+import org.bson.json.JsonReader;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk loader for MongoDB data files.
+ * <p>
+ * Documents are read as MongoDB Extended JSON and piped straight into {@link RawBsonDocument}s,
+ * without going through entity classes or intermediate maps, then written with unordered
+ * {@code insertMany} calls of {@code batchSize} documents. Two layouts are supported:
+ * <ul>
+ *   <li>a JSON array of documents, streamed element by element</li>
+ *   <li>newline-delimited JSON (NDJSON), one document per line</li>
+ * </ul>
+ * The layout is detected from the first character of the file.
+ */
+public class MongoDataFileLoader {
+
+    private static final Log logger = LogFactory.getLog(MongoDataFileLoader.class);
+
+    private static final RawBsonDocumentCodec CODEC = new RawBsonDocumentCodec();
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public MongoDataFileLoader(MongoTemplate mongoTemplate, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Removes all documents from a collection, keeping its indexes.
+     *
+     * @param collection the collection name
+     */
+    public void clear(String collection) {
+        mongoTemplate.getCollection(collection).deleteMany(new Document());
+    }
+
+    /**
+     * Loads a data file into a collection.
+     *
+     * @param resource   the JSON or NDJSON file
+     * @param collection the collection name
+     * @return the number of inserted documents
+     */
+    public long load(Resource resource, String collection) {
+        long start = System.nanoTime();
+        MongoCollection<RawBsonDocument> target = mongoTemplate.getCollection(collection)
+                .withDocumentClass(RawBsonDocument.class);
+        Batch batch = new Batch(target);
+
+        try (PushbackReader reader = new PushbackReader(new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)))) {
+            int first = firstSignificantChar(reader);
+            if (first == '[') {
+                readArray(reader, batch);
+            } else if (first == '{') {
+                readLines(new BufferedReader(reader), batch);
+            } else if (first != -1) {
+                throw new IllegalArgumentException("Expected a JSON array or NDJSON documents in "
+                        + resource.getDescription());
+            }
+            batch.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load Mongo data file: " + resource.getDescription(), e);
+        }
+
+        LoadReport.log(logger, resource, batch.inserted, System.nanoTime() - start);
+        return batch.inserted;
+    }
+
+    private static int firstSignificantChar(PushbackReader reader) throws IOException {
+        int c = reader.read();
+        // Skip whitespace and a UTF-8 byte order mark
+        while (c != -1 && (Character.isWhitespace(c) || c == '\uFEFF')) {
+            c = reader.read();
+        }
+        if (c != -1) {
+            reader.unread(c);
+        }
+        return c;
+    }
+
+    private static void readArray(Reader reader, Batch batch) {
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.readStartArray();
+        while (jsonReader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            batch.add(CODEC.decode(jsonReader, DECODER_CONTEXT));
+        }
+        jsonReader.readEndArray();
+    }
+
+    private static void readLines(BufferedReader reader, Batch batch) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                batch.add(CODEC.decode(new JsonReader(line), DECODER_CONTEXT));
+            }
+        }
+    }
+
+    /**
+     * Documents waiting for the next {@code insertMany}.
+     */
+    private final class Batch {
+
+        private final MongoCollection<RawBsonDocument> collection;
+        private final InsertManyOptions options = new InsertManyOptions().ordered(false);
+        private final List<RawBsonDocument> documents = new ArrayList<>(batchSize);
+        private long inserted;
+
+        Batch(MongoCollection<RawBsonDocument> collection) {
+            this.collection = collection;
+        }
+
+        void add(RawBsonDocument document) {
+            documents.add(document);
+            if (documents.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!documents.isEmpty()) {
+                collection.insertMany(documents, options);
+                inserted += documents.size();
+                documents.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.springtestify.db.loader;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * Orders tables so that referenced tables come before the tables holding the foreign keys.
+ * <p>
+ * The order is computed once per {@link DataSource} from the JDBC metadata and cached; it is
+ * only computed again when a table unknown to the cached order is requested, e.g. after a
+ * migration created new tables. Tables involved in a foreign key cycle are placed after all
+ * other tables, in name order.
+ */
+final class TableDependencyOrder {
+
+    private static final Map<DataSource, Map<String, Integer>> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private TableDependencyOrder() {
+    }
+
+    /**
+     * Returns the insertion rank of a table; lower ranks must be inserted first.
+     *
+     * @param dataSource the DataSource the connection belongs to
+     * @param connection the connection used to read the metadata
+     * @param table      the table name
+     * @return the rank of the table
+     * @throws SQLException if the metadata cannot be read
+     */
+    static int rank(DataSource dataSource, Connection connection, String table) throws SQLException {
+        String key = table.toUpperCase(Locale.ROOT);
+        Map<String, Integer> ranks = CACHE.get(dataSource);
+        if (ranks == null || !ranks.containsKey(key)) {
+            ranks = compute(connection.getMetaData());
+            CACHE.put(dataSource, ranks);
+        }
+        Integer rank = ranks.get(key);
+        return rank != null ? rank : Integer.MAX_VALUE;
+    }
+
+    private static Map<String, Integer> compute(DatabaseMetaData metaData) throws SQLException {
+        // Parent tables referenced by each table, keyed and sorted by name for a stable order
+        Map<String, Set<String>> parents = new TreeMap<>();
+        List<String> tables = new ArrayList<>();
+        try (ResultSet resultSet = metaData.getTables(null, null, null, new String[]{"TABLE"})) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString("TABLE_NAME"));
+            }
+        }
+        for (String table : tables) {
+            Set<String> tableParents = new HashSet<>();
+            try (ResultSet resultSet = metaData.getImportedKeys(null, null, table)) {
+                while (resultSet.next()) {
+                    String parent = resultSet.getString("PKTABLE_NAME").toUpperCase(Locale.ROOT);
+                    if (!parent.equalsIgnoreCase(table)) {
+                        tableParents.add(parent);
+                    }
+                }
+            }
+            parents.put(table.toUpperCase(Locale.ROOT), tableParents);
+        }
+
+        Map<String, Integer> ranks = new HashMap<>();
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (Map.Entry<String, Set<String>> entry : parents.entrySet()) {
+                if (!ranks.containsKey(entry.getKey()) && ranks.keySet().containsAll(
+                        withoutUnknown(entry.getValue(), parents.keySet()))) {
+                    ranks.put(entry.getKey(), ranks.size());
+                    progress = true;
+                }
+            }
+        }
+        for (String table : parents.keySet()) {
+            if (!ranks.containsKey(table)) {
+                ranks.put(table, ranks.size());
+            }
+        }
+        return ranks;
+    }
+
+    private static Set<String> withoutUnknown(Set<String> tables, Set<String> known) {
+        Set<String> result = new HashSet<>(tables);
+        result.retainAll(known);
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.springtestify.db.loader;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mapping of the column names found in a data file to the columns of a table.
+ * <p>
+ * Names are matched case-insensitively against the JDBC metadata, so a data file can use
+ * lower-case names for a database that stores identifiers in upper case.
+ */
+final class TableMapping {
+
+    private final String table;
+    private final String[] columns;
+    private final int[] types;
+
+    private TableMapping(String table, String[] columns, int[] types) {
+        this.table = table;
+        this.columns = columns;
+        this.types = types;
+    }
+
+    /**
+     * Resolves the given names against the columns of a table.
+     *
+     * @param connection the connection used to read the metadata
+     * @param table      the table name, in any case
+     * @param names      the column names, in data file order
+     * @return the mapping
+     * @throws SQLException if the metadata cannot be read
+     */
+    static TableMapping resolve(Connection connection, String table, String[] names) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String tableName = findTable(metaData, table);
+
+        Map<String, String> columnNames = new HashMap<>();
+        Map<String, Integer> columnTypes = new HashMap<>();
+        try (ResultSet resultSet = metaData.getColumns(null, null, escapePattern(metaData, tableName), null)) {
+            while (resultSet.next()) {
+                String name = resultSet.getString("COLUMN_NAME");
+                String key = name.toUpperCase(Locale.ROOT);
+                columnNames.put(key, name);
+                columnTypes.put(key, resultSet.getInt("DATA_TYPE"));
+            }
+        }
+
+        String[] columns = new String[names.length];
+        int[] types = new int[names.length];
+        List<String> unknown = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            String key = names[i] == null ? null : names[i].trim().toUpperCase(Locale.ROOT);
+            if (key == null || !columnNames.containsKey(key)) {
+                unknown.add(names[i]);
+            } else {
+                columns[i] = columnNames.get(key);
+                types[i] = columnTypes.get(key);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown columns " + unknown + " for table " + tableName);
+        }
+        return new TableMapping(tableName, columns, types);
+    }
+
+    /**
+     * Finds the actual name of a table, ignoring case.
+     *
+     * @param metaData the database metadata
+     * @param table    the table name, in any case
+     * @return the table name as stored by the database
+     * @throws SQLException if the metadata cannot be read
+     */
+    static String findTable(DatabaseMetaData metaData, String table) throws SQLException {
+        try (ResultSet resultSet = metaData.getTables(null, null, null, new String[]{"TABLE"})) {
+            while (resultSet.next()) {
+                String name = resultSet.getString("TABLE_NAME");
+                if (name.equalsIgnoreCase(table)) {
+                    return name;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Table not found: " + table);
+    }
+
+    /**
+     * Escapes the wildcards of a name used as a metadata search pattern, so that {@code _}
+     * and {@code %} only match themselves.
+     *
+     * @param metaData the database metadata
+     * @param name     the name to match exactly
+     * @return the search pattern
+     * @throws SQLException if the metadata cannot be read
+     */
+    static String escapePattern(DatabaseMetaData metaData, String name) throws SQLException {
+        String escape = metaData.getSearchStringEscape();
+        if (escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape)
+                .replace("_", escape + "_")
+                .replace("%", escape + "%");
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    int[] getTypes() {
+        return types;
+    }
+
+    /**
+     * @return the quoted column names, separated by commas
+     */
+    String columnList() {
+        StringBuilder list = new StringBuilder();
+        for (String column : columns) {
+            if (list.length() > 0) {
+                list.append(", ");
+            }
+            list.append('"').append(column).append('"');
+        }
+        return list.toString();
+    }
+
+    /**
+     * @return a parameterized INSERT statement for the mapped columns
+     */
+    String insertSql() {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return "INSERT INTO \"" + table + "\" (" + columnList() + ") VALUES (" + placeholders + ")";
+    }
+}
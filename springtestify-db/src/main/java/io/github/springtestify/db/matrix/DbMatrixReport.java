@@ -0,0 +1,181 @@
+package io.github.springtestify.db.matrix;
+
+import io.github.springtestify.core.enums.DbType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The timings of a test class run on several database engines by the {@link DbMatrixRunner}.
+ * <p>
+ * {@link #toTable()} renders one row per test and one column per engine. The fastest engine of
+ * a test is marked with {@code *}, the others show how many times slower they were.
+ */
+public class DbMatrixReport {
+
+    private final Class<?> testClass;
+    private final List<DbType> engines;
+    private final Map<String, Map<DbType, Result>> results = new LinkedHashMap<>();
+
+    /**
+     * Creates an empty report.
+     *
+     * @param testClass the test class
+     * @param engines the engines the test class runs on, in column order
+     */
+    public DbMatrixReport(Class<?> testClass, List<DbType> engines) {
+        this.testClass = testClass;
+        this.engines = Collections.unmodifiableList(new ArrayList<>(engines));
+    }
+
+    /**
+     * Records the outcome of a test on an engine.
+     *
+     * @param test the test name
+     * @param engine the engine
+     * @param durationNanos the duration of the test
+     * @param passed whether the test passed
+     */
+    public synchronized void record(String test, DbType engine, long durationNanos, boolean passed) {
+        results.computeIfAbsent(test, key -> new EnumMap<>(DbType.class))
+                .put(engine, new Result(durationNanos, passed));
+    }
+
+    public Class<?> getTestClass() {
+        return testClass;
+    }
+
+    public List<DbType> getEngines() {
+        return engines;
+    }
+
+    /**
+     * Returns the names of the recorded tests, in execution order.
+     *
+     * @return the test names
+     */
+    public synchronized List<String> getTests() {
+        return new ArrayList<>(results.keySet());
+    }
+
+    /**
+     * Returns the duration of a test on an engine.
+     *
+     * @param test the test name
+     * @param engine the engine
+     * @return the duration in nanoseconds, or -1 if the test did not run on that engine
+     */
+    public synchronized long getDurationNanos(String test, DbType engine) {
+        Result result = results.getOrDefault(test, Collections.emptyMap()).get(engine);
+        return result != null ? result.durationNanos : -1;
+    }
+
+    /**
+     * Returns the total duration of the tests on an engine.
+     *
+     * @param engine the engine
+     * @return the total duration in nanoseconds
+     */
+    public synchronized long getTotalNanos(DbType engine) {
+        return results.values().stream()
+                .map(byEngine -> byEngine.get(engine))
+                .filter(result -> result != null)
+                .mapToLong(result -> result.durationNanos)
+                .sum();
+    }
+
+    /**
+     * Returns the tests that did not pass, as {@code test on ENGINE}.
+     *
+     * @return the failed tests
+     */
+    public synchronized List<String> getFailures() {
+        List<String> failures = new ArrayList<>();
+        results.forEach((test, byEngine) -> byEngine.forEach((engine, result) -> {
+            if (!result.passed) {
+                failures.add(test + " on " + engine);
+            }
+        }));
+        return failures;
+    }
+
+    /**
+     * Renders the report as a markdown table.
+     *
+     * @return the comparison table
+     */
+    public synchronized String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append("| ").append(testClass.getSimpleName());
+        engines.forEach(engine -> table.append(" | ").append(engine));
+        table.append(" |\n|---");
+        engines.forEach(engine -> table.append("|---:"));
+        table.append("|\n");
+
+        for (Map.Entry<String, Map<DbType, Result>> entry : results.entrySet()) {
+            Map<DbType, Long> durations = new EnumMap<>(DbType.class);
+            Map<DbType, Boolean> passed = new EnumMap<>(DbType.class);
+            entry.getValue().forEach((engine, result) -> {
+                durations.put(engine, result.durationNanos);
+                passed.put(engine, result.passed);
+            });
+            appendRow(table, entry.getKey(), durations, passed);
+        }
+
+        Map<DbType, Long> totals = new EnumMap<>(DbType.class);
+        engines.forEach(engine -> totals.put(engine, getTotalNanos(engine)));
+        appendRow(table, "**Total**", totals, Collections.emptyMap());
+        return table.toString();
+    }
+
+    private void appendRow(StringBuilder table, String name, Map<DbType, Long> durations,
+                           Map<DbType, Boolean> passed) {
+        long fastest = durations.entrySet().stream()
+                .filter(entry -> passed.getOrDefault(entry.getKey(), true))
+                .mapToLong(Map.Entry::getValue)
+                .min()
+                .orElse(0);
+
+        table.append("| ").append(name);
+        for (DbType engine : engines) {
+            Long duration = durations.get(engine);
+            table.append(" | ");
+            if (duration == null) {
+                table.append('-');
+            } else if (!passed.getOrDefault(engine, true)) {
+                table.append("FAILED");
+            } else {
+                table.append(String.format("%.1f ms", duration / 1_000_000.0));
+                if (duration == fastest) {
+                    table.append('*');
+                } else if (fastest > 0) {
+                    table.append(String.format(" (x%.1f)", (double) duration / fastest));
+                }
+            }
+        }
+        table.append(" |\n");
+    }
+
+    @Override
+    public String toString() {
+        return toTable();
+    }
+
+    /**
+     * The outcome of a test on one engine.
+     */
+    private static class Result {
+
+        private final long durationNanos;
+        private final boolean passed;
+
+        Result(long durationNanos, boolean passed) {
+            this.durationNanos = durationNanos;
+            this.passed = passed;
+        }
+    }
+}
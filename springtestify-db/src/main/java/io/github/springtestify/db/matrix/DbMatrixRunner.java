@@ -0,0 +1,212 @@
+package io.github.springtestify.db.matrix;
+
+import io.github.springtestify.core.enums.DbType;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Runs a test class annotated with {@code @InMemoryDb} on several database engines in one JVM and
+ * compares the timings of its tests.
+ * <p>
+ * The test class is launched once per engine through the JUnit Platform, on the thread of the
+ * runner. During a launch, {@link #engineOf(Class)} returns the engine for the launched class and
+ * its nested classes only, so test classes running concurrently on other threads keep their own
+ * engine. The context customizer of {@code @InMemoryDb} then starts the database on that engine,
+ * in a test context cached apart from the other engines. By
+ * default a first, untimed pass over all engines loads the contexts and warms up the JVM, so the
+ * timings only cover the tests themselves.
+ * <p>
+ * The comparison table is logged and written to {@code target/springtestify/db-matrix}, unless
+ * the {@value #REPORT_DIRECTORY_PROPERTY} system property points elsewhere.
+ * <p>
+ * Example usage:
+ * <pre>
+ * &#064;Test
+ * void compareEngines() {
+ *     DbMatrixReport report = new DbMatrixRunner().run(ProductRepositoryTest.class,
+ *             DbType.H2, DbType.POSTGRES_COMPATIBLE, DbType.HSQLDB);
+ *     assertThat(report.getFailures()).isEmpty();
+ * }
+ * </pre>
+ */
+public class DbMatrixRunner {
+
+    /**
+     * System property overriding the directory of the comparison tables.
+     */
+    public static final String REPORT_DIRECTORY_PROPERTY = "springtestify.db.matrix.reports";
+
+    private static final String DEFAULT_REPORT_DIRECTORY = "target/springtestify/db-matrix";
+
+    // Keeps the launched classes on the thread of the runner, where their engine is visible
+    private static final String PARALLEL_EXECUTION_PARAMETER = "junit.jupiter.execution.parallel.enabled";
+
+    private static final Log logger = LogFactory.getLog(DbMatrixRunner.class);
+
+    private static final ThreadLocal<Launch> CURRENT_LAUNCH = new ThreadLocal<>();
+
+    private final boolean warmUp;
+
+    /**
+     * Creates a runner warming up every engine before timing it.
+     */
+    public DbMatrixRunner() {
+        this(true);
+    }
+
+    /**
+     * Creates a runner.
+     *
+     * @param warmUp whether to run the test class once on every engine before timing it
+     */
+    public DbMatrixRunner(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * Returns the engine a test class runs on while the runner launches it on the current thread.
+     *
+     * @param testClass the test class, or one of its nested classes
+     * @return the engine of the matrix, or null when the class is not being launched by a runner
+     */
+    public static DbType engineOf(Class<?> testClass) {
+        Launch launch = CURRENT_LAUNCH.get();
+        if (launch == null) {
+            return null;
+        }
+        for (Class<?> type = testClass; type != null; type = type.getEnclosingClass()) {
+            if (type == launch.testClass) {
+                return launch.engine;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs a test class on the given engines.
+     *
+     * @param testClass the test class
+     * @param engines the engines, all relational engines if none
+     * @return the timings of the tests per engine
+     */
+    public DbMatrixReport run(Class<?> testClass, DbType... engines) {
+        List<DbType> selected = new ArrayList<>(Arrays.asList(engines));
+        if (selected.isEmpty()) {
+            selected.addAll(Arrays.asList(DbType.values()));
+        }
+        selected.remove(DbType.MONGODB);
+
+        if (warmUp) {
+            selected.forEach(engine -> launch(testClass, engine, null));
+        }
+
+        DbMatrixReport report = new DbMatrixReport(testClass, selected);
+        selected.forEach(engine -> launch(testClass, engine, report));
+
+        if (logger.isInfoEnabled()) {
+            logger.info("Engine matrix of " + testClass.getName() + ":\n" + report.toTable());
+        }
+        write(report);
+        return report;
+    }
+
+    private static void launch(Class<?> testClass, DbType engine, DbMatrixReport report) {
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(testClass))
+                .configurationParameter(PARALLEL_EXECUTION_PARAMETER, "false")
+                .build();
+        Launcher launcher = LauncherFactory.create();
+
+        Launch previous = CURRENT_LAUNCH.get();
+        CURRENT_LAUNCH.set(new Launch(testClass, engine));
+        try {
+            launcher.execute(request, new TimingListener(engine, report));
+        } finally {
+            if (previous != null) {
+                CURRENT_LAUNCH.set(previous);
+            } else {
+                CURRENT_LAUNCH.remove();
+            }
+        }
+    }
+
+    private static void write(DbMatrixReport report) {
+        Path directory = Paths.get(System.getProperty(REPORT_DIRECTORY_PROPERTY, DEFAULT_REPORT_DIRECTORY));
+        Path file = directory.resolve(report.getTestClass().getName() + ".md");
+        try {
+            Files.createDirectories(directory);
+            Files.write(file, report.toTable().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Could not write the engine matrix report to " + file, e);
+        }
+    }
+
+    /**
+     * A test class being launched on an engine.
+     */
+    private static final class Launch {
+
+        private final Class<?> testClass;
+        private final DbType engine;
+
+        Launch(Class<?> testClass, DbType engine) {
+            this.testClass = testClass;
+            this.engine = engine;
+        }
+    }
+
+    /**
+     * Records the duration and outcome of every test of a launch.
+     */
+    private static class TimingListener implements TestExecutionListener {
+
+        private final DbType engine;
+        private final DbMatrixReport report;
+        private final Map<String, Long> starts = new ConcurrentHashMap<>();
+
+        TimingListener(DbType engine, DbMatrixReport report) {
+            this.engine = engine;
+            this.report = report;
+        }
+
+        @Override
+        public void executionStarted(TestIdentifier testIdentifier) {
+            if (testIdentifier.isTest()) {
+                starts.put(testIdentifier.getUniqueId(), System.nanoTime());
+            }
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+            Long start = starts.remove(testIdentifier.getUniqueId());
+            boolean passed = testExecutionResult.getStatus() == TestExecutionResult.Status.SUCCESSFUL;
+            if (!passed) {
+                logger.warn(testIdentifier.getDisplayName() + " did not pass on " + engine,
+                        testExecutionResult.getThrowable().orElse(null));
+            }
+            if (report != null && start != null) {
+                report.record(testIdentifier.getDisplayName(), engine, System.nanoTime() - start, passed);
+            }
+        }
+    }
+}
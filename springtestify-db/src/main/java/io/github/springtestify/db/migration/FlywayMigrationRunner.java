@@ -0,0 +1,46 @@
+package io.github.springtestify.db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link MigrationRunner} backed by Flyway.
+ */
+class FlywayMigrationRunner implements MigrationRunner {
+
+    private final ResourcePatternResolver resourceResolver;
+    private final String[] locations;
+
+    FlywayMigrationRunner(ResourcePatternResolver resourceResolver, String[] locations) {
+        this.resourceResolver = resourceResolver;
+        this.locations = locations;
+    }
+
+    @Override
+    public List<Resource> getMigrationFiles() throws IOException {
+        List<Resource> files = new ArrayList<>();
+        for (String location : locations) {
+            String pattern = location.startsWith("classpath:")
+                    ? "classpath*:" + location.substring("classpath:".length())
+                    : location;
+            files.addAll(Arrays.asList(resourceResolver.getResources(pattern + "/**/*")));
+        }
+        return files;
+    }
+
+    @Override
+    public void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations(locations)
+                .load()
+                .migrate();
+    }
+}
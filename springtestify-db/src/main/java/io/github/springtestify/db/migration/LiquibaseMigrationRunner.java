@@ -0,0 +1,48 @@
+package io.github.springtestify.db.migration;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link MigrationRunner} backed by Liquibase.
+ * <p>
+ * All files in the directory of the master change log, and below it, count as migration files.
+ */
+class LiquibaseMigrationRunner implements MigrationRunner {
+
+    private final ResourcePatternResolver resourceResolver;
+    private final String changeLog;
+
+    LiquibaseMigrationRunner(ResourcePatternResolver resourceResolver, String changeLog) {
+        this.resourceResolver = resourceResolver;
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public List<Resource> getMigrationFiles() throws IOException {
+        String directory = changeLog.substring(0, changeLog.lastIndexOf('/') + 1);
+        String pattern = directory.startsWith("classpath:")
+                ? "classpath*:" + directory.substring("classpath:".length())
+                : directory;
+        return Arrays.asList(resourceResolver.getResources(pattern + "**/*"));
+    }
+
+    @Override
+    public void migrate(DataSource dataSource) {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(changeLog);
+        liquibase.setResourceLoader(resourceResolver);
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to apply Liquibase change log " + changeLog, e);
+        }
+    }
+}
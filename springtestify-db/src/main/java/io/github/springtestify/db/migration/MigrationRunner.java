@@ -0,0 +1,28 @@
+package io.github.springtestify.db.migration;
+
+import org.springframework.core.io.Resource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Applies versioned schema migrations to a database.
+ */
+public interface MigrationRunner {
+
+    /**
+     * Returns all files that make up the migrations, used to detect changes.
+     *
+     * @return the migration files
+     * @throws IOException if the migration locations cannot be scanned
+     */
+    List<Resource> getMigrationFiles() throws IOException;
+
+    /**
+     * Applies the pending migrations.
+     *
+     * @param dataSource the DataSource to migrate
+     */
+    void migrate(DataSource dataSource);
+}
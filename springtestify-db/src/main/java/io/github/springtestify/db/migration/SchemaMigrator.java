@@ -0,0 +1,193 @@
+package io.github.springtestify.db.migration;
+
+import io.github.springtestify.db.initializer.ScriptExecutionLedger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.EnvironmentCapable;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the schema migrations requested by {@code @InMemoryDb(migrate = true)}.
+ * <p>
+ * The migration tool is chosen by what is on the classpath: Flyway, then Liquibase, then plain
+ * versioned SQL files in {@code db/migration}. The locations follow the Spring Boot properties
+ * {@code spring.flyway.locations} and {@code spring.liquibase.change-log} when available.
+ * <p>
+ * The schema produced by the migrations is cached as a snapshot keyed by a checksum of all
+ * migration files. On H2, an empty database is restored from that snapshot with a single
+ * {@code RUNSCRIPT} instead of replaying every migration; snapshots are stored in the
+ * {@value #SNAPSHOT_DIRECTORY_PROPERTY} directory (a temporary directory by default) and are
+ * shared by all test JVMs. Other databases, and databases that already contain tables, are
+ * migrated by the migration tool itself.
+ */
+public class SchemaMigrator {
+
+    /**
+     * System property holding the directory of the schema snapshots.
+     */
+    public static final String SNAPSHOT_DIRECTORY_PROPERTY = "springtestify.schema-cache.dir";
+
+    private static final Log logger = LogFactory.getLog(SchemaMigrator.class);
+
+    private static final String DEFAULT_MIGRATION_LOCATION = "classpath:db/migration";
+    private static final String DEFAULT_CHANGE_LOG = "classpath:db/changelog/db.changelog-master.yaml";
+
+    private final ResourcePatternResolver resourceResolver;
+
+    public SchemaMigrator(ResourceLoader resourceLoader) {
+        this.resourceResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+    }
+
+    /**
+     * Migrates the database, restoring a cached schema snapshot when possible.
+     *
+     * @param dataSource the DataSource to migrate
+     */
+    public void migrate(DataSource dataSource) {
+        long start = System.nanoTime();
+        MigrationRunner runner = createRunner();
+        String checksum;
+        try {
+            checksum = checksum(runner.getMigrationFiles());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read migration files", e);
+        }
+
+        String ledgerKey = "migrations@" + checksum;
+        if (ScriptExecutionLedger.isExecuted(dataSource, ledgerKey)) {
+            return;
+        }
+
+        Path snapshot = null;
+        String mode = "Applied migrations";
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (isH2(connection) && isEmpty(connection)) {
+                snapshot = snapshotDirectory().resolve("h2-" + connection.getMetaData().getDatabaseProductVersion()
+                        .replaceAll("[^A-Za-z0-9.]", "_") + "-" + checksum + ".sql");
+                if (Files.exists(snapshot)) {
+                    runScript(connection, snapshot);
+                    mode = "Restored migrated schema snapshot";
+                    snapshot = null;
+                } else {
+                    runner.migrate(dataSource);
+                    writeSnapshot(connection, snapshot);
+                }
+            } else {
+                runner.migrate(dataSource);
+            }
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Failed to migrate the database schema", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        ScriptExecutionLedger.markExecuted(dataSource, ledgerKey);
+        if (logger.isInfoEnabled()) {
+            logger.info(String.format("%s in %d ms%s", mode, (System.nanoTime() - start) / 1_000_000,
+                    snapshot != null ? " (snapshot written to " + snapshot + ")" : ""));
+        }
+    }
+
+    private MigrationRunner createRunner() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        if (ClassUtils.isPresent("org.flywaydb.core.Flyway", classLoader)) {
+            String locations = getProperty("spring.flyway.locations", DEFAULT_MIGRATION_LOCATION);
+            return new FlywayMigrationRunner(resourceResolver, locations.split("\\s*,\\s*"));
+        }
+        String changeLog = getProperty("spring.liquibase.change-log", DEFAULT_CHANGE_LOG);
+        if (ClassUtils.isPresent("liquibase.integration.spring.SpringLiquibase", classLoader)
+                && resourceResolver.getResource(changeLog).exists()) {
+            return new LiquibaseMigrationRunner(resourceResolver, changeLog);
+        }
+        return new SqlFolderMigrationRunner(resourceResolver, DEFAULT_MIGRATION_LOCATION);
+    }
+
+    private String getProperty(String name, String defaultValue) {
+        if (resourceResolver instanceof EnvironmentCapable) {
+            Environment environment = ((EnvironmentCapable) resourceResolver).getEnvironment();
+            return environment.getProperty(name, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    private static String checksum(List<Resource> files) throws IOException {
+        List<Resource> sorted = new ArrayList<>(files);
+        sorted.removeIf(resource -> !resource.isReadable());
+        sorted.sort(Comparator.comparing(Resource::getDescription));
+
+        CRC32 crc = new CRC32();
+        for (Resource file : sorted) {
+            byte[] name = String.valueOf(file.getFilename()).getBytes(StandardCharsets.UTF_8);
+            crc.update(name, 0, name.length);
+            try (InputStream inputStream = file.getInputStream()) {
+                byte[] content = StreamUtils.copyToByteArray(inputStream);
+                crc.update(content, 0, content.length);
+            }
+        }
+        return sorted.size() + "-" + Long.toHexString(crc.getValue());
+    }
+
+    private static boolean isH2(Connection connection) throws SQLException {
+        return "H2".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static boolean isEmpty(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(null, connection.getSchema(), null, new String[]{"TABLE"})) {
+            return !tables.next();
+        }
+    }
+
+    private static void runScript(Connection connection, Path snapshot) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM '" + escape(snapshot) + "'");
+        }
+    }
+
+    private static void writeSnapshot(Connection connection, Path snapshot) throws SQLException, IOException {
+        // Write next to the target and move it in place, so concurrent forks never read a partial file
+        Path temporary = Files.createTempFile(snapshot.getParent(), "schema-", ".tmp");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SCRIPT TO '" + escape(temporary) + "'");
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Path snapshotDirectory() throws IOException {
+        String directory = System.getProperty(SNAPSHOT_DIRECTORY_PROPERTY);
+        Path path = directory != null && !directory.isEmpty()
+                ? Paths.get(directory)
+                : Paths.get(System.getProperty("java.io.tmpdir"), "springtestify-schema-cache");
+        return Files.createDirectories(path);
+    }
+
+    private static String escape(Path path) {
+        return path.toAbsolutePath().toString().replace("'", "''");
+    }
+}
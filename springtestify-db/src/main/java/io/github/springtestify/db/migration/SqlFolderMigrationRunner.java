@@ -0,0 +1,101 @@
+package io.github.springtestify.db.migration;
+
+import io.github.springtestify.db.initializer.BatchedScriptExecutor;
+import io.github.springtestify.db.initializer.ParsedScriptCache;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link MigrationRunner} applying plain versioned SQL files.
+ * <p>
+ * Files follow the Flyway naming scheme, {@code V<version>__<description>.sql} with a version
+ * such as {@code 1}, {@code 1.2} or {@code 1_2}, and are applied in version order. Applied
+ * versions are recorded in the {@value #HISTORY_TABLE} table, so running the migrations again
+ * only applies the new files.
+ */
+class SqlFolderMigrationRunner implements MigrationRunner {
+
+    static final String HISTORY_TABLE = "SPRINGTESTIFY_SCHEMA_HISTORY";
+
+    private static final Pattern VERSIONED_FILE = Pattern.compile("V([0-9][0-9._]*)__.*\\.sql");
+
+    private final ResourcePatternResolver resourceResolver;
+    private final String location;
+
+    SqlFolderMigrationRunner(ResourcePatternResolver resourceResolver, String location) {
+        this.resourceResolver = resourceResolver;
+        this.location = location;
+    }
+
+    @Override
+    public List<Resource> getMigrationFiles() throws IOException {
+        String pattern = location.startsWith("classpath:")
+                ? "classpath*:" + location.substring("classpath:".length())
+                : location;
+        List<Resource> files = new ArrayList<>();
+        for (Resource resource : resourceResolver.getResources(pattern + "/V*__*.sql")) {
+            if (resource.getFilename() != null && VERSIONED_FILE.matcher(resource.getFilename()).matches()) {
+                files.add(resource);
+            }
+        }
+        files.sort((first, second) -> compareVersions(version(first), version(second)));
+        return files;
+    }
+
+    @Override
+    public void migrate(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + HISTORY_TABLE
+                + " (VERSION VARCHAR(50) PRIMARY KEY, SCRIPT VARCHAR(255))");
+        Set<String> applied = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT VERSION FROM " + HISTORY_TABLE, String.class));
+
+        BatchedScriptExecutor executor = new BatchedScriptExecutor(dataSource, 1000, 10000);
+        try {
+            for (Resource file : getMigrationFiles()) {
+                String version = version(file);
+                if (applied.add(version)) {
+                    executor.execute(ParsedScriptCache.get(file));
+                    jdbcTemplate.update("INSERT INTO " + HISTORY_TABLE + " (VERSION, SCRIPT) VALUES (?, ?)",
+                            version, file.getFilename());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read migrations from " + location, e);
+        }
+    }
+
+    private static String version(Resource resource) {
+        Matcher matcher = VERSIONED_FILE.matcher(resource.getFilename());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a versioned migration: " + resource.getFilename());
+        }
+        return matcher.group(1).replace('_', '.');
+    }
+
+    private static int compareVersions(String first, String second) {
+        List<String> firstParts = Arrays.asList(first.split("\\."));
+        List<String> secondParts = Arrays.asList(second.split("\\."));
+        for (int i = 0; i < Math.max(firstParts.size(), secondParts.size()); i++) {
+            BigInteger firstPart = i < firstParts.size() ? new BigInteger(firstParts.get(i)) : BigInteger.ZERO;
+            BigInteger secondPart = i < secondParts.size() ? new BigInteger(secondParts.get(i)) : BigInteger.ZERO;
+            int comparison = firstPart.compareTo(secondPart);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.springtestify.db.mongo;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Command listener counting the write commands sent to each collection.
+ * <p>
+ * Counters are keyed by namespace ({@code database.collection}) and only ever grow, so comparing
+ * a counter with an earlier reading tells whether a collection may have changed without reading
+ * any of its documents. Registered on the client of the shared embedded {@code mongod}; other
+ * clients can register {@link #getInstance()} through their {@code MongoClientSettings}.
+ */
+public final class MongoChangeTracker implements CommandListener {
+
+    private static final MongoChangeTracker INSTANCE = new MongoChangeTracker();
+
+    private static final Set<String> WRITE_COMMANDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "insert", "update", "delete", "findAndModify", "findandmodify", "drop")));
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private MongoChangeTracker() {
+    }
+
+    /**
+     * @return the JVM-wide tracker
+     */
+    public static MongoChangeTracker getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if (WRITE_COMMANDS.contains(commandName)) {
+            BsonValue collection = event.getCommand().get(commandName);
+            if (collection != null && collection.isString()) {
+                increment(event.getDatabaseName() + "." + collection.asString().getValue());
+            }
+        } else if ("dropDatabase".equals(commandName)) {
+            String prefix = event.getDatabaseName() + ".";
+            counters.forEach((namespace, counter) -> {
+                if (namespace.startsWith(prefix)) {
+                    counter.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of write commands sent to a collection so far.
+     *
+     * @param database   the database name
+     * @param collection the collection name
+     * @return the change counter
+     */
+    public long getChangeCount(String database, String collection) {
+        AtomicLong counter = counters.get(database + "." + collection);
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Returns the counters of all collections of a database.
+     *
+     * @param database the database name
+     * @return the change counters keyed by collection name
+     */
+    public Map<String, Long> getChangeCounts(String database) {
+        String prefix = database + ".";
+        Map<String, Long> result = new HashMap<>();
+        counters.forEach((namespace, counter) -> {
+            if (namespace.startsWith(prefix)) {
+                result.put(namespace.substring(prefix.length()), counter.get());
+            }
+        });
+        return result;
+    }
+
+    private void increment(String namespace) {
+        counters.computeIfAbsent(namespace, key -> new AtomicLong()).incrementAndGet();
+    }
+}
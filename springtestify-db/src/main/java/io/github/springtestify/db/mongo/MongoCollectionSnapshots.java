@@ -0,0 +1,98 @@
+package io.github.springtestify.db.mongo;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory snapshot of the documents of a set of collections.
+ * <p>
+ * Documents are kept as raw BSON bytes. Restoring compares the {@link MongoChangeTracker}
+ * counter of each collection with the value recorded at capture time and only rewrites the
+ * collections that received write commands since, keeping their indexes.
+ */
+public class MongoCollectionSnapshots {
+
+    private final MongoDatabase database;
+    private final Map<String, CollectionSnapshot> snapshots = new HashMap<>();
+
+    private MongoCollectionSnapshots(MongoDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Captures the current documents of the given collections.
+     *
+     * @param database    the database holding the collections
+     * @param collections the collection names
+     * @return the snapshots
+     */
+    public static MongoCollectionSnapshots capture(MongoDatabase database, Collection<String> collections) {
+        MongoCollectionSnapshots result = new MongoCollectionSnapshots(database);
+        MongoChangeTracker tracker = MongoChangeTracker.getInstance();
+        for (String name : collections) {
+            List<RawBsonDocument> documents = new ArrayList<>();
+            rawCollection(database, name).find().into(documents);
+            result.snapshots.put(name, new CollectionSnapshot(documents,
+                    tracker.getChangeCount(database.getName(), name)));
+        }
+        return result;
+    }
+
+    /**
+     * Restores the collections that changed since they were captured or last restored.
+     *
+     * @return the number of restored collections
+     */
+    public int restoreChanged() {
+        MongoChangeTracker tracker = MongoChangeTracker.getInstance();
+        int restored = 0;
+        for (Map.Entry<String, CollectionSnapshot> entry : snapshots.entrySet()) {
+            String name = entry.getKey();
+            CollectionSnapshot snapshot = entry.getValue();
+            if (tracker.getChangeCount(database.getName(), name) == snapshot.changeCount) {
+                continue;
+            }
+
+            MongoCollection<RawBsonDocument> collection = rawCollection(database, name);
+            collection.deleteMany(new Document());
+            if (!snapshot.documents.isEmpty()) {
+                collection.insertMany(snapshot.documents, new InsertManyOptions().ordered(false));
+            }
+            // The restore itself is a change; remember the counter reached after it
+            snapshot.changeCount = tracker.getChangeCount(database.getName(), name);
+            restored++;
+        }
+        return restored;
+    }
+
+    /**
+     * @return the names of the captured collections
+     */
+    public Collection<String> getCollections() {
+        return snapshots.keySet();
+    }
+
+    private static MongoCollection<RawBsonDocument> rawCollection(MongoDatabase database, String name) {
+        return database.getCollection(name).withDocumentClass(RawBsonDocument.class);
+    }
+
+    private static final class CollectionSnapshot {
+
+        private final List<RawBsonDocument> documents;
+        private long changeCount;
+
+        CollectionSnapshot(List<RawBsonDocument> documents, long changeCount) {
+            this.documents = documents;
+            this.changeCount = changeCount;
+        }
+    }
+}
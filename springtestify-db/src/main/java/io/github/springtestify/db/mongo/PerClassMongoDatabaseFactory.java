@@ -0,0 +1,56 @@
+package io.github.springtestify.db.mongo;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+
+/**
+ * {@link org.springframework.data.mongodb.MongoDatabaseFactory} whose default database can be
+ * switched at runtime.
+ * <p>
+ * A cached application context is shared by many test classes; switching the database name for
+ * each class gives every class an isolated database without creating a new context. Test classes
+ * sharing a context are therefore expected to run one at a time.
+ */
+public class PerClassMongoDatabaseFactory extends SimpleMongoClientDatabaseFactory {
+
+    private final String defaultDatabaseName;
+    private volatile String databaseName;
+
+    public PerClassMongoDatabaseFactory(MongoClient mongoClient, String defaultDatabaseName) {
+        super(mongoClient, defaultDatabaseName);
+        this.defaultDatabaseName = defaultDatabaseName;
+        this.databaseName = defaultDatabaseName;
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase() {
+        return getMongoDatabase(databaseName);
+    }
+
+    /**
+     * Switches the default database.
+     *
+     * @param databaseName the database used by subsequent operations
+     */
+    public void useDatabase(String databaseName) {
+        this.databaseName = databaseName;
+    }
+
+    /**
+     * Drops the current database and switches back to the default one.
+     */
+    public void dropDatabase() {
+        if (!databaseName.equals(defaultDatabaseName)) {
+            getMongoDatabase(databaseName).drop();
+        }
+        this.databaseName = defaultDatabaseName;
+    }
+
+    /**
+     * @return the name of the current database
+     */
+    public String getDatabaseName() {
+        return databaseName;
+    }
+}
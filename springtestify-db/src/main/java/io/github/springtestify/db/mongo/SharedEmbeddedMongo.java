@@ -0,0 +1,335 @@
+package io.github.springtestify.db.mongo;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodProcess;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfig;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.IFeatureAwareVersion;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.distribution.Versions;
+import de.flapdoodle.embed.process.runtime.Network;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single embedded {@code mongod} shared by all test contexts of the JVM.
+ * <p>
+ * The process is started lazily, the first time a test context needs MongoDB, and stopped when
+ * the JVM exits. When the {@value #LOCK_FILE_PROPERTY} system property points to a file, the
+ * process is also shared across forked test JVMs:
+ * <ul>
+ *   <li>the lock file holds the port of the running {@code mongod} and is locked while a JVM
+ *   checks or starts the process, so concurrent forks never start two of them</li>
+ *   <li>every JVM using the process holds a lock on a lease file next to the lock file</li>
+ *   <li>the JVM that started the process waits, on exit, until no other lease is held before
+ *   stopping it, for at most {@value #LEASE_TIMEOUT_PROPERTY} seconds (120 by default); forks still
+ *   running after that lose the process, so raise it for suites whose forks finish far apart</li>
+ * </ul>
+ * The MongoDB version can be chosen with the {@value #VERSION_PROPERTY} system property and
+ * defaults to the current production version known to the embedded Mongo library.
+ */
+public final class SharedEmbeddedMongo {
+
+    /**
+     * System property holding the MongoDB version to start, e.g. {@code 5.0.5}.
+     */
+    public static final String VERSION_PROPERTY = "springtestify.mongo.version";
+
+    /**
+     * System property holding the lock file used to share the process across JVMs.
+     */
+    public static final String LOCK_FILE_PROPERTY = "springtestify.mongo.lock-file";
+
+    /**
+     * System property holding how long, in seconds, the JVM that started the process waits on exit
+     * for the other JVMs to release their lease.
+     */
+    public static final String LEASE_TIMEOUT_PROPERTY = "springtestify.mongo.lease-timeout";
+
+    private static final Log logger = LogFactory.getLog(SharedEmbeddedMongo.class);
+
+    private static final String HOST = "localhost";
+    private static final long LEASE_POLL_MILLIS = 500;
+
+    private static volatile SharedEmbeddedMongo instance;
+
+    private final int port;
+    private final MongoClient client;
+
+    private SharedEmbeddedMongo(int port) {
+        this.port = port;
+        this.client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(getConnectionString()))
+                .addCommandListener(MongoChangeTracker.getInstance())
+                .build());
+    }
+
+    /**
+     * Returns the shared instance, starting or joining the {@code mongod} process on first use.
+     *
+     * @return the shared instance
+     */
+    public static SharedEmbeddedMongo get() {
+        SharedEmbeddedMongo result = instance;
+        if (result == null) {
+            synchronized (SharedEmbeddedMongo.class) {
+                result = instance;
+                if (result == null) {
+                    String lockFile = System.getProperty(LOCK_FILE_PROPERTY);
+                    try {
+                        Startup startup = lockFile == null || lockFile.isEmpty()
+                                ? startLocal(Mongod::start)
+                                : startOrJoin(Paths.get(lockFile), Mongod::start,
+                                        TimeUnit.SECONDS.toMillis(Long.getLong(LEASE_TIMEOUT_PROPERTY, 120)));
+                        Runtime.getRuntime().addShutdownHook(new Thread(startup.shutdown,
+                                "springtestify-mongod-shutdown"));
+                        result = new SharedEmbeddedMongo(startup.port);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to start the shared embedded MongoDB", e);
+                    }
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the client connected to the shared process; it must not be closed by callers
+     */
+    public MongoClient getClient() {
+        return client;
+    }
+
+    /**
+     * @return the connection string of the shared process
+     */
+    public String getConnectionString() {
+        return "mongodb://" + HOST + ":" + port;
+    }
+
+    /**
+     * Starts a process for this JVM only.
+     */
+    static Startup startLocal(Starter starter) throws IOException {
+        int port = Network.freeServerPort(Network.getLocalHost());
+        return new Startup(port, starter.start(port));
+    }
+
+    /**
+     * Joins the process of the lock file, or starts it when it is not running.
+     */
+    static Startup startOrJoin(Path lockFile, Starter starter, long leaseTimeoutMillis) throws IOException {
+        Path directory = lockFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path lease = directory.resolve(lockFile.getFileName() + ".lease-" + UUID.randomUUID());
+        FileChannel leaseChannel = FileChannel.open(lease, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // Held until the shutdown hook releases it; the OS releases it even if the JVM dies
+        leaseChannel.lock();
+        Runnable release = () -> {
+            closeQuietly(leaseChannel);
+            deleteQuietly(lease);
+        };
+
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            int port = readPort(channel);
+            if (port > 0 && isListening(port)) {
+                return new Startup(port, release);
+            }
+
+            port = Network.freeServerPort(Network.getLocalHost());
+            Runnable stop = starter.start(port);
+            writePort(channel, port);
+            return new Startup(port, () -> {
+                if (!awaitOtherLeases(lockFile, lease, leaseTimeoutMillis)) {
+                    logger.warn("Stopping the shared embedded MongoDB while other JVMs still use it, after waiting "
+                            + leaseTimeoutMillis + " ms; raise " + LEASE_TIMEOUT_PROPERTY + " if they need longer");
+                }
+                stop.run();
+                release.run();
+            });
+        } catch (IOException | RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until no lease other than the own one is held.
+     *
+     * @return true if all other leases were released, false if the wait timed out or was interrupted
+     */
+    static boolean awaitOtherLeases(Path lockFile, Path ownLease, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        String prefix = lockFile.getFileName() + ".lease-";
+        while (true) {
+            boolean held = false;
+            try (DirectoryStream<Path> leases = Files.newDirectoryStream(ownLease.getParent(), prefix + "*")) {
+                for (Path lease : leases) {
+                    if (!lease.equals(ownLease) && isHeld(lease)) {
+                        held = true;
+                    }
+                }
+            } catch (IOException e) {
+                return true;
+            }
+            if (!held) {
+                return true;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(LEASE_POLL_MILLIS, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private static boolean isHeld(Path lease) {
+        try (FileChannel channel = FileChannel.open(lease, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                return true;
+            }
+            // The JVM that held this lease is gone
+            lock.release();
+            deleteQuietly(lease);
+            return false;
+        } catch (OverlappingFileLockException e) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int readPort(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        channel.read(buffer, 0);
+        String content = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+        try {
+            return content.isEmpty() ? -1 : Integer.parseInt(content);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void writePort(FileChannel channel, int port) throws IOException {
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(String.valueOf(port).getBytes(StandardCharsets.US_ASCII)), 0);
+        channel.force(true);
+    }
+
+    private static boolean isListening(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(HOST, port), 500);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Closing releases the lock; the OS does it anyway on exit
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Leftover lease files are detected as stale by the next owner
+        }
+    }
+
+    /**
+     * Starts a {@code mongod} process.
+     */
+    @FunctionalInterface
+    interface Starter {
+
+        /**
+         * @param port the port to listen on
+         * @return the action stopping the process
+         */
+        Runnable start(int port) throws IOException;
+    }
+
+    /**
+     * The port of a started or joined process, with the action to run when the JVM exits.
+     */
+    static final class Startup {
+
+        final int port;
+        final Runnable shutdown;
+
+        Startup(int port, Runnable shutdown) {
+            this.port = port;
+            this.shutdown = shutdown;
+        }
+    }
+
+    /**
+     * A running {@code mongod} process.
+     */
+    private static final class Mongod {
+
+        private final MongodExecutable executable;
+        private final MongodProcess process;
+
+        private Mongod(MongodExecutable executable, MongodProcess process) {
+            this.executable = executable;
+            this.process = process;
+        }
+
+        static Runnable start(int port) throws IOException {
+            MongodConfig config = MongodConfig.builder()
+                    .version(version())
+                    .net(new Net(HOST, port, Network.localhostIsIPv6()))
+                    .build();
+            MongodExecutable executable = MongodStarter.getDefaultInstance().prepare(config);
+            return new Mongod(executable, executable.start())::stop;
+        }
+
+        private static IFeatureAwareVersion version() {
+            String version = System.getProperty(VERSION_PROPERTY);
+            return version == null || version.isEmpty()
+                    ? Version.Main.PRODUCTION
+                    : Versions.withFeatures(de.flapdoodle.embed.process.distribution.Version.of(version));
+        }
+
+        void stop() {
+            process.stop();
+            executable.stop();
+        }
+    }
+}
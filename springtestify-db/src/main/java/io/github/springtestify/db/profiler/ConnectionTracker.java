@@ -0,0 +1,270 @@
+package io.github.springtestify.db.profiler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the connections handed out by {@link StatementRecordingDataSource} to detect leaks, long
+ * transactions and lock waits.
+ * <p>
+ * Every open connection is registered with its owner: the test that marked the acquiring thread, see
+ * {@link #mark()}, or the acquiring thread itself. Tracking a healthy connection costs a map insertion
+ * and a removal. The stack that acquired a connection is only captured when the
+ * {@value #CAPTURE_STACKS_PROPERTY} system property is {@code true}, since filling in a stack trace on
+ * every acquisition is far from free. Problems are logged as warnings:
+ * <ul>
+ *   <li>A connection acquired by a test and still open once it has ended, see {@link #openSince(long)}</li>
+ *   <li>A transaction that stayed open longer than {@value #TRANSACTION_THRESHOLD_PROPERTY}
+ *   milliseconds, 1000 by default</li>
+ *   <li>A statement that timed out on a lock, or that took longer than
+ *   {@value #LOCK_WAIT_THRESHOLD_PROPERTY} milliseconds (500 by default) while another connection
+ *   of the same owner had a transaction open, with the transactions that may hold the lock</li>
+ * </ul>
+ */
+public final class ConnectionTracker {
+
+    /**
+     * System property setting the duration, in milliseconds, above which a transaction is reported.
+     */
+    public static final String TRANSACTION_THRESHOLD_PROPERTY = "springtestify.db.transaction-threshold";
+
+    /**
+     * System property setting the duration, in milliseconds, above which a statement is suspected
+     * of waiting on a lock.
+     */
+    public static final String LOCK_WAIT_THRESHOLD_PROPERTY = "springtestify.db.lock-wait-threshold";
+
+    /**
+     * System property enabling the capture of the stack acquiring each connection, reported with leaks,
+     * long transactions and lock waits.
+     */
+    public static final String CAPTURE_STACKS_PROPERTY = "springtestify.db.capture-connection-stacks";
+
+    private static final Log logger = LogFactory.getLog(ConnectionTracker.class);
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final Map<Long, TrackedConnection> OPEN = new ConcurrentHashMap<>();
+    private static final InheritableThreadLocal<Object> OWNER = new InheritableThreadLocal<>();
+
+    private static volatile long transactionThresholdNanos =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong(TRANSACTION_THRESHOLD_PROPERTY, 1000));
+    private static volatile long lockWaitThresholdNanos =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong(LOCK_WAIT_THRESHOLD_PROPERTY, 500));
+    private static volatile boolean captureStacks = Boolean.getBoolean(CAPTURE_STACKS_PROPERTY);
+
+    private ConnectionTracker() {
+    }
+
+    /**
+     * Overrides the thresholds of the system properties.
+     *
+     * @param transactionThresholdMillis the long transaction threshold
+     * @param lockWaitThresholdMillis the lock wait threshold
+     */
+    static void setThresholds(long transactionThresholdMillis, long lockWaitThresholdMillis) {
+        transactionThresholdNanos = TimeUnit.MILLISECONDS.toNanos(transactionThresholdMillis);
+        lockWaitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(lockWaitThresholdMillis);
+    }
+
+    /**
+     * Overrides the {@value #CAPTURE_STACKS_PROPERTY} system property.
+     *
+     * @param enabled whether to capture the stack acquiring each connection
+     */
+    static void setCaptureStacks(boolean enabled) {
+        captureStacks = enabled;
+    }
+
+    /**
+     * Returns a mark to later find the connections opened after this call.
+     * <p>
+     * The current thread, and the threads it starts afterwards, become the owner of the connections
+     * they open, so that tests running in parallel only see their own connections.
+     *
+     * @return the mark
+     */
+    public static long mark() {
+        OWNER.set(new Object());
+        return SEQUENCE.get();
+    }
+
+    /**
+     * Returns the connections opened after a mark by the owner of the current thread and not closed yet.
+     *
+     * @param mark the mark returned by {@link #mark()}
+     * @return the open connections, oldest first
+     */
+    public static List<TrackedConnection> openSince(long mark) {
+        Object owner = currentOwner();
+        List<TrackedConnection> connections = new ArrayList<>();
+        for (TrackedConnection connection : OPEN.values()) {
+            if (connection.id > mark && connection.owner == owner) {
+                connections.add(connection);
+            }
+        }
+        connections.sort((left, right) -> Long.compare(left.id, right.id));
+        return connections;
+    }
+
+    static TrackedConnection opened() {
+        TrackedConnection connection = new TrackedConnection(SEQUENCE.incrementAndGet(), currentOwner(),
+                captureStacks ? new Throwable("Connection acquired") : null);
+        OPEN.put(connection.id, connection);
+        return connection;
+    }
+
+    static void closed(TrackedConnection connection) {
+        if (OPEN.remove(connection.id) != null) {
+            connection.transactionEnded();
+        }
+    }
+
+    /**
+     * Reports a statement that may have waited on a lock held by another transaction.
+     *
+     * @param connection the connection that executed the statement
+     * @param sql the statement
+     * @param durationNanos the execution time
+     * @param failure the failure of the statement, or null
+     */
+    static void statementExecuted(TrackedConnection connection, String sql, long durationNanos, Throwable failure) {
+        boolean lockTimeout = failure instanceof SQLException && isLockTimeout((SQLException) failure);
+        if (!lockTimeout && durationNanos <= lockWaitThresholdNanos) {
+            return;
+        }
+
+        List<TrackedConnection> holders = new ArrayList<>();
+        for (TrackedConnection other : OPEN.values()) {
+            if (other != connection && other.owner == connection.owner && other.transactionStart != 0) {
+                holders.add(other);
+            }
+        }
+        if (!lockTimeout && holders.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder(lockTimeout
+                ? String.format("Lock timeout after %d ms on: %s", TimeUnit.NANOSECONDS.toMillis(durationNanos), sql)
+                : String.format("Statement ran %d ms, possibly waiting on a lock: %s",
+                        TimeUnit.NANOSECONDS.toMillis(durationNanos), sql));
+        for (TrackedConnection holder : holders) {
+            message.append(String.format("%nTransaction open for %d ms on %s",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - holder.transactionStart), holder.describe()));
+        }
+        logger.warn(message);
+    }
+
+    private static Object currentOwner() {
+        Object owner = OWNER.get();
+        return owner != null ? owner : Thread.currentThread();
+    }
+
+    /**
+     * Determines whether a failure is a lock timeout or a deadlock, from its SQL state.
+     */
+    private static boolean isLockTimeout(SQLException e) {
+        String state = e.getSQLState();
+        // HYT00: H2 lock timeout, 40001: deadlock or serialization failure, 40XL1: Derby lock timeout
+        return "HYT00".equals(state) || "40001".equals(state) || "40XL1".equals(state);
+    }
+
+    /**
+     * A connection handed out by {@link StatementRecordingDataSource}.
+     */
+    public static class TrackedConnection {
+
+        private final long id;
+        private final Object owner;
+        private final Throwable acquisition;
+        private final String thread = Thread.currentThread().getName();
+        private final long acquiredAt = System.nanoTime();
+        private volatile boolean autoCommit = true;
+        private volatile long transactionStart;
+
+        TrackedConnection(long id, Object owner, Throwable acquisition) {
+            this.id = id;
+            this.owner = owner;
+            this.acquisition = acquisition;
+        }
+
+        /**
+         * Returns how long the connection has been open.
+         *
+         * @return the duration in milliseconds
+         */
+        public long getOpenMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - acquiredAt);
+        }
+
+        /**
+         * Returns whether the connection has a transaction open.
+         *
+         * @return true if a transaction was started and not completed
+         */
+        public boolean isInTransaction() {
+            return transactionStart != 0;
+        }
+
+        /**
+         * Returns the stack that acquired the connection.
+         *
+         * @return the stack frames, empty unless {@value ConnectionTracker#CAPTURE_STACKS_PROPERTY} is set
+         */
+        public StackTraceElement[] getAcquisitionStack() {
+            return acquisition != null ? acquisition.getStackTrace() : new StackTraceElement[0];
+        }
+
+        /**
+         * Describes the connection with the stack that acquired it.
+         *
+         * @return the description
+         */
+        public String describe() {
+            StringWriter stack = new StringWriter();
+            if (acquisition != null) {
+                acquisition.printStackTrace(new PrintWriter(stack));
+            } else {
+                stack.write("Set -D" + CAPTURE_STACKS_PROPERTY + "=true to see the stack that acquired it");
+            }
+            return String.format("connection #%d acquired by thread %s %d ms ago%n%s",
+                    id, thread, getOpenMillis(), stack);
+        }
+
+        void autoCommitChanged(boolean autoCommit) {
+            if (autoCommit) {
+                transactionEnded();
+            }
+            this.autoCommit = autoCommit;
+        }
+
+        void statementCreated() {
+            if (!autoCommit && transactionStart == 0) {
+                transactionStart = System.nanoTime();
+            }
+        }
+
+        void transactionEnded() {
+            long start = transactionStart;
+            if (start == 0) {
+                return;
+            }
+            transactionStart = 0;
+
+            long duration = System.nanoTime() - start;
+            if (duration > transactionThresholdNanos) {
+                logger.warn(String.format("Transaction stayed open for %d ms on %s",
+                        TimeUnit.NANOSECONDS.toMillis(duration), describe()));
+            }
+        }
+    }
+}
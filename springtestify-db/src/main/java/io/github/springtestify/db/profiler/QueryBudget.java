@@ -0,0 +1,103 @@
+package io.github.springtestify.db.profiler;
+
+/**
+ * Assertions on the SQL statements executed by the running test.
+ * <p>
+ * The statements are recorded from the start of the test method by the statement recording
+ * listener. A failed assertion lists every statement executed so far and the repeated ones.
+ * <p>
+ * Example usage:
+ * <pre>
+ * orderRepository.findAllWithItems();
+ * QueryBudget.assertAtMost(1);
+ * QueryBudget.assertAtMostIdentical(1);
+ * </pre>
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    /**
+     * Returns the statements recorded for the running test.
+     *
+     * @return the statement log
+     * @throws IllegalStateException if the current thread is not recording
+     */
+    public static StatementLog current() {
+        StatementLog log = StatementRecorder.current();
+        if (log == null) {
+            throw new IllegalStateException("No statements are recorded on this thread; query budgets need a "
+                    + "test with a DataSource and the statement recording listener");
+        }
+        return log;
+    }
+
+    /**
+     * Forgets the statements recorded so far, so that a budget only covers the statements that follow.
+     */
+    public static void reset() {
+        current().clear();
+    }
+
+    /**
+     * Asserts that at most the given number of statements were executed, a batch counting as one.
+     *
+     * @param maxStatements the maximum number of statements
+     */
+    public static void assertAtMost(int maxStatements) {
+        StatementLog log = current();
+        if (log.count() > maxStatements) {
+            throw new AssertionError(String.format("Expected at most %d statements but %d were executed: %s",
+                    maxStatements, log.count(), log.describe()));
+        }
+    }
+
+    /**
+     * Asserts that at most the given number of statements of a type were executed.
+     *
+     * @param type the statement type
+     * @param maxStatements the maximum number of statements of that type
+     */
+    public static void assertAtMost(StatementType type, int maxStatements) {
+        StatementLog log = current();
+        int count = log.count(type);
+        if (count > maxStatements) {
+            throw new AssertionError(String.format("Expected at most %d %s statements but %d were executed: %s",
+                    maxStatements, type, count, log.describe()));
+        }
+    }
+
+    /**
+     * Asserts that no statement shape was executed more than the given number of times.
+     * <p>
+     * With 1, any select issued once per row of a previous result (N+1) fails the test.
+     *
+     * @param maxRepetitions the maximum number of executions of the same shape
+     */
+    public static void assertAtMostIdentical(int maxRepetitions) {
+        StatementLog log = current();
+        if (log.maxRepetitions() > maxRepetitions) {
+            throw new AssertionError(String.format(
+                    "Expected every statement to run at most %d times but one ran %d times: %s",
+                    maxRepetitions, log.maxRepetitions(), log.describe()));
+        }
+    }
+
+    /**
+     * Asserts that no statement executed so far reads a table with a full scan over the threshold.
+     * <p>
+     * Plans are only captured with {@code @InMemoryDb(explainQueries = true)}; statements without a
+     * captured plan pass.
+     */
+    public static void assertNoFullScans() {
+        StatementLog log = current();
+        for (RecordedStatement statement : log.getStatements()) {
+            QueryPlan plan = QueryPlanAnalyzer.getPlan(statement.getShape());
+            if (plan != null && plan.isFlagged()) {
+                throw new AssertionError(String.format("Expected no full table scan but %s reads %s:%n%s",
+                        plan.getShape(), plan.getFullScans(), plan.getPlan()));
+            }
+        }
+    }
+}
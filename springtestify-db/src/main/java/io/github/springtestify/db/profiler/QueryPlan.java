@@ -0,0 +1,92 @@
+package io.github.springtestify.db.profiler;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The execution plan of a statement shape, as reported by the database.
+ */
+public class QueryPlan {
+
+    private final String shape;
+    private final String plan;
+    private final List<TableScan> fullScans;
+    private final boolean flagged;
+
+    /**
+     * Creates a query plan.
+     *
+     * @param shape the statement shape
+     * @param plan the plan text, or null if the plan could not be captured
+     * @param fullScans the tables read with a full scan
+     * @param flagged whether a full scan reads more rows than the threshold
+     */
+    public QueryPlan(String shape, String plan, List<TableScan> fullScans, boolean flagged) {
+        this.shape = shape;
+        this.plan = plan;
+        this.fullScans = Collections.unmodifiableList(fullScans);
+        this.flagged = flagged;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public List<TableScan> getFullScans() {
+        return fullScans;
+    }
+
+    /**
+     * Returns whether the statement scans a table with more rows than the full scan threshold.
+     *
+     * @return true if the statement probably misses an index
+     */
+    public boolean isFlagged() {
+        return flagged;
+    }
+
+    /**
+     * A table read without an index.
+     */
+    public static class TableScan {
+
+        private final String table;
+        private final long rows;
+        private final List<String> columns;
+
+        /**
+         * Creates a table scan.
+         *
+         * @param table the table name
+         * @param rows the number of rows read, -1 if unknown
+         * @param columns the columns the statement filters the table on, candidates for an index
+         */
+        public TableScan(String table, long rows, List<String> columns) {
+            this.table = table;
+            this.rows = rows;
+            this.columns = Collections.unmodifiableList(columns);
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public String toString() {
+            return table + (rows >= 0 ? " (" + rows + " rows)" : "")
+                    + (columns.isEmpty() ? "" : " filtered on " + String.join(", ", columns));
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.github.springtestify.db.profiler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Captures the execution plans of the statements executed by tests and flags full table scans.
+ * <p>
+ * Each distinct statement shape is explained once per JVM, on the connection that executed it,
+ * right after its execution: {@code EXPLAIN ANALYZE} for selects and {@code EXPLAIN} for updates
+ * and deletes on H2, {@code EXPLAIN PLAN FOR} on HSQLDB. Other databases are not analyzed.
+ * <p>
+ * A statement reading a table with a full scan over more rows than the threshold is logged, and
+ * the plans of the whole suite are summarized in an index advice report, written to
+ * {@code target/springtestify/index-advice.md} unless the {@value #REPORT_PROPERTY} system
+ * property points elsewhere.
+ */
+public class QueryPlanAnalyzer {
+
+    /**
+     * System property overriding the location of the index advice report.
+     */
+    public static final String REPORT_PROPERTY = "springtestify.explain.report";
+
+    private static final String DEFAULT_REPORT = "target/springtestify/index-advice.md";
+
+    private static final Log logger = LogFactory.getLog(QueryPlanAnalyzer.class);
+
+    private static final Map<String, QueryPlan> PLANS = new ConcurrentHashMap<>();
+
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile(
+            "\"(\\w+)\"\\.\"(\\w+)\"(?:\\s+\"(\\w+)\")?\\s*/\\*\\s*[\\w.]+\\.tableScan\\s*\\*/"
+            + "(?:(?:(?!/\\*).)*?/\\*\\s*scanCount:\\s*(\\d+)\\s*\\*/)?", Pattern.DOTALL);
+    private static final String H2_CONDITION = "\\s*(?:=|<>|!=|<=|>=|<|>|LIKE\\b|IN\\b|BETWEEN\\b|IS\\b)";
+    private static final Pattern HSQLDB_RANGE = Pattern.compile(
+            "table=(\\w+)\\s+alias=\\w*\\s+cardinality=(\\d+)\\s+access=FULL SCAN(.*?)(?=\\[range variable|\\]\\]\\s*PARAMETERS|$)",
+            Pattern.DOTALL);
+    private static final Pattern HSQLDB_COLUMN = Pattern.compile("COLUMN: (?:\\w+\\.)?(\\w+)\\.(\\w+)");
+
+    private final int fullScanThreshold;
+    private volatile String databaseProduct;
+
+    /**
+     * Creates an analyzer.
+     *
+     * @param fullScanThreshold full scans over more rows than this are flagged
+     */
+    public QueryPlanAnalyzer(int fullScanThreshold) {
+        this.fullScanThreshold = fullScanThreshold;
+    }
+
+    /**
+     * Returns the plan captured for a statement shape.
+     *
+     * @param shape the statement shape
+     * @return the plan, or null if the shape has not been analyzed
+     */
+    public static QueryPlan getPlan(String shape) {
+        return PLANS.get(shape);
+    }
+
+    /**
+     * Returns all plans captured so far.
+     *
+     * @return the plans
+     */
+    public static Collection<QueryPlan> getPlans() {
+        return Collections.unmodifiableCollection(PLANS.values());
+    }
+
+    /**
+     * Explains a statement that was just executed, unless its shape has been analyzed already.
+     * <p>
+     * Failures to explain are never propagated to the test; the shape is then recorded without plan.
+     *
+     * @param connection the connection that executed the statement
+     * @param statement the executed statement
+     * @param binder binds the parameters of the executed statement to the explain statement
+     */
+    public void analyze(Connection connection, RecordedStatement statement, ParameterBinder binder) {
+        StatementType type = statement.getType();
+        if ((type != StatementType.SELECT && type != StatementType.UPDATE && type != StatementType.DELETE)
+                || PLANS.containsKey(statement.getShape())) {
+            return;
+        }
+
+        QueryPlan plan;
+        try {
+            plan = explain(connection, statement, binder);
+        } catch (SQLException e) {
+            logger.debug("Could not explain " + statement.getShape(), e);
+            plan = new QueryPlan(statement.getShape(), null, Collections.emptyList(), false);
+        }
+
+        if (plan != null && PLANS.putIfAbsent(plan.getShape(), plan) == null && plan.isFlagged()) {
+            logger.warn("Full table scan of " + plan.getFullScans() + " for: " + plan.getShape());
+        }
+    }
+
+    private QueryPlan explain(Connection connection, RecordedStatement statement, ParameterBinder binder)
+            throws SQLException {
+        if (databaseProduct == null) {
+            databaseProduct = connection.getMetaData().getDatabaseProductName();
+        }
+
+        List<QueryPlan.TableScan> fullScans = new ArrayList<>();
+        String plan;
+        if ("H2".equals(databaseProduct)) {
+            String prefix = statement.getType() == StatementType.SELECT ? "EXPLAIN ANALYZE " : "EXPLAIN ";
+            plan = queryPlan(connection, prefix + statement.getSql(), binder);
+            Matcher matcher = H2_TABLE_SCAN.matcher(plan);
+            while (matcher.find()) {
+                String table = matcher.group(2);
+                String qualifier = matcher.group(3) != null ? matcher.group(3) : table;
+                long rows = matcher.group(4) != null
+                        ? Long.parseLong(matcher.group(4)) - 1
+                        : countRows(connection, matcher.group(1) + "." + table);
+                fullScans.add(new QueryPlan.TableScan(table, rows, h2Columns(plan, qualifier)));
+            }
+        } else if (databaseProduct.startsWith("HSQL")) {
+            plan = queryPlan(connection, "EXPLAIN PLAN FOR " + statement.getSql(), null);
+            Matcher matcher = HSQLDB_RANGE.matcher(plan);
+            while (matcher.find()) {
+                String table = matcher.group(1);
+                Set<String> columns = new LinkedHashSet<>();
+                Matcher column = HSQLDB_COLUMN.matcher(matcher.group(3));
+                while (column.find()) {
+                    if (column.group(1).equals(table)) {
+                        columns.add(column.group(2));
+                    }
+                }
+                fullScans.add(new QueryPlan.TableScan(table, Long.parseLong(matcher.group(2)),
+                        new ArrayList<>(columns)));
+            }
+        } else {
+            return null;
+        }
+
+        boolean flagged = fullScans.stream().anyMatch(scan -> scan.getRows() > fullScanThreshold);
+        return new QueryPlan(statement.getShape(), plan, fullScans, flagged);
+    }
+
+    private static String queryPlan(Connection connection, String sql, ParameterBinder binder) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement(sql)) {
+            if (binder != null) {
+                binder.bind(explain);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static List<String> h2Columns(String plan, String qualifier) {
+        Set<String> columns = new LinkedHashSet<>();
+        Matcher matcher = Pattern.compile("\"" + Pattern.quote(qualifier) + "\"\\.\"(\\w+)\"" + H2_CONDITION,
+                Pattern.CASE_INSENSITIVE).matcher(plan);
+        while (matcher.find()) {
+            columns.add(matcher.group(1));
+        }
+        return new ArrayList<>(columns);
+    }
+
+    private static long countRows(Connection connection, String table) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Writes the index advice report for the plans captured so far.
+     * <p>
+     * Flagged full scans are grouped by table and filter columns, each group with the suggested
+     * index and the statements that need it.
+     */
+    public static void writeReport() {
+        if (PLANS.isEmpty()) {
+            return;
+        }
+
+        Map<String, Set<String>> advice = new TreeMap<>();
+        Set<String> unflagged = new LinkedHashSet<>();
+        int flagged = 0;
+        for (QueryPlan plan : PLANS.values()) {
+            if (plan.isFlagged()) {
+                flagged++;
+            }
+            for (QueryPlan.TableScan scan : plan.getFullScans()) {
+                if (plan.isFlagged()) {
+                    String index = scan.getColumns().isEmpty()
+                            ? "-- " + scan.getTable() + " is read entirely, no filter column found"
+                            : String.format("CREATE INDEX IDX_%s_%s ON %s (%s);", scan.getTable(),
+                                    String.join("_", scan.getColumns()), scan.getTable(),
+                                    String.join(", ", scan.getColumns()));
+                    advice.computeIfAbsent(index, key -> new LinkedHashSet<>())
+                            .add(scan + ": " + plan.getShape());
+                } else {
+                    unflagged.add(scan + ": " + plan.getShape());
+                }
+            }
+        }
+
+        Path report = Paths.get(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT));
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+                writer.write(String.format("# Index advice%n%nAnalyzed %d statement shapes, %d with full table "
+                        + "scans over the threshold.%n", PLANS.size(), flagged));
+                for (Map.Entry<String, Set<String>> entry : advice.entrySet()) {
+                    writer.write(String.format("%n```sql%n%s%n```%n", entry.getKey()));
+                    for (String statement : entry.getValue()) {
+                        writer.write(String.format("- %s%n", statement));
+                    }
+                }
+                if (!unflagged.isEmpty()) {
+                    writer.write(String.format("%n## Full scans below the threshold%n%n"));
+                    for (String statement : unflagged) {
+                        writer.write(String.format("- %s%n", statement));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write the index advice report to " + report, e);
+        }
+    }
+
+    /**
+     * Binds the parameters of an executed statement to another prepared statement.
+     */
+    @FunctionalInterface
+    public interface ParameterBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.springtestify.db.profiler;
+
+import java.util.regex.Pattern;
+
+/**
+ * A SQL statement executed while a {@link StatementLog} was recording.
+ * <p>
+ * A JDBC batch is recorded as a single statement with its batch size.
+ */
+public class RecordedStatement {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String sql;
+    private final StatementType type;
+    private final int batchSize;
+    private final long durationNanos;
+    private String shape;
+
+    /**
+     * Creates a recorded statement.
+     *
+     * @param sql the SQL statement
+     * @param batchSize the number of parameter sets or statements in the batch, 1 for a single execution
+     * @param durationNanos the execution time in nanoseconds
+     */
+    public RecordedStatement(String sql, int batchSize, long durationNanos) {
+        this.sql = sql;
+        this.type = StatementType.of(sql);
+        this.batchSize = batchSize;
+        this.durationNanos = durationNanos;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public StatementType getType() {
+        return type;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isBatch() {
+        return batchSize > 1;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Returns the shape of the statement: its SQL with literals replaced by {@code ?}, parameter
+     * lists collapsed and whitespace normalized. Statements differing only in their values have
+     * the same shape.
+     *
+     * @return the statement shape
+     */
+    public String getShape() {
+        if (shape == null) {
+            String normalized = sql == null ? "" : STRING_LITERAL.matcher(sql).replaceAll("?");
+            normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+            normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+            shape = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        }
+        return shape;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s (%.2f ms)", getShape(), isBatch() ? " [batch of " + batchSize + "]" : "",
+                durationNanos / 1_000_000.0);
+    }
+}
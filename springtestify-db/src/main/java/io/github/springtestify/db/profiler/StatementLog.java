@@ -0,0 +1,157 @@
+package io.github.springtestify.db.profiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The SQL statements executed by one test, in execution order.
+ * <p>
+ * A log is bound to the thread running the test by {@link StatementRecorder}; statements executed
+ * on other threads are not recorded.
+ */
+public class StatementLog {
+
+    private final List<RecordedStatement> statements = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Adds an executed statement to the log.
+     *
+     * @param statement the statement
+     */
+    public void add(RecordedStatement statement) {
+        statements.add(statement);
+    }
+
+    /**
+     * Removes all statements recorded so far.
+     */
+    public void clear() {
+        statements.clear();
+    }
+
+    /**
+     * Returns the recorded statements.
+     *
+     * @return a copy of the statements, in execution order
+     */
+    public List<RecordedStatement> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+
+    /**
+     * Returns the number of recorded statements, a batch counting as one.
+     *
+     * @return the number of statements
+     */
+    public int count() {
+        return statements.size();
+    }
+
+    /**
+     * Returns the number of recorded statements of the given type.
+     *
+     * @param type the statement type
+     * @return the number of statements of that type
+     */
+    public int count(StatementType type) {
+        return (int) getStatements().stream().filter(statement -> statement.getType() == type).count();
+    }
+
+    /**
+     * Returns the number of statements per type.
+     *
+     * @return the counts, for the types that were executed
+     */
+    public Map<StatementType, Integer> countByType() {
+        Map<StatementType, Integer> counts = new EnumMap<>(StatementType.class);
+        for (RecordedStatement statement : getStatements()) {
+            counts.merge(statement.getType(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the statement shapes executed more than once, most frequent first.
+     * <p>
+     * A select shape repeated once per row of a previous result is the signature of an N+1 problem.
+     *
+     * @return the number of executions per repeated shape
+     */
+    public Map<String, Integer> getRepeatedShapes() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (RecordedStatement statement : getStatements()) {
+            counts.merge(statement.getShape(), 1, Integer::sum);
+        }
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * Returns the highest number of executions of a single statement shape.
+     *
+     * @return the highest repetition count, 0 if nothing was recorded
+     */
+    public int maxRepetitions() {
+        Map<String, Integer> repeated = getRepeatedShapes();
+        return repeated.isEmpty() ? Math.min(count(), 1) : repeated.values().iterator().next();
+    }
+
+    /**
+     * Returns a one-line summary: statement counts per type, total time, batches and repetitions.
+     *
+     * @return the summary
+     */
+    public String summary() {
+        List<RecordedStatement> recorded = getStatements();
+        long totalNanos = recorded.stream().mapToLong(RecordedStatement::getDurationNanos).sum();
+        List<RecordedStatement> batches = recorded.stream()
+                .filter(RecordedStatement::isBatch)
+                .collect(Collectors.toList());
+
+        StringBuilder summary = new StringBuilder()
+                .append(recorded.size()).append(" statements ")
+                .append(countByType().entrySet().stream()
+                        .map(entry -> entry.getValue() + " " + entry.getKey().name().toLowerCase())
+                        .collect(Collectors.joining(", ", "(", ")")))
+                .append(String.format(" in %.2f ms", totalNanos / 1_000_000.0));
+        if (!batches.isEmpty()) {
+            summary.append(String.format(", %d batches of %.1f on average", batches.size(),
+                    batches.stream().mapToInt(RecordedStatement::getBatchSize).average().orElse(0)));
+        }
+        Map<String, Integer> repeated = getRepeatedShapes();
+        if (!repeated.isEmpty()) {
+            summary.append(", ").append(repeated.size()).append(" repeated shapes (up to ")
+                    .append(repeated.values().iterator().next()).append("x)");
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Describes the log for a failure message: every statement, then the repeated shapes.
+     *
+     * @return the description
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder(summary()).append(':');
+        List<RecordedStatement> recorded = getStatements();
+        for (int i = 0; i < recorded.size(); i++) {
+            description.append(String.format("%n  %d. %s", i + 1, recorded.get(i)));
+        }
+
+        Map<String, Integer> repeated = getRepeatedShapes();
+        if (!repeated.isEmpty()) {
+            description.append(String.format("%nRepeated statements:"));
+            repeated.forEach((shape, count) -> description.append(String.format("%n  %dx %s", count, shape)));
+        }
+        return description.toString();
+    }
+}
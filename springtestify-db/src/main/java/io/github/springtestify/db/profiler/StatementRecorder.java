@@ -0,0 +1,45 @@
+package io.github.springtestify.db.profiler;
+
+/**
+ * Binds the {@link StatementLog} of the running test to its thread.
+ * <p>
+ * {@link StatementRecordingDataSource} records into the log of the executing thread, if any.
+ */
+public final class StatementRecorder {
+
+    private static final ThreadLocal<StatementLog> CURRENT = new ThreadLocal<>();
+
+    private StatementRecorder() {
+    }
+
+    /**
+     * Starts recording the statements executed by the current thread into a new log.
+     *
+     * @return the new log
+     */
+    public static StatementLog start() {
+        StatementLog log = new StatementLog();
+        CURRENT.set(log);
+        return log;
+    }
+
+    /**
+     * Returns the log of the current thread.
+     *
+     * @return the log, or null if the thread is not recording
+     */
+    public static StatementLog current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops recording on the current thread.
+     *
+     * @return the log that was recorded, or null if the thread was not recording
+     */
+    public static StatementLog stop() {
+        StatementLog log = CURRENT.get();
+        CURRENT.remove();
+        return log;
+    }
+}
@@ -0,0 +1,296 @@
+package io.github.springtestify.db.profiler;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A DataSource recording the statements executed through its connections.
+ * <p>
+ * Connections and statements are wrapped in JDK proxies. Every execution, and every batch as a
+ * whole, is added to the {@link StatementLog} of the executing thread with its execution time.
+ * When the thread is not recording, the proxies only delegate.
+ * <p>
+ * Connections are also registered with the {@link ConnectionTracker} while they are open, to
+ * report leaks, long transactions and lock waits.
+ * <p>
+ * With a {@link QueryPlanAnalyzer}, recorded statements are also explained, with the parameter
+ * values they were executed with.
+ */
+public class StatementRecordingDataSource extends DelegatingDataSource {
+
+    private final QueryPlanAnalyzer queryPlanAnalyzer;
+
+    /**
+     * Creates a recording DataSource.
+     *
+     * @param targetDataSource the DataSource to record
+     */
+    public StatementRecordingDataSource(DataSource targetDataSource) {
+        this(targetDataSource, null);
+    }
+
+    /**
+     * Creates a recording DataSource capturing query plans.
+     *
+     * @param targetDataSource the DataSource to record
+     * @param queryPlanAnalyzer the analyzer explaining the recorded statements, or null
+     */
+    public StatementRecordingDataSource(DataSource targetDataSource, QueryPlanAnalyzer queryPlanAnalyzer) {
+        super(targetDataSource);
+        this.queryPlanAnalyzer = queryPlanAnalyzer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return record(connection, queryPlanAnalyzer);
+    }
+
+    /**
+     * Wraps a connection to record the statements executed through it.
+     *
+     * @param connection the connection to record
+     * @param queryPlanAnalyzer the analyzer explaining the recorded statements, or null
+     * @return the recording connection
+     */
+    static Connection record(Connection connection, QueryPlanAnalyzer queryPlanAnalyzer) {
+        return (Connection) Proxy.newProxyInstance(StatementRecordingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, queryPlanAnalyzer));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Wraps the statements created by a connection.
+     */
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final QueryPlanAnalyzer queryPlanAnalyzer;
+        private final ConnectionTracker.TrackedConnection tracked = ConnectionTracker.opened();
+
+        ConnectionHandler(Connection target, QueryPlanAnalyzer queryPlanAnalyzer) {
+            this.target = target;
+            this.queryPlanAnalyzer = queryPlanAnalyzer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Recording proxy for " + target;
+                case "close":
+                    try {
+                        return StatementRecordingDataSource.invoke(target, method, args);
+                    } finally {
+                        ConnectionTracker.closed(tracked);
+                    }
+                case "setAutoCommit":
+                    Object changed = StatementRecordingDataSource.invoke(target, method, args);
+                    tracked.autoCommitChanged((Boolean) args[0]);
+                    return changed;
+                case "commit":
+                    try {
+                        return StatementRecordingDataSource.invoke(target, method, args);
+                    } finally {
+                        tracked.transactionEnded();
+                    }
+                case "rollback":
+                    try {
+                        return StatementRecordingDataSource.invoke(target, method, args);
+                    } finally {
+                        // Rolling back to a savepoint keeps the transaction open
+                        if (args == null) {
+                            tracked.transactionEnded();
+                        }
+                    }
+                default:
+                    break;
+            }
+
+            Object result = StatementRecordingDataSource.invoke(target, method, args);
+            if (!(result instanceof Statement)) {
+                return result;
+            }
+            tracked.statementCreated();
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                    : result instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return Proxy.newProxyInstance(StatementRecordingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler((Statement) result, sql, queryPlanAnalyzer, tracked));
+        }
+    }
+
+    /**
+     * Records the executions of a statement.
+     */
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final QueryPlanAnalyzer queryPlanAnalyzer;
+        private final ConnectionTracker.TrackedConnection connection;
+        private final List<String> batchedSql = new ArrayList<>();
+        private final Map<Integer, ParameterSetter> parameters = new TreeMap<>();
+        private int batchSize;
+
+        StatementHandler(Statement target, String preparedSql, QueryPlanAnalyzer queryPlanAnalyzer,
+                         ConnectionTracker.TrackedConnection connection) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.queryPlanAnalyzer = queryPlanAnalyzer;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Recording proxy for " + target;
+                case "addBatch":
+                    if (args != null && args.length == 1) {
+                        batchedSql.add((String) args[0]);
+                    }
+                    batchSize++;
+                    return StatementRecordingDataSource.invoke(target, method, args);
+                case "clearBatch":
+                    batchedSql.clear();
+                    batchSize = 0;
+                    return StatementRecordingDataSource.invoke(target, method, args);
+                case "clearParameters":
+                    parameters.clear();
+                    return StatementRecordingDataSource.invoke(target, method, args);
+                default:
+                    break;
+            }
+
+            // Parameter values are kept to explain the statement as it was executed
+            if (queryPlanAnalyzer != null && name.startsWith("set")
+                    && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], new ParameterSetter(method, args));
+            }
+
+            if (!name.startsWith("execute")) {
+                return StatementRecordingDataSource.invoke(target, method, args);
+            }
+
+            boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+            String sql = batch ? batchSql()
+                    : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0]
+                    : preparedSql;
+            int size = batch ? batchSize : 1;
+            if (batch) {
+                batchedSql.clear();
+                batchSize = 0;
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = StatementRecordingDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                long duration = System.nanoTime() - start;
+                ConnectionTracker.statementExecuted(connection, sql, duration, e);
+                StatementLog log = StatementRecorder.current();
+                if (log != null) {
+                    log.add(new RecordedStatement(sql, size, duration));
+                }
+                throw e;
+            }
+
+            long duration = System.nanoTime() - start;
+            ConnectionTracker.statementExecuted(connection, sql, duration, null);
+            StatementLog log = StatementRecorder.current();
+            if (log == null) {
+                return result;
+            }
+
+            RecordedStatement recorded = new RecordedStatement(sql, size, duration);
+            log.add(recorded);
+            if (queryPlanAnalyzer != null && !batch) {
+                queryPlanAnalyzer.analyze(target.getConnection(), recorded,
+                        parameters.isEmpty() ? null : this::bindParameters);
+            }
+            return result;
+        }
+
+        private void bindParameters(PreparedStatement statement) throws SQLException {
+            for (ParameterSetter setter : parameters.values()) {
+                setter.apply(statement);
+            }
+        }
+
+        private String batchSql() {
+            if (batchedSql.isEmpty()) {
+                return preparedSql;
+            }
+            return batchedSql.size() == 1 ? batchedSql.get(0) : String.join(";\n", batchedSql);
+        }
+    }
+
+    /**
+     * A recorded call to one of the parameter setters of a prepared statement.
+     */
+    private static class ParameterSetter {
+
+        private final Method method;
+        private final Object[] args;
+
+        ParameterSetter(Method method, Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        void apply(PreparedStatement statement) throws SQLException {
+            try {
+                method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                if (e.getTargetException() instanceof SQLException) {
+                    throw (SQLException) e.getTargetException();
+                }
+                throw new SQLException(e.getTargetException());
+            } catch (IllegalAccessException e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+}
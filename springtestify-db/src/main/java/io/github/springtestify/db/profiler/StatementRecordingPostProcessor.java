@@ -0,0 +1,104 @@
+package io.github.springtestify.db.profiler;
+
+import io.github.springtestify.db.initializer.LazyInitializingDataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+
+/**
+ * Records the statements executed through every DataSource bean.
+ * <p>
+ * Each DataSource bean is proxied so that the connections it hands out record their statements,
+ * like those of a {@link StatementRecordingDataSource}. The proxy subclasses the class of the bean,
+ * so the bean can still be injected or cast as its pool type, such as {@code HikariDataSource}. A
+ * final class is proxied through its interfaces instead.
+ * <p>
+ * A {@link LazyInitializingDataSource} is left as is: its target is a DataSource bean of its own
+ * and gets proxied instead, so recording never forces the lazy database to start.
+ */
+public class StatementRecordingPostProcessor implements BeanPostProcessor {
+
+    private final QueryPlanAnalyzer queryPlanAnalyzer;
+
+    /**
+     * Creates a post processor recording statements only.
+     */
+    public StatementRecordingPostProcessor() {
+        this(null);
+    }
+
+    /**
+     * Creates a post processor recording statements and capturing their plans.
+     *
+     * @param queryPlanAnalyzer the analyzer explaining the recorded statements, or null
+     */
+    public StatementRecordingPostProcessor(QueryPlanAnalyzer queryPlanAnalyzer) {
+        this.queryPlanAnalyzer = queryPlanAnalyzer;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof DataSource)
+                || bean instanceof StatementRecordingDataSource
+                || bean instanceof LazyInitializingDataSource
+                || isRecording(bean)) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(new RecordingInterceptor(queryPlanAnalyzer));
+        ClassLoader classLoader = bean.getClass().getClassLoader();
+        if (!Modifier.isFinal(bean.getClass().getModifiers())) {
+            proxyFactory.setProxyTargetClass(true);
+            try {
+                return proxyFactory.getProxy(classLoader);
+            } catch (AopConfigException e) {
+                // Not subclassable, for instance without a visible constructor
+                proxyFactory.setProxyTargetClass(false);
+            }
+        }
+        return proxyFactory.getProxy(classLoader);
+    }
+
+    private static boolean isRecording(Object bean) {
+        if (!(bean instanceof Advised)) {
+            return false;
+        }
+        for (Advisor advisor : ((Advised) bean).getAdvisors()) {
+            if (advisor.getAdvice() instanceof RecordingInterceptor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wraps the connections returned by the DataSource.
+     */
+    private static class RecordingInterceptor implements MethodInterceptor {
+
+        private final QueryPlanAnalyzer queryPlanAnalyzer;
+
+        RecordingInterceptor(QueryPlanAnalyzer queryPlanAnalyzer) {
+            this.queryPlanAnalyzer = queryPlanAnalyzer;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            if (result instanceof Connection && invocation.getMethod().getName().equals("getConnection")) {
+                return StatementRecordingDataSource.record((Connection) result, queryPlanAnalyzer);
+            }
+            return result;
+        }
+    }
+}
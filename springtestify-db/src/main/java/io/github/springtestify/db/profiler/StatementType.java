@@ -0,0 +1,49 @@
+package io.github.springtestify.db.profiler;
+
+/**
+ * The type of a recorded SQL statement.
+ */
+public enum StatementType {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    OTHER;
+
+    /**
+     * Determines the type of a SQL statement from its first keyword.
+     * <p>
+     * Statements starting with a {@code WITH} clause are counted as selects.
+     *
+     * @param sql the SQL statement
+     * @return the statement type
+     */
+    public static StatementType of(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+
+        switch (sql.substring(start, end).toUpperCase()) {
+            case "SELECT":
+            case "WITH":
+                return SELECT;
+            case "INSERT":
+                return INSERT;
+            case "UPDATE":
+                return UPDATE;
+            case "DELETE":
+                return DELETE;
+            default:
+                return OTHER;
+        }
+    }
+}
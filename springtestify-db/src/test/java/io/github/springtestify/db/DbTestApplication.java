@@ -0,0 +1,7 @@
+package io.github.springtestify.db;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+class DbTestApplication {
+}
@@ -0,0 +1,95 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbProfile;
+import io.github.springtestify.core.enums.DbType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@InMemoryDb
+class EngineProfilesTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void shouldStartEmbeddedDatabaseWithFastProfile() {
+        // given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // when
+        String queryCacheSize = jdbcTemplate.queryForObject(
+            "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'QUERY_CACHE_SIZE'",
+            String.class);
+
+        // then
+        assertThat(queryCacheSize).isEqualTo("256");
+        assertThat(EngineProfiles.urlSettings(DbType.H2, DbProfile.STANDARD)).isEmpty();
+        assertThat(EngineProfiles.urlSettings(DbType.HSQLDB, DbProfile.FAST)).isEmpty();
+    }
+
+    /**
+     * Compares the profiles on a workload of distinct statements, run with
+     * {@code -Dspringtestify.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "springtestify.benchmark", matches = "true")
+    void shouldRunFasterWithFastProfile() throws SQLException {
+        // given
+        for (int i = 0; i < 5; i++) {
+            runWorkload(DbProfile.STANDARD, i);
+            runWorkload(DbProfile.FAST, i);
+        }
+
+        // when
+        long standard = Long.MAX_VALUE;
+        long fast = Long.MAX_VALUE;
+        for (int i = 5; i < 10; i++) {
+            standard = Math.min(standard, runWorkload(DbProfile.STANDARD, i));
+            fast = Math.min(fast, runWorkload(DbProfile.FAST, i));
+        }
+
+        // then
+        assertThat(fast)
+            .as("H2 workload: %d ms standard, %d ms fast", standard / 1_000_000, fast / 1_000_000)
+            .isLessThan(standard);
+    }
+
+    private static long runWorkload(DbProfile profile, int run) throws SQLException {
+        String url = "jdbc:h2:mem:benchmark-" + profile + "-" + run + EngineProfiles.urlSettings(DbType.H2, profile);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE PRODUCT (ID INT PRIMARY KEY, NAME VARCHAR(100))");
+                statement.execute("INSERT INTO PRODUCT SELECT X, 'Product ' || X FROM SYSTEM_RANGE(1, 1000)");
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 50; i++) {
+                for (int shape = 0; shape < 40; shape++) {
+                    try (PreparedStatement select = connection.prepareStatement(
+                            "SELECT ID AS ID_" + shape + ", NAME FROM PRODUCT WHERE ID = ?")) {
+                        select.setInt(1, shape + 1);
+                        try (ResultSet resultSet = select.executeQuery()) {
+                            resultSet.next();
+                        }
+                    }
+                }
+            }
+            return System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.springtestify.db.config;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.MergedContextConfiguration;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SharedMongoContextCustomizerTest {
+
+    private static final String EMBEDDED_MONGO_AUTO_CONFIGURATION =
+        "org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration";
+
+    @Test
+    void shouldRegisterSharedConfigurationAndExcludeEmbeddedAutoConfiguration() {
+        // given
+        GenericApplicationContext context = new GenericApplicationContext();
+
+        // when
+        new SharedMongoContextCustomizer().customizeContext(context, mock(MergedContextConfiguration.class));
+
+        // then
+        assertThat(context.containsBeanDefinition("sharedMongoConfiguration")).isTrue();
+        assertThat(context.getEnvironment().getProperty("spring.autoconfigure.exclude"))
+            .isEqualTo(EMBEDDED_MONGO_AUTO_CONFIGURATION);
+    }
+
+    @Test
+    void shouldKeepExclusionsOfApplication() {
+        // given
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.getEnvironment().getPropertySources().addLast(new MapPropertySource("application",
+            Collections.singletonMap("spring.autoconfigure.exclude", "com.example.SomeAutoConfiguration")));
+
+        // when
+        new SharedMongoContextCustomizer().customizeContext(context, mock(MergedContextConfiguration.class));
+
+        // then
+        assertThat(context.getEnvironment().getProperty("spring.autoconfigure.exclude"))
+            .isEqualTo("com.example.SomeAutoConfiguration," + EMBEDDED_MONGO_AUTO_CONFIGURATION);
+    }
+
+    @Test
+    void shouldOnlyCustomizeMongoTestClasses() {
+        // given
+        SharedMongoContextCustomizerFactory factory = new SharedMongoContextCustomizerFactory();
+
+        // when / then
+        assertThat(factory.createContextCustomizer(MongoTest.class, Collections.emptyList()))
+            .isEqualTo(new SharedMongoContextCustomizer());
+        assertThat(factory.createContextCustomizer(RelationalTest.class, Collections.emptyList())).isNull();
+    }
+
+    @InMemoryDb(type = DbType.MONGODB)
+    static class MongoTest {
+    }
+
+    @InMemoryDb
+    static class RelationalTest {
+    }
+}
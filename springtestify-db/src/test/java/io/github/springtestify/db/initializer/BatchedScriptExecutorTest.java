@@ -0,0 +1,75 @@
+package io.github.springtestify.db.initializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptStatementFailedException;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchedScriptExecutorTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:batched-script-executor;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS SEED");
+        jdbcTemplate.execute("CREATE TABLE SEED (ID INT PRIMARY KEY)");
+    }
+
+    @Test
+    void shouldCommitExecutedScript() {
+        // given
+        String script = "INSERT INTO SEED VALUES (1);\nINSERT INTO SEED VALUES (2);\nINSERT INTO SEED VALUES (3)";
+
+        // when
+        long executed = execute(new BatchedScriptExecutor(dataSource, 2, 10000), script);
+
+        // then
+        assertThat(executed).isEqualTo(3);
+        assertThat(countRows()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldLeaveNoRowsWhenScriptFails() {
+        // given
+        String script = "INSERT INTO SEED VALUES (1);\nINSERT INTO SEED VALUES (2);\nUPDATE MISSING SET ID = 1;\n"
+            + "INSERT INTO SEED VALUES (3)";
+
+        // when / then
+        assertThatThrownBy(() -> execute(new BatchedScriptExecutor(dataSource, 1, 10000), script))
+            .isInstanceOf(ScriptStatementFailedException.class);
+        assertThat(countRows()).isZero();
+    }
+
+    @Test
+    void shouldKeepCommittedChunksWhenScriptFails() {
+        // given
+        String script = "INSERT INTO SEED VALUES (1);\nINSERT INTO SEED VALUES (2);\nINSERT INTO SEED VALUES (3);\n"
+            + "INSERT INTO SEED VALUES (3)";
+
+        // when / then
+        assertThatThrownBy(() -> execute(new BatchedScriptExecutor(dataSource, 1, 2), script))
+            .isInstanceOf(ScriptStatementFailedException.class);
+        assertThat(countRows()).isEqualTo(2);
+    }
+
+    private static long execute(BatchedScriptExecutor executor, String script) {
+        Resource resource = new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8), "seed script");
+        return executor.execute(resource, new SqlStatementReader(new StringReader(script)));
+    }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SEED", Integer.class);
+    }
+}
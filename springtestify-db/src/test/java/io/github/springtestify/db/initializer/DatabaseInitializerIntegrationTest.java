@@ -0,0 +1,30 @@
+package io.github.springtestify.db.initializer;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@InMemoryDb(migrate = true)
+@TestPropertySource(properties = "spring.flyway.locations=classpath:migration-test")
+class DatabaseInitializerIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldApplyMigrationsBeforeTestClass() {
+        // when
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM customers ORDER BY id", String.class);
+
+        // then
+        assertThat(names).containsExactly("John", "Jane");
+    }
+}
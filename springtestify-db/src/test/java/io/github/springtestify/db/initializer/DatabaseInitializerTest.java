@@ -0,0 +1,178 @@
+package io.github.springtestify.db.initializer;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.TestContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DatabaseInitializerTest {
+
+    @TempDir
+    Path scriptDirectory;
+
+    private final DatabaseInitializer initializer = new DatabaseInitializer();
+
+    private GenericApplicationContext applicationContext;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:initializer-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(DataSource.class, () -> dataSource);
+        applicationContext.refresh();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+        applicationContext.close();
+    }
+
+    @Test
+    void shouldSkipUnchangedScriptWhileTestsRollBack() throws Exception {
+        // given
+        initializer.beforeTestClass(testContext("rolledBack"));
+        initializer.afterTestMethod(testContext("rolledBack"));
+
+        // when
+        initializer.beforeTestClass(testContext("rolledBack"));
+
+        // then
+        assertThat(visits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunScriptAgainAfterCommittedTest() throws Exception {
+        // given
+        initializer.beforeTestClass(testContext("committed"));
+        initializer.afterTestMethod(testContext("committed"));
+
+        // when
+        initializer.beforeTestClass(testContext("committed"));
+
+        // then
+        assertThat(visits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRunScriptAgainAfterNonTransactionalTest() throws Exception {
+        // given
+        initializer.beforeTestClass(testContext("nonTransactional"));
+        initializer.afterTestMethod(testContext("nonTransactional"));
+
+        // when
+        initializer.beforeTestClass(testContext("nonTransactional"));
+
+        // then
+        assertThat(visits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStreamScriptAboveThresholdOnce() throws Exception {
+        // given
+        Path script = scriptDirectory.resolve("documents.sql");
+        writeDocumentsScript(script, 9000);
+        DatabaseInitializer fileInitializer = new DatabaseInitializer(new DefaultResourceLoader() {
+            @Override
+            protected Resource getResourceByPath(String path) {
+                return new FileSystemResource(scriptDirectory.resolve(path));
+            }
+        });
+        TestContext testContext = testContext(LargeScriptTest.class, "rolledBack");
+
+        // when
+        fileInitializer.beforeTestClass(testContext);
+        fileInitializer.afterTestMethod(testContext);
+        fileInitializer.beforeTestClass(testContext);
+
+        // then
+        assertThat(Files.size(script)).isGreaterThan(8L * 1024 * 1024);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM documents", Integer.class)).isEqualTo(9000);
+    }
+
+    private TestContext testContext(String methodName) throws NoSuchMethodException {
+        return testContext(ScriptedTest.class, methodName);
+    }
+
+    private TestContext testContext(Class<?> testClass, String methodName) throws NoSuchMethodException {
+        Method testMethod = testClass.getDeclaredMethod(methodName);
+        TestContext testContext = mock(TestContext.class);
+        when(testContext.getTestClass()).thenAnswer(invocation -> testClass);
+        when(testContext.getTestMethod()).thenReturn(testMethod);
+        when(testContext.getApplicationContext()).thenReturn(applicationContext);
+        when(testContext.hasApplicationContext()).thenReturn(true);
+        return testContext;
+    }
+
+    /**
+     * Writes a script with one statement per line and no separator, executed again it would fail
+     * on the existing table.
+     */
+    private static void writeDocumentsScript(Path script, int rows) throws IOException {
+        StringBuilder body = new StringBuilder();
+        while (body.length() < 1000) {
+            body.append("lorem ipsum ");
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(script, StandardCharsets.UTF_8)) {
+            writer.write("CREATE TABLE documents (id INT PRIMARY KEY, body VARCHAR(2000))\n");
+            for (int i = 1; i <= rows; i++) {
+                writer.write("INSERT INTO documents VALUES (" + i + ", '" + body + "')\n");
+            }
+        }
+    }
+
+    private Integer visits() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits", Integer.class);
+    }
+
+    @InMemoryDb(scripts = "classpath:initializer-test/visits.sql")
+    static class ScriptedTest {
+
+        @Transactional
+        void rolledBack() {
+        }
+
+        @Transactional
+        @Rollback(false)
+        void committed() {
+        }
+
+        void nonTransactional() {
+        }
+    }
+
+    @InMemoryDb(scripts = "documents.sql")
+    static class LargeScriptTest {
+
+        @Transactional
+        void rolledBack() {
+        }
+    }
+}
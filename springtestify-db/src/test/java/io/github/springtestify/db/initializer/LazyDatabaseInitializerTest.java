@@ -0,0 +1,48 @@
+package io.github.springtestify.db.initializer;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@InMemoryDb(lazy = true, migrate = true, scripts = "classpath:initializer-test/lazy-customers.sql")
+@TestPropertySource(properties = "spring.flyway.locations=classpath:migration-test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LazyDatabaseInitializerTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Order(1)
+    void shouldDeferMigrationsAndScriptsUntilFirstQuery() {
+        // then
+        assertThat(dataSource).isInstanceOf(LazyInitializingDataSource.class);
+        assertThat(((LazyInitializingDataSource) dataSource).isInitialized()).isFalse();
+    }
+
+    @Test
+    @Order(2)
+    void shouldMigrateThenRunScriptsOnFirstQuery() {
+        // when
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM customers ORDER BY id", String.class);
+
+        // then
+        assertThat(names).containsExactly("John", "Jane", "Jim");
+        assertThat(((LazyInitializingDataSource) dataSource).isInitialized()).isTrue();
+    }
+}
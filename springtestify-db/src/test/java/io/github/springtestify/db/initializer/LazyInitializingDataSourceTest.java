@@ -0,0 +1,75 @@
+package io.github.springtestify.db.initializer;
+
+import io.github.springtestify.core.annotation.DataSetup;
+import io.github.springtestify.core.annotation.InMemoryDb;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@InMemoryDb(lazy = true)
+@DataSetup(value = "classpath:test-data/customers.json", entity = LazyInitializingDataSourceTest.LazyCustomer.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LazyInitializingDataSourceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @Order(1)
+    void shouldNotConnectWhenTestDoesNotQuery() {
+        // then
+        assertThat(dataSource).isInstanceOf(LazyInitializingDataSource.class);
+        assertThat(((LazyInitializingDataSource) dataSource).isInitialized()).isFalse();
+    }
+
+    @Test
+    @Order(2)
+    void shouldCreateSchemaAndLoadClassDataOnFirstQuery() {
+        // when
+        List<String> names = entityManager
+            .createQuery("select c.name from LazyCustomer c order by c.name", String.class)
+            .getResultList();
+
+        // then
+        assertThat(names).containsExactly("Jane", "John");
+        assertThat(((LazyInitializingDataSource) dataSource).isInitialized()).isTrue();
+    }
+
+    @Entity(name = "LazyCustomer")
+    static class LazyCustomer {
+
+        @Id
+        @GeneratedValue
+        private Long id;
+
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
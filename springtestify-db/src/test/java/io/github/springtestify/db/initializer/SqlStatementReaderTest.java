@@ -0,0 +1,81 @@
+package io.github.springtestify.db.initializer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementReaderTest {
+
+    @Test
+    void shouldSplitStatementsOnSemicolon() throws IOException {
+        // given
+        String script = "CREATE TABLE users (id INT);\nINSERT INTO users VALUES (1);\nINSERT INTO users VALUES (2)";
+
+        // when
+        List<String> statements = readAll(script);
+
+        // then
+        assertThat(statements).containsExactly(
+            "CREATE TABLE users (id INT)",
+            "INSERT INTO users VALUES (1)",
+            "INSERT INTO users VALUES (2)");
+    }
+
+    @Test
+    void shouldIgnoreSeparatorsInsideQuotes() throws IOException {
+        // given
+        String script = "INSERT INTO notes VALUES ('a;b', 'it''s');INSERT INTO \"odd;name\" VALUES (1);";
+
+        // when
+        List<String> statements = readAll(script);
+
+        // then
+        assertThat(statements).containsExactly(
+            "INSERT INTO notes VALUES ('a;b', 'it''s')",
+            "INSERT INTO \"odd;name\" VALUES (1)");
+    }
+
+    @Test
+    void shouldStripComments() throws IOException {
+        // given
+        String script = "-- seed data;\nINSERT INTO users VALUES (1); /* skipped; */\n;;INSERT INTO users VALUES ('--x');";
+
+        // when
+        List<String> statements = readAll(script);
+
+        // then
+        assertThat(statements).containsExactly(
+            "INSERT INTO users VALUES (1)",
+            "INSERT INTO users VALUES ('--x')");
+    }
+
+    @Test
+    void shouldSplitLinesWhenScriptHasNoSemicolon() throws IOException {
+        // given
+        String script = "-- seed data\nINSERT INTO users VALUES (1)\n\nINSERT INTO notes VALUES ('line\nbreak')\n";
+
+        // when
+        List<String> statements = readAll(script);
+
+        // then
+        assertThat(statements).containsExactly(
+            "INSERT INTO users VALUES (1)",
+            "INSERT INTO notes VALUES ('line\nbreak')");
+    }
+
+    private static List<String> readAll(String script) throws IOException {
+        List<String> statements = new ArrayList<>();
+        try (SqlStatementReader reader = new SqlStatementReader(new StringReader(script))) {
+            String statement;
+            while ((statement = reader.nextStatement()) != null) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.springtestify.db.listener;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import io.github.springtestify.db.mongo.MongoChangeTracker;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.test.context.TestContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoSnapshotTestExecutionListenerTest {
+
+    private final MongoSnapshotTestExecutionListener listener = new MongoSnapshotTestExecutionListener();
+
+    private final Map<String, MongoCollection<RawBsonDocument>> collections = new HashMap<>();
+
+    private String databaseName;
+
+    private TestContext testContext;
+
+    @BeforeEach
+    void setUp() {
+        databaseName = "listener_" + System.nanoTime();
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.getName()).thenReturn(databaseName);
+        when(database.getCollection(anyString())).thenAnswer(invocation -> collection(invocation.getArgument(0)));
+
+        MongoDatabaseFactory databaseFactory = mock(MongoDatabaseFactory.class);
+        when(databaseFactory.getMongoDatabase()).thenReturn(database);
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(MongoDatabaseFactory.class, () -> databaseFactory);
+        applicationContext.refresh();
+
+        testContext = testContext(applicationContext);
+    }
+
+    @Test
+    void shouldSnapshotCollectionsLoadedForClassAndRestoreThemWhenChanged() throws Exception {
+        // given
+        write("insert", "customers");
+        listener.beforeTestClass(testContext);
+        write("insert", "products");
+        listener.beforeTestMethod(testContext);
+
+        // when
+        write("delete", "products");
+        write("insert", "customers");
+        listener.afterTestMethod(testContext);
+
+        // then
+        verify(collections.get("products")).deleteMany(new Document());
+        verify(collections.get("products"), times(1)).find();
+        assertThat(collections).containsOnlyKeys("products");
+    }
+
+    @Test
+    void shouldNotRestoreCollectionsLeftUnchanged() throws Exception {
+        // given
+        listener.beforeTestClass(testContext);
+        write("insert", "products");
+        listener.beforeTestMethod(testContext);
+
+        // when
+        listener.afterTestMethod(testContext);
+        listener.beforeTestMethod(testContext);
+        listener.afterTestMethod(testContext);
+
+        // then
+        verify(collections.get("products"), times(1)).find();
+        verify(collections.get("products"), never()).deleteMany(any());
+    }
+
+    private void write(String commandName, String collection) {
+        MongoChangeTracker.getInstance().commandStarted(new CommandStartedEvent(null, 1,
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress())), databaseName, commandName,
+            new BsonDocument(commandName, new BsonString(collection))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private MongoCollection<Document> collection(String name) {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        MongoCollection<RawBsonDocument> rawCollection = collections.computeIfAbsent(name, key -> {
+            MongoCollection<RawBsonDocument> raw = mock(MongoCollection.class);
+            FindIterable<RawBsonDocument> find = mock(FindIterable.class);
+            when(raw.find()).thenReturn(find);
+            when(find.into(anyList())).thenAnswer(invocation -> invocation.<List<RawBsonDocument>>getArgument(0));
+            return raw;
+        });
+        when(collection.withDocumentClass(RawBsonDocument.class)).thenReturn(rawCollection);
+        return collection;
+    }
+
+    private static TestContext testContext(GenericApplicationContext applicationContext) {
+        Map<String, Object> attributes = new HashMap<>();
+        TestContext testContext = mock(TestContext.class);
+        when(testContext.getTestClass()).thenAnswer(invocation -> MongoTest.class);
+        when(testContext.getApplicationContext()).thenReturn(applicationContext);
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(testContext).setAttribute(anyString(), any());
+        when(testContext.getAttribute(anyString()))
+            .thenAnswer(invocation -> attributes.get(invocation.<String>getArgument(0)));
+        when(testContext.hasAttribute(anyString()))
+            .thenAnswer(invocation -> attributes.containsKey(invocation.<String>getArgument(0)));
+        when(testContext.removeAttribute(anyString()))
+            .thenAnswer(invocation -> attributes.remove(invocation.<String>getArgument(0)));
+        return testContext;
+    }
+
+    @InMemoryDb(type = DbType.MONGODB)
+    static class MongoTest {
+    }
+}
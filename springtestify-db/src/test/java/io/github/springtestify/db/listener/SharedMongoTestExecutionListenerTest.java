@@ -0,0 +1,121 @@
+package io.github.springtestify.db.listener;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import io.github.springtestify.db.mongo.PerClassMongoDatabaseFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.context.TestContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SharedMongoTestExecutionListenerTest {
+
+    private final SharedMongoTestExecutionListener listener = new SharedMongoTestExecutionListener();
+
+    private final Map<String, MongoDatabase> databases = new HashMap<>();
+
+    private PerClassMongoDatabaseFactory databaseFactory;
+
+    private GenericApplicationContext applicationContext;
+
+    @BeforeEach
+    void setUp() {
+        MongoClient client = mock(MongoClient.class);
+        when(client.getDatabase(anyString())).thenAnswer(invocation ->
+            databases.computeIfAbsent(invocation.getArgument(0), name -> mock(MongoDatabase.class)));
+        databaseFactory = new PerClassMongoDatabaseFactory(client, "test");
+
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(PerClassMongoDatabaseFactory.class, () -> databaseFactory);
+        applicationContext.refresh();
+    }
+
+    @Test
+    void shouldGiveEachTestClassItsOwnDatabase() throws Exception {
+        // when
+        listener.beforeTestClass(testContext(CustomersTest.class));
+        MongoDatabase customersDatabase = databaseFactory.getMongoDatabase();
+        listener.afterTestClass(testContext(CustomersTest.class));
+        listener.beforeTestClass(testContext(OrdersTest.class));
+        MongoDatabase ordersDatabase = databaseFactory.getMongoDatabase();
+
+        // then
+        assertThat(databaseFactory.getDatabaseName())
+            .isEqualTo(SharedMongoTestExecutionListener.databaseName(OrdersTest.class))
+            .startsWith("st_")
+            .endsWith("_OrdersTest");
+        assertThat(SharedMongoTestExecutionListener.databaseName(CustomersTest.class)).endsWith("_CustomersTest");
+        assertThat(customersDatabase).isSameAs(databases.get(SharedMongoTestExecutionListener.databaseName(CustomersTest.class)));
+        assertThat(ordersDatabase).isSameAs(databases.get(databaseFactory.getDatabaseName()));
+        assertThat(ordersDatabase).isNotSameAs(customersDatabase);
+    }
+
+    @Test
+    void shouldDropClassDatabaseAndSwitchBack() throws Exception {
+        // given
+        listener.beforeTestClass(testContext(CustomersTest.class));
+        MongoDatabase classDatabase = databaseFactory.getMongoDatabase();
+
+        // when
+        listener.afterTestClass(testContext(CustomersTest.class));
+
+        // then
+        verify(classDatabase).drop();
+        assertThat(databaseFactory.getDatabaseName()).isEqualTo("test");
+        databaseFactory.dropDatabase();
+        assertThat(databases).doesNotContainKey("test");
+    }
+
+    @Test
+    void shouldIgnoreTestClassesNotUsingMongo() throws Exception {
+        // when
+        listener.beforeTestClass(testContext(RelationalTest.class));
+
+        // then
+        assertThat(databaseFactory.getDatabaseName()).isEqualTo("test");
+    }
+
+    @Test
+    void shouldTruncateLongDatabaseNames() {
+        // when
+        String name = SharedMongoTestExecutionListener.databaseName(
+            AVeryLongTestClassNameThatWouldNotFitIntoTheMaximumLengthOfAMongoDatabaseNameTest.class);
+
+        // then
+        assertThat(name).hasSize(63).startsWith("st_");
+    }
+
+    private TestContext testContext(Class<?> testClass) {
+        TestContext testContext = mock(TestContext.class);
+        when(testContext.getTestClass()).thenAnswer(invocation -> testClass);
+        when(testContext.getApplicationContext()).thenReturn(applicationContext);
+        return testContext;
+    }
+
+    @InMemoryDb(type = DbType.MONGODB)
+    static class CustomersTest {
+    }
+
+    @InMemoryDb(type = DbType.MONGODB)
+    static class OrdersTest {
+    }
+
+    @InMemoryDb(type = DbType.MONGODB)
+    static class AVeryLongTestClassNameThatWouldNotFitIntoTheMaximumLengthOfAMongoDatabaseNameTest {
+    }
+
+    @InMemoryDb
+    static class RelationalTest {
+    }
+}
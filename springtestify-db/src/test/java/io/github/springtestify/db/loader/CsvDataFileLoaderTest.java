@@ -0,0 +1,105 @@
+package io.github.springtestify.db.loader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvDataFileLoaderTest {
+
+    private static final String CSV = "id,name,price\r\n1,Keyboard,49.90\r\n2,\"Monitor, 27\"\"\",199.99\r\n3,Mouse,\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldLoadMappedFileInBatches() throws IOException {
+        // given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:csv_mapped", "sa", "");
+        JdbcTemplate jdbcTemplate = createTable(dataSource);
+        Path file = Files.write(tempDir.resolve("products.csv"), CSV.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        long rows = new CsvDataFileLoader(dataSource, 2).load(new FileSystemResource(file));
+
+        // then
+        assertThat(rows).isEqualTo(3);
+        assertLoaded(jdbcTemplate);
+    }
+
+    @Test
+    void shouldLoadWithCsvReadOnH2() throws IOException {
+        // given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:csv_h2;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = createTable(dataSource);
+        Path file = Files.write(tempDir.resolve("products.csv"), CSV.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        long rows = new CsvDataFileLoader(dataSource, 2).load(new FileSystemResource(file));
+
+        // then
+        assertThat(rows).isEqualTo(3);
+        assertLoaded(jdbcTemplate);
+    }
+
+    @Test
+    void shouldNotMatchColumnsOfTableNamedLikeTarget() {
+        // given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:csv_pattern;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE order_item (id INT PRIMARY KEY, quantity INT)");
+        jdbcTemplate.execute("CREATE TABLE orderXitem (id INT PRIMARY KEY, note VARCHAR(50))");
+        CsvDataFileLoader loader = new CsvDataFileLoader(dataSource, 10);
+
+        // when
+        long rows = loader.load(new ByteArrayResource("id,quantity\n1,5\n".getBytes(StandardCharsets.UTF_8)),
+            "order_item");
+
+        // then
+        assertThat(rows).isEqualTo(1);
+        assertThatThrownBy(() -> loader.load(
+            new ByteArrayResource("id,note\n2,x\n".getBytes(StandardCharsets.UTF_8)), "order_item"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unknown columns [note] for table ORDER_ITEM");
+    }
+
+    @Test
+    void shouldLoadStreamedResource() {
+        // given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:csv_stream;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = createTable(dataSource);
+
+        // when
+        long rows = new CsvDataFileLoader(dataSource, 10)
+            .load(new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8)), "products");
+
+        // then
+        assertThat(rows).isEqualTo(3);
+        assertLoaded(jdbcTemplate);
+    }
+
+    private static JdbcTemplate createTable(DriverManagerDataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE products (id INT PRIMARY KEY, name VARCHAR(50), price DECIMAL(10, 2))");
+        return jdbcTemplate;
+    }
+
+    private static void assertLoaded(JdbcTemplate jdbcTemplate) {
+        List<Map<String, Object>> products = jdbcTemplate.queryForList("SELECT * FROM products ORDER BY id");
+        assertThat(products).extracting(row -> row.get("NAME"))
+            .containsExactly("Keyboard", "Monitor, 27\"", "Mouse");
+        assertThat(products.get(2).get("PRICE")).isNull();
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.springtestify.db.loader;
+
+import io.github.springtestify.core.annotation.DataSetup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class DataLoaderIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DataSetup(value = "classpath:test-data/products.json", entity = TestProduct.class, batchSize = 2)
+    void shouldLoadJsonArrayIntoEntity() {
+        // when
+        List<TestProduct> products = entityManager
+            .createQuery("select p from TestProduct p order by p.name", TestProduct.class)
+            .getResultList();
+
+        // then
+        assertThat(products).extracting(TestProduct::getName)
+            .containsExactly("Keyboard", "Monitor", "Mouse");
+        assertThat(products.get(1).getPrice()).isEqualByComparingTo("199.99");
+    }
+
+    @Test
+    @Sql(statements = "INSERT INTO test_product (id, name, price) VALUES (100, 'Stale', 1)")
+    @DataSetup(value = "classpath:test-data/products.json", entity = TestProduct.class)
+    void shouldClearEntityBeforeLoadingJson() {
+        // when
+        List<String> names = productNames();
+
+        // then
+        assertThat(names).containsExactly("Keyboard", "Monitor", "Mouse");
+    }
+
+    @Test
+    @Sql(statements = "INSERT INTO test_product (id, name, price) VALUES (100, 'Stale', 1)")
+    @DataSetup("classpath:test-data/test_product.csv")
+    void shouldClearTableBeforeLoadingCsv() {
+        // when
+        List<String> names = productNames();
+
+        // then
+        assertThat(names).containsExactly("Cable", "Dock");
+    }
+
+    @Test
+    @Sql(statements = "INSERT INTO test_product (id, name, price) VALUES (100, 'Stale', 1)")
+    @DataSetup(value = "classpath:test-data/products.json", entity = TestProduct.class, clearBeforeLoad = false)
+    void shouldKeepExistingRowsWithoutClearing() {
+        // when
+        List<String> names = productNames();
+
+        // then
+        assertThat(names).containsExactly("Keyboard", "Monitor", "Mouse", "Stale");
+    }
+
+    private List<String> productNames() {
+        return entityManager
+            .createQuery("select p.name from TestProduct p order by p.name", String.class)
+            .getResultList();
+    }
+
+    @Entity(name = "TestProduct")
+    static class TestProduct {
+
+        @Id
+        @GeneratedValue
+        private Long id;
+
+        private String name;
+
+        private BigDecimal price;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.springtestify.db.loader;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlatXmlDataFileLoaderTest {
+
+    @Test
+    void shouldInsertReferencedTablesFirst() {
+        // given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:xml_fk;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE customers (id INT PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.execute("CREATE TABLE orders (id INT PRIMARY KEY, customer_id INT REFERENCES customers(id), "
+            + "total DECIMAL(10, 2))");
+        String xml = "<?xml version=\"1.0\"?>\n"
+            + "<dataset>\n"
+            + "  <orders id=\"10\" customer_id=\"1\" total=\"12.50\"/>\n"
+            + "  <orders id=\"11\" customer_id=\"2\" total=\"99.00\"/>\n"
+            + "  <customers id=\"1\" name=\"John\"/>\n"
+            + "  <customers id=\"2\" name=\"Jane\"/>\n"
+            + "</dataset>\n";
+
+        // when
+        long rows = new FlatXmlDataFileLoader(dataSource, 100)
+            .load(new ByteArrayResource(xml.getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        assertThat(rows).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT c.name FROM orders o JOIN customers c ON c.id = o.customer_id WHERE o.id = 11", String.class))
+            .isEqualTo("Jane");
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.springtestify.db.loader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JsonDataFileLoaderTest {
+
+    private final JsonDataFileLoader loader = new JsonDataFileLoader(new ObjectMapper(), 10);
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManagerFactory.getPersistenceUnitUtil()).thenReturn(mock(PersistenceUnitUtil.class));
+    }
+
+    @Test
+    void shouldPersistEachElementOfRootArray() {
+        // when
+        long rows = loader.load(resource("[{\"name\": \"Keyboard\"}, {\"name\": \"Mouse\"}]"), Product.class,
+            entityManager);
+
+        // then
+        assertThat(rows).isEqualTo(2);
+        verify(entityManager, times(2)).persist(any(Product.class));
+    }
+
+    @Test
+    void shouldRejectElementThatIsNotAnObject() {
+        // when / then
+        assertThatThrownBy(() -> loader.load(resource("[{\"name\": \"Keyboard\"}, 42, {\"name\": \"Mouse\"}]"),
+            Product.class, entityManager))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Expected an object of 'Product' at element 1 in Byte array resource [products.json] but found VALUE_NUMBER_INT");
+    }
+
+    private static ByteArrayResource resource(String json) {
+        return new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8), "products.json");
+    }
+
+    static class Product {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
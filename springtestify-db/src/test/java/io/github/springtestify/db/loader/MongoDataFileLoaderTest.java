@@ -0,0 +1,81 @@
+package io.github.springtestify.db.loader;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MongoDataFileLoaderTest {
+
+    private final List<List<RawBsonDocument>> insertedBatches = new ArrayList<>();
+
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        MongoCollection<RawBsonDocument> rawCollection = mock(MongoCollection.class);
+        mongoTemplate = mock(MongoTemplate.class);
+
+        when(mongoTemplate.getCollection("products")).thenReturn(collection);
+        when(collection.withDocumentClass(RawBsonDocument.class)).thenReturn(rawCollection);
+        when(rawCollection.insertMany(anyList(), any(InsertManyOptions.class))).thenAnswer(invocation -> {
+            insertedBatches.add(new ArrayList<>(invocation.<List<RawBsonDocument>>getArgument(0)));
+            return null;
+        });
+    }
+
+    @Test
+    void shouldStreamJsonArrayInBatches() {
+        // given
+        String json = "[\n"
+            + "  {\"_id\": {\"$oid\": \"65a1b2c3d4e5f6a7b8c9d0e1\"}, \"name\": \"TV\", \"price\": 599.99},\n"
+            + "  {\"name\": \"Phone\", \"tags\": [\"mobile\"]},\n"
+            + "  {\"name\": \"Book\"}\n"
+            + "]";
+
+        // when
+        long inserted = new MongoDataFileLoader(mongoTemplate, 2).load(resource(json), "products");
+
+        // then
+        assertThat(inserted).isEqualTo(3);
+        assertThat(insertedBatches).extracting(List::size).containsExactly(2, 1);
+        RawBsonDocument first = insertedBatches.get(0).get(0);
+        assertThat(first.getObjectId("_id").getValue()).isEqualTo(new ObjectId("65a1b2c3d4e5f6a7b8c9d0e1"));
+        assertThat(first.getDouble("price").getValue()).isEqualTo(599.99);
+    }
+
+    @Test
+    void shouldReadNewlineDelimitedDocuments() {
+        // given
+        String ndjson = "{\"name\": \"TV\"}\n\n{\"name\": \"Phone\"}\n";
+
+        // when
+        long inserted = new MongoDataFileLoader(mongoTemplate, 100).load(resource(ndjson), "products");
+
+        // then
+        assertThat(inserted).isEqualTo(2);
+        assertThat(insertedBatches.get(0)).extracting(document -> document.getString("name").getValue())
+            .containsExactly("TV", "Phone");
+    }
+
+    private static ByteArrayResource resource(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.springtestify.db.matrix;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.enums.DbType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DbMatrixRunnerTest {
+
+    @Test
+    void shouldRunTestClassOnEveryEngine() {
+        // given
+        DbMatrixRunner runner = new DbMatrixRunner(false);
+
+        // when
+        DbMatrixReport report = runner.run(MatrixQueries.class,
+            DbType.H2, DbType.POSTGRES_COMPATIBLE, DbType.HSQLDB, DbType.DERBY);
+
+        // then
+        assertThat(report.getFailures()).isEmpty();
+        assertThat(report.getTests()).containsExactlyInAnyOrder("shouldRunOnMatrixEngine()", "shouldCountProducts()");
+        for (DbType engine : report.getEngines()) {
+            assertThat(report.getDurationNanos("shouldCountProducts()", engine)).isPositive();
+        }
+        assertThat(report.toTable())
+            .startsWith("| MatrixQueries | H2 | POSTGRES_COMPATIBLE | HSQLDB | DERBY |")
+            .contains("| **Total** |");
+        assertThat(DbMatrixRunner.engineOf(MatrixQueries.class)).isNull();
+    }
+
+    @DataJpaTest
+    @InMemoryDb
+    static class MatrixQueries {
+
+        @Autowired
+        private DataSource dataSource;
+
+        @Autowired
+        private TestEntityManager entityManager;
+
+        @Test
+        void shouldRunOnMatrixEngine() throws Exception {
+            // given
+            DbType engine = DbMatrixRunner.engineOf(MatrixQueries.class);
+            assertThat(engine).isNotNull();
+            assertThat(CompletableFuture.supplyAsync(() -> DbMatrixRunner.engineOf(MatrixQueries.class)).get())
+                .isNull();
+
+            // when
+            String product;
+            try (Connection connection = dataSource.getConnection()) {
+                product = connection.getMetaData().getDatabaseProductName();
+            }
+
+            // then
+            assertThat(product).startsWith(engine == DbType.HSQLDB ? "HSQL" : engine == DbType.DERBY ? "Apache Derby" : "H2");
+            if (engine == DbType.POSTGRES_COMPATIBLE) {
+                assertThat(new JdbcTemplate(dataSource).queryForObject(
+                    "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'MODE'",
+                    String.class)).isEqualTo("PostgreSQL");
+            }
+        }
+
+        @Test
+        void shouldCountProducts() {
+            // given
+            for (int i = 0; i < 50; i++) {
+                entityManager.persist(new MatrixProduct("Product " + i));
+            }
+            entityManager.flush();
+
+            // when
+            Long count = entityManager.getEntityManager()
+                .createQuery("select count(p) from MatrixProduct p", Long.class)
+                .getSingleResult();
+
+            // then
+            assertThat(count).isEqualTo(50);
+        }
+    }
+
+    @Entity(name = "MatrixProduct")
+    static class MatrixProduct {
+
+        @Id
+        @GeneratedValue
+        private Long id;
+
+        private String name;
+
+        protected MatrixProduct() {
+        }
+
+        MatrixProduct(String name) {
+            this.name = name;
+        }
+    }
+}
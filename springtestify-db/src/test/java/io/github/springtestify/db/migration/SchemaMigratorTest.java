@@ -0,0 +1,63 @@
+package io.github.springtestify.db.migration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaMigratorTest {
+
+    @TempDir
+    Path snapshotDirectory;
+
+    private GenericApplicationContext applicationContext;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty(SchemaMigrator.SNAPSHOT_DIRECTORY_PROPERTY, snapshotDirectory.toString());
+        applicationContext = new GenericApplicationContext();
+        applicationContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+            Collections.singletonMap("spring.flyway.locations", "classpath:migration-test")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(SchemaMigrator.SNAPSHOT_DIRECTORY_PROPERTY);
+    }
+
+    @Test
+    void shouldRestoreSecondDatabaseFromSnapshot() throws IOException {
+        // given
+        SchemaMigrator migrator = new SchemaMigrator(applicationContext);
+        DriverManagerDataSource first = new DriverManagerDataSource("jdbc:h2:mem:migrate_first;DB_CLOSE_DELAY=-1");
+        DriverManagerDataSource second = new DriverManagerDataSource("jdbc:h2:mem:migrate_second;DB_CLOSE_DELAY=-1");
+
+        // when
+        migrator.migrate(first);
+        long snapshots;
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            snapshots = files.filter(file -> file.toString().endsWith(".sql")).count();
+        }
+        migrator.migrate(second);
+
+        // then
+        assertThat(snapshots).isEqualTo(1);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(second);
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM customers ORDER BY id", String.class))
+            .containsExactly("John", "Jane");
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(\"version\") FROM \"flyway_schema_history\"",
+            String.class)).isEqualTo("1.1");
+    }
+}
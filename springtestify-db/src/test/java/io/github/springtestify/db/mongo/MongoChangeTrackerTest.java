@@ -0,0 +1,61 @@
+package io.github.springtestify.db.mongo;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class MongoChangeTrackerTest {
+
+    private final MongoChangeTracker tracker = MongoChangeTracker.getInstance();
+
+    @Test
+    void shouldCountWriteCommandsPerCollection() {
+        // when
+        tracker.commandStarted(command("tracker_writes", "insert", "products"));
+        tracker.commandStarted(command("tracker_writes", "update", "products"));
+        tracker.commandStarted(command("tracker_writes", "delete", "orders"));
+        tracker.commandStarted(command("tracker_writes", "find", "customers"));
+
+        // then
+        assertThat(tracker.getChangeCount("tracker_writes", "products")).isEqualTo(2);
+        assertThat(tracker.getChangeCount("tracker_writes", "orders")).isEqualTo(1);
+        assertThat(tracker.getChangeCount("tracker_writes", "customers")).isZero();
+        assertThat(tracker.getChangeCounts("tracker_writes"))
+            .containsOnly(entry("products", 2L), entry("orders", 1L));
+    }
+
+    @Test
+    void shouldCountDropDatabaseForEveryKnownCollection() {
+        // given
+        tracker.commandStarted(command("tracker_drop", "insert", "products"));
+        tracker.commandStarted(command("tracker_drop", "insert", "orders"));
+        tracker.commandStarted(command("tracker_other", "insert", "products"));
+
+        // when
+        tracker.commandStarted(new CommandStartedEvent(null, 1, connection(), "tracker_drop", "dropDatabase",
+            new BsonDocument("dropDatabase", new BsonInt32(1))));
+
+        // then
+        assertThat(tracker.getChangeCounts("tracker_drop"))
+            .containsOnly(entry("products", 2L), entry("orders", 2L));
+        assertThat(tracker.getChangeCount("tracker_other", "products")).isEqualTo(1);
+    }
+
+    static CommandStartedEvent command(String database, String commandName, String collection) {
+        return new CommandStartedEvent(null, 1, connection(), database, commandName,
+            new BsonDocument(commandName, new BsonString(collection)));
+    }
+
+    private static ConnectionDescription connection() {
+        return new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+    }
+}
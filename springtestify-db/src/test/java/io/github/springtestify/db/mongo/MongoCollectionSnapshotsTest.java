@@ -0,0 +1,101 @@
+package io.github.springtestify.db.mongo;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoCollectionSnapshotsTest {
+
+    private final Map<String, MongoCollection<RawBsonDocument>> collections = new HashMap<>();
+
+    private MongoDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        database = mock(MongoDatabase.class);
+        when(database.getName()).thenReturn("snapshots_" + System.nanoTime());
+        mockCollection("products", document("TV"), document("Phone"));
+        mockCollection("orders");
+    }
+
+    @Test
+    void shouldRestoreOnlyChangedCollections() {
+        // given
+        MongoCollectionSnapshots snapshots = MongoCollectionSnapshots.capture(database,
+            Arrays.asList("products", "orders"));
+        MongoChangeTracker.getInstance().commandStarted(
+            MongoChangeTrackerTest.command(database.getName(), "delete", "products"));
+
+        // when
+        int restored = snapshots.restoreChanged();
+
+        // then
+        assertThat(restored).isEqualTo(1);
+        assertThat(snapshots.getCollections()).containsOnly("products", "orders");
+        MongoCollection<RawBsonDocument> products = collections.get("products");
+        verify(products).deleteMany(new Document());
+        verify(products).insertMany(eq(Arrays.asList(document("TV"), document("Phone"))),
+            any(InsertManyOptions.class));
+        verify(collections.get("orders"), never()).deleteMany(any());
+    }
+
+    @Test
+    void shouldSkipCollectionsRestoredSinceLastChange() {
+        // given
+        MongoCollectionSnapshots snapshots = MongoCollectionSnapshots.capture(database,
+            Collections.singletonList("products"));
+        MongoChangeTracker.getInstance().commandStarted(
+            MongoChangeTrackerTest.command(database.getName(), "insert", "products"));
+        snapshots.restoreChanged();
+
+        // when
+        int restored = snapshots.restoreChanged();
+
+        // then
+        assertThat(restored).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockCollection(String name, RawBsonDocument... documents) {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        MongoCollection<RawBsonDocument> rawCollection = mock(MongoCollection.class);
+        FindIterable<RawBsonDocument> find = mock(FindIterable.class);
+
+        when(database.getCollection(name)).thenReturn(collection);
+        when(collection.withDocumentClass(RawBsonDocument.class)).thenReturn(rawCollection);
+        when(rawCollection.find()).thenReturn(find);
+        when(find.into(anyList())).thenAnswer(invocation -> {
+            List<RawBsonDocument> target = invocation.getArgument(0);
+            target.addAll(Arrays.asList(documents));
+            return target;
+        });
+        collections.put(name, rawCollection);
+    }
+
+    private static RawBsonDocument document(String name) {
+        return new RawBsonDocument(new BsonDocument("name", new BsonString(name)), new BsonDocumentCodec());
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.springtestify.db.mongo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedEmbeddedMongoTest {
+
+    private final List<Integer> started = new ArrayList<>();
+    private final List<Integer> stopped = new ArrayList<>();
+    private final List<ServerSocket> servers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ServerSocket server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    void shouldStartLocalProcessOnFreePort() throws IOException {
+        // when
+        SharedEmbeddedMongo.Startup startup = SharedEmbeddedMongo.startLocal(this::start);
+
+        // then
+        assertThat(started).containsExactly(startup.port);
+        startup.shutdown.run();
+        assertThat(stopped).containsExactly(startup.port);
+    }
+
+    @Test
+    void shouldJoinProcessOfLockFile(@TempDir Path directory) throws Exception {
+        // given
+        Path lockFile = directory.resolve("mongod.lock");
+        SharedEmbeddedMongo.Startup owner = SharedEmbeddedMongo.startOrJoin(lockFile, this::start, 10_000);
+
+        // when
+        SharedEmbeddedMongo.Startup joiner = SharedEmbeddedMongo.startOrJoin(lockFile, this::start, 10_000);
+
+        // then
+        assertThat(joiner.port).isEqualTo(owner.port);
+        assertThat(started).containsExactly(owner.port);
+        assertThat(new String(Files.readAllBytes(lockFile), "US-ASCII")).isEqualTo(String.valueOf(owner.port));
+        assertThat(leases(directory)).hasSize(2);
+
+        // when the owner exits first, it waits for the lease of the joiner
+        CompletableFuture<Void> ownerExit = CompletableFuture.runAsync(owner.shutdown);
+        Thread.sleep(200);
+        assertThat(ownerExit).isNotDone();
+        assertThat(stopped).isEmpty();
+
+        joiner.shutdown.run();
+        ownerExit.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(stopped).containsExactly(owner.port);
+        assertThat(leases(directory)).isEmpty();
+    }
+
+    @Test
+    void shouldStartAgainWhenRecordedProcessIsGone(@TempDir Path directory) throws IOException {
+        // given
+        Path lockFile = directory.resolve("mongod.lock");
+        SharedEmbeddedMongo.Startup first = SharedEmbeddedMongo.startOrJoin(lockFile, this::start, 10_000);
+        first.shutdown.run();
+        servers.get(0).close();
+
+        // when
+        SharedEmbeddedMongo.Startup second = SharedEmbeddedMongo.startOrJoin(lockFile, this::start, 10_000);
+
+        // then
+        assertThat(started).hasSize(2).endsWith(second.port);
+        second.shutdown.run();
+    }
+
+    @Test
+    void shouldStopWaitingForLeasesAfterTimeout(@TempDir Path directory) throws Exception {
+        // given
+        Path lockFile = directory.resolve("mongod.lock");
+        SharedEmbeddedMongo.Startup owner = SharedEmbeddedMongo.startOrJoin(lockFile, this::start, 100);
+        SharedEmbeddedMongo.Startup joiner = SharedEmbeddedMongo.startOrJoin(lockFile, this::start, 100);
+
+        // when
+        long start = System.nanoTime();
+        owner.shutdown.run();
+
+        // then
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        assertThat(stopped).containsExactly(owner.port);
+        joiner.shutdown.run();
+    }
+
+    @Test
+    void shouldIgnoreStaleLeaseOfExitedJvm(@TempDir Path directory) throws IOException {
+        // given
+        Path lockFile = directory.resolve("mongod.lock");
+        Path ownLease = Files.createFile(directory.resolve("mongod.lock.lease-own"));
+        Path staleLease = Files.createFile(directory.resolve("mongod.lock.lease-stale"));
+
+        // when
+        boolean released = SharedEmbeddedMongo.awaitOtherLeases(lockFile, ownLease, 10_000);
+
+        // then
+        assertThat(released).isTrue();
+        assertThat(staleLease).doesNotExist();
+    }
+
+    private Runnable start(int port) throws IOException {
+        started.add(port);
+        // Stands for mongod, so that joining JVMs find the port listening
+        servers.add(new ServerSocket(port, 50, InetAddress.getByName("localhost")));
+        return () -> stopped.add(port);
+    }
+
+    private static List<Path> leases(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().contains(".lease-")).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.springtestify.db.profiler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(OutputCaptureExtension.class)
+class ConnectionTrackerTest {
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new StatementRecordingDataSource(new DriverManagerDataSource(
+            "jdbc:h2:mem:connection-tracker;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=100", "sa", ""));
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS ACCOUNT (ID INT PRIMARY KEY, BALANCE INT)");
+            statement.execute("MERGE INTO ACCOUNT VALUES (1, 100)");
+        }
+        ConnectionTracker.setThresholds(50, 500);
+        ConnectionTracker.setCaptureStacks(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConnectionTracker.setThresholds(1000, 500);
+        ConnectionTracker.setCaptureStacks(false);
+    }
+
+    @Test
+    void shouldReportConnectionsLeftOpen() throws SQLException {
+        // given
+        long mark = ConnectionTracker.mark();
+
+        // when
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertThat(ConnectionTracker.openSince(mark)).hasSize(1);
+        assertThat(Arrays.stream(ConnectionTracker.openSince(mark).get(0).getAcquisitionStack()))
+            .anyMatch(frame -> frame.getMethodName().equals("shouldReportConnectionsLeftOpen"));
+        connection.close();
+        assertThat(ConnectionTracker.openSince(mark)).isEmpty();
+    }
+
+    @Test
+    void shouldNotCaptureStackByDefault() throws SQLException {
+        // given
+        ConnectionTracker.setCaptureStacks(false);
+        long mark = ConnectionTracker.mark();
+
+        // when
+        try (Connection connection = dataSource.getConnection()) {
+            ConnectionTracker.TrackedConnection tracked = ConnectionTracker.openSince(mark).get(0);
+
+            // then
+            assertThat(tracked.getAcquisitionStack()).isEmpty();
+            assertThat(tracked.describe()).contains("-D" + ConnectionTracker.CAPTURE_STACKS_PROPERTY + "=true");
+        }
+    }
+
+    @Test
+    void shouldOnlyReportConnectionsOfCurrentOwner() throws Exception {
+        // given
+        CountDownLatch opened = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread otherTest = new Thread(() -> {
+            ConnectionTracker.mark();
+            try (Connection connection = dataSource.getConnection()) {
+                opened.countDown();
+                done.await();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long mark = ConnectionTracker.mark();
+
+        // when
+        otherTest.start();
+        opened.await();
+        Connection connection = dataSource.getConnection();
+        AtomicReference<Connection> childConnection = new AtomicReference<>();
+        Thread startedByTest = new Thread(() -> {
+            try {
+                childConnection.set(dataSource.getConnection());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        startedByTest.start();
+        startedByTest.join();
+
+        // then
+        try {
+            assertThat(ConnectionTracker.openSince(mark)).hasSize(2);
+        } finally {
+            done.countDown();
+            otherTest.join();
+            connection.close();
+            childConnection.get().close();
+        }
+    }
+
+    @Test
+    void shouldWarnOnLongTransaction(CapturedOutput output) throws Exception {
+        // given
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE ACCOUNT SET BALANCE = BALANCE + 1 WHERE ID = 1");
+            }
+
+            // when
+            Thread.sleep(100);
+            connection.commit();
+        }
+
+        // then
+        assertThat(output).contains("Transaction stayed open for").contains("shouldWarnOnLongTransaction");
+    }
+
+    @Test
+    void shouldReportLockTimeoutWithHolder(CapturedOutput output) throws SQLException {
+        // given
+        try (Connection holder = dataSource.getConnection();
+             Connection waiter = dataSource.getConnection()) {
+            holder.setAutoCommit(false);
+            try (Statement statement = holder.createStatement()) {
+                statement.executeUpdate("UPDATE ACCOUNT SET BALANCE = 0 WHERE ID = 1");
+            }
+
+            // when
+            waiter.setAutoCommit(false);
+            try (Statement statement = waiter.createStatement()) {
+                assertThatThrownBy(() -> statement.executeUpdate("UPDATE ACCOUNT SET BALANCE = 1 WHERE ID = 1"))
+                    .isInstanceOf(SQLException.class);
+            }
+            waiter.rollback();
+            holder.rollback();
+        }
+
+        // then
+        assertThat(output).contains("Lock timeout after").contains("Transaction open for");
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.springtestify.db.profiler;
+
+import io.github.springtestify.core.annotation.PerformanceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class QueryBudgetTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (String name : new String[]{"Austen", "Bronte", "Dickens"}) {
+            ProfiledAuthor author = new ProfiledAuthor(name);
+            entityManager.persist(author);
+            entityManager.persist(new ProfiledBook(name + " novel", author));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldReportRepeatedSelectsOfNPlusOne() {
+        // given
+        QueryBudget.reset();
+
+        // when
+        List<ProfiledAuthor> authors = entityManager.getEntityManager()
+            .createQuery("select a from ProfiledAuthor a", ProfiledAuthor.class)
+            .getResultList();
+        authors.forEach(author -> author.getBooks().size());
+
+        // then
+        assertThat(QueryBudget.current().count(StatementType.SELECT)).isEqualTo(4);
+        assertThatThrownBy(() -> QueryBudget.assertAtMostIdentical(1))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("ran 3 times")
+            .hasMessageContaining("Repeated statements");
+        assertThatThrownBy(() -> QueryBudget.assertAtMost(2))
+            .hasMessageContaining("Expected at most 2 statements but 4 were executed");
+    }
+
+    @Test
+    @PerformanceTest(maxQueries = 1, maxIdenticalQueries = 1)
+    void shouldStayWithinBudgetWithFetchJoin() {
+        // given
+        QueryBudget.reset();
+
+        // when
+        List<ProfiledAuthor> authors = entityManager.getEntityManager()
+            .createQuery("select distinct a from ProfiledAuthor a join fetch a.books", ProfiledAuthor.class)
+            .getResultList();
+        authors.forEach(author -> author.getBooks().size());
+
+        // then
+        assertThat(authors).hasSize(3);
+    }
+
+    @Entity(name = "ProfiledAuthor")
+    static class ProfiledAuthor {
+
+        @Id
+        @GeneratedValue
+        private Long id;
+
+        private String name;
+
+        @OneToMany(mappedBy = "author")
+        private List<ProfiledBook> books = new ArrayList<>();
+
+        ProfiledAuthor() {
+        }
+
+        ProfiledAuthor(String name) {
+            this.name = name;
+        }
+
+        public List<ProfiledBook> getBooks() {
+            return books;
+        }
+    }
+
+    @Entity(name = "ProfiledBook")
+    static class ProfiledBook {
+
+        @Id
+        @GeneratedValue
+        private Long id;
+
+        private String title;
+
+        @ManyToOne
+        private ProfiledAuthor author;
+
+        ProfiledBook() {
+        }
+
+        ProfiledBook(String title, ProfiledAuthor author) {
+            this.title = title;
+            this.author = author;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.springtestify.db.profiler;
+
+import io.github.springtestify.core.annotation.InMemoryDb;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@InMemoryDb(explainQueries = true, fullScanThreshold = 10)
+class QueryPlanAnalyzerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 20; i++) {
+            entityManager.persist(new ExplainedProduct("SKU-" + i, i % 2 == 0 ? "books" : "music"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldFlagFullScanOnUnindexedColumn() {
+        // given
+        QueryBudget.reset();
+
+        // when
+        List<ExplainedProduct> products = entityManager.getEntityManager()
+            .createQuery("select p from ExplainedProduct p where p.category = :category", ExplainedProduct.class)
+            .setParameter("category", "books")
+            .getResultList();
+
+        // then
+        assertThat(products).hasSize(10);
+        QueryPlan plan = QueryPlanAnalyzer.getPlan(QueryBudget.current().getStatements().get(0).getShape());
+        assertThat(plan.isFlagged()).isTrue();
+        assertThat(plan.getFullScans()).hasSize(1);
+        assertThat(plan.getFullScans().get(0).getTable()).isEqualTo("EXPLAINED_PRODUCT");
+        assertThat(plan.getFullScans().get(0).getRows()).isEqualTo(20);
+        assertThat(plan.getFullScans().get(0).getColumns()).containsExactly("CATEGORY");
+        assertThatThrownBy(QueryBudget::assertNoFullScans)
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("EXPLAINED_PRODUCT (20 rows) filtered on CATEGORY");
+    }
+
+    @Test
+    void shouldNotFlagIndexedLookup() {
+        // given
+        QueryBudget.reset();
+
+        // when
+        List<ExplainedProduct> products = entityManager.getEntityManager()
+            .createQuery("select p from ExplainedProduct p where p.sku = :sku", ExplainedProduct.class)
+            .setParameter("sku", "SKU-3")
+            .getResultList();
+
+        // then
+        assertThat(products).hasSize(1);
+        QueryPlan plan = QueryPlanAnalyzer.getPlan(QueryBudget.current().getStatements().get(0).getShape());
+        assertThat(plan.isFlagged()).isFalse();
+        assertThat(plan.getFullScans()).isEmpty();
+        QueryBudget.assertNoFullScans();
+    }
+
+    @Entity(name = "ExplainedProduct")
+    @Table(name = "EXPLAINED_PRODUCT", indexes = @Index(columnList = "sku"))
+    static class ExplainedProduct {
+
+        @Id
+        @GeneratedValue
+        private Long id;
+
+        private String sku;
+
+        private String category;
+
+        protected ExplainedProduct() {
+        }
+
+        ExplainedProduct(String sku, String category) {
+            this.sku = sku;
+            this.category = category;
+        }
+    }
+}
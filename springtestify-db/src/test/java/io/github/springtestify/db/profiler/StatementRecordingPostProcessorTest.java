@@ -0,0 +1,90 @@
+package io.github.springtestify.db.profiler;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.springtestify.core.annotation.InMemoryDb;
+import io.github.springtestify.core.annotation.PerformanceTest;
+import io.github.springtestify.db.config.StatementRecordingContextCustomizerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementRecordingPostProcessorTest {
+
+    private final StatementRecordingContextCustomizerFactory factory = new StatementRecordingContextCustomizerFactory();
+
+    @AfterEach
+    void tearDown() {
+        StatementRecorder.stop();
+    }
+
+    @Test
+    void shouldKeepPoolTypeOfDataSourceBean() throws SQLException {
+        // given
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl("jdbc:h2:mem:recording-post-processor;DB_CLOSE_DELAY=-1");
+
+            // when
+            Object bean = new StatementRecordingPostProcessor().postProcessAfterInitialization(dataSource, "dataSource");
+            StatementLog log = StatementRecorder.start();
+            try (Connection connection = ((DataSource) bean).getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+            }
+
+            // then
+            assertThat(bean).isInstanceOf(HikariDataSource.class).isNotSameAs(dataSource);
+            assertThat(((HikariDataSource) bean).getJdbcUrl()).isEqualTo(dataSource.getJdbcUrl());
+            assertThat(((DataSource) bean).isWrapperFor(HikariDataSource.class)).isTrue();
+            assertThat(log.getStatements()).extracting(RecordedStatement::getSql).containsExactly("SELECT 1");
+        }
+    }
+
+    @Test
+    void shouldNotProxyDataSourceTwice() {
+        // given
+        StatementRecordingPostProcessor postProcessor = new StatementRecordingPostProcessor();
+        Object bean = postProcessor.postProcessAfterInitialization(new HikariDataSource(), "dataSource");
+
+        // when / then
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "dataSource")).isSameAs(bean);
+    }
+
+    @Test
+    void shouldOnlyRecordStatementsOfOptedInTestClasses() {
+        // when / then
+        assertThat(factory.createContextCustomizer(PlainTest.class, Collections.emptyList())).isNull();
+        assertThat(factory.createContextCustomizer(InMemoryTest.class, Collections.emptyList())).isNull();
+        assertThat(factory.createContextCustomizer(RecordingTest.class, Collections.emptyList())).isNotNull();
+        assertThat(factory.createContextCustomizer(ExplainingTest.class, Collections.emptyList())).isNotNull();
+        assertThat(factory.createContextCustomizer(BudgetedMethodTest.class, Collections.emptyList())).isNotNull();
+    }
+
+    static class PlainTest {
+    }
+
+    @InMemoryDb
+    static class InMemoryTest {
+    }
+
+    @InMemoryDb(recordStatements = true)
+    static class RecordingTest {
+    }
+
+    @InMemoryDb(explainQueries = true)
+    static class ExplainingTest {
+    }
+
+    static class BudgetedMethodTest {
+
+        @PerformanceTest(maxQueries = 1)
+        void budgeted() {
+        }
+    }
+}
@@ -0,0 +1 @@
+INSERT INTO customers VALUES (3, 'Jim');
@@ -0,0 +1,2 @@
+CREATE TABLE IF NOT EXISTS visits (visit INT);
+INSERT INTO visits VALUES (1);
@@ -0,0 +1,2 @@
+INSERT INTO customers VALUES (1, 'John');
+INSERT INTO customers VALUES (2, 'Jane');
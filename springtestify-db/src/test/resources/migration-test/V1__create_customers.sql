@@ -0,0 +1 @@
+CREATE TABLE customers (id INT PRIMARY KEY, name VARCHAR(50));
@@ -10,6 +10,10 @@ import java.lang.annotation.*;
 /**
  * Annotation for CRUD controller tests.
  * Combines Spring Boot test configuration with custom CRUD test settings.
+ * <p>
+ * The application runs in a mock web environment by default. With a {@code RANDOM_PORT} web environment,
+ * it is started on a random local port as well, so that it can be called over real HTTP, for instance
+ * to measure throughput through the servlet container.
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
@@ -45,4 +49,10 @@ public @interface CrudControllerTest {
      * Whether to include common entity matchers in all tests
      */
     boolean includeCommonMatchers() default true;
+
+    /**
+     * Alias for {@link SpringBootTest#webEnvironment}, the mock web environment by default
+     */
+    @AliasFor(annotation = SpringBootTest.class, attribute = "webEnvironment")
+    SpringBootTest.WebEnvironment webEnvironment() default SpringBootTest.WebEnvironment.MOCK;
 }
@@ -5,22 +5,21 @@ import io.github.springtestify.annotation.Expect;
 import io.github.springtestify.annotation.ScenarioAction;
 import io.github.springtestify.annotation.TestScenario;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
-import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.util.Arrays;
-
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import java.util.stream.Stream;
 
 /**
  * Base class for tests that use scenarios.
@@ -38,6 +37,9 @@ public abstract class AbstractScenarioTest<T> {
     protected TestEntityBuilder<T> builder;
     protected final Class<T> entityClass;
 
+    // Thread-bound, so that concurrent methods on a per-class test instance each see their own
+    private final ThreadLocal<Method> currentTestMethod = new ThreadLocal<>();
+
     protected AbstractScenarioTest(Class<T> entityClass) {
         this.entityClass = entityClass;
     }
@@ -48,22 +50,19 @@ public abstract class AbstractScenarioTest<T> {
     }
 
     /**
-     * Execute the test scenario with the given method
+     * Execute the test scenario with the given method.
+     * The annotations of the method are compiled into a {@link ScenarioPlan} step on the first run.
      */
     protected void executeScenario(Method method) throws Exception {
-        TestScenario testScenario = method.getAnnotation(TestScenario.class);
-        ScenarioAction action = method.getAnnotation(ScenarioAction.class);
-
-        if (testScenario == null || action == null) {
+        ScenarioPlan.Step step = ScenarioPlan.of(this).step(method);
+        if (!step.isExecutable()) {
             throw new IllegalStateException("Both @TestScenario and @ScenarioAction annotations are required");
         }
 
-        T entity = new TestEntityBuilder<>(getEntityClass())
-                .withScenario(testScenario.value())
-                .build();
-
-        ResultActions result = performRequest(action, entity);
-        verifyExpectations(testScenario.expect(), result);
+        ResultActions result = mockMvc.perform(step.newRequest(objectMapper));
+        for (ResultMatcher matcher : step.expectations()) {
+            result.andExpect(matcher);
+        }
     }
 
     protected ResultActions performRequest(ScenarioAction action, T entity) throws Exception {
@@ -122,74 +121,33 @@ public abstract class AbstractScenarioTest<T> {
     }
 
     protected void verifyExpectations(Expect[] expectations, ResultActions result) throws Exception {
-        for (Expect expect : expectations) {
-            // Verify status if specified
-            if (expect.status() != null) {
-                result.andExpect(status().is(expect.status().value()));
-            }
-
-            // Verify JSON paths if specified
-            String[] jsonPaths = expect.jsonPath();
-            String[] values = expect.value();
-
-            if (jsonPaths != null && jsonPaths.length > 0) {
-                for (int i = 0; i < jsonPaths.length; i++) {
-                    String path = jsonPaths[i];
-                    if (i < values.length) {
-                        result.andExpect(MockMvcResultMatchers.jsonPath(path).value(values[i]));
-                    }
-                }
-            }
-
-            // Verify existence checks
-            if (expect.exists() != null && expect.exists().length > 0) {
-                for (String path : expect.exists()) {
-                    result.andExpect(MockMvcResultMatchers.jsonPath(path).exists());
-                }
-            }
-
-            // Verify non-existence checks
-            if (expect.notExists() != null && expect.notExists().length > 0) {
-                for (String path : expect.notExists()) {
-                    result.andExpect(MockMvcResultMatchers.jsonPath(path).doesNotExist());
-                }
-            }
-
-            // Verify null checks
-            if (expect.isNull() != null && expect.isNull().length > 0) {
-                for (String path : expect.isNull()) {
-                    result.andExpect(MockMvcResultMatchers.jsonPath(path).isEmpty());
-                }
-            }
-
-            // Verify not-null checks
-            if (expect.notNull() != null && expect.notNull().length > 0) {
-                for (String path : expect.notNull()) {
-                    result.andExpect(MockMvcResultMatchers.jsonPath(path).isNotEmpty());
-                }
-            }
-
-            // Verify error message if specified
-            if (expect.error() != null && !expect.error().isEmpty()) {
-                result.andExpect(MockMvcResultMatchers.jsonPath("$.message").value(expect.error()));
-            }
+        for (ResultMatcher matcher : ScenarioPlan.compileExpectations(expectations)) {
+            result.andExpect(matcher);
         }
     }
 
     protected abstract String getBasePath();
 
+    /**
+     * Run the cases of a scenario table concurrently, one dynamic test per case
+     * @param table the scenario table
+     * @return the dynamic tests, to return from a {@code @TestFactory} method
+     * @see ScenarioRunner
+     */
+    protected Stream<DynamicTest> runScenarios(ScenarioTable table) {
+        Method method = currentTestMethod.get();
+        return new ScenarioRunner(mockMvc, objectMapper)
+            .basePath(getBasePath())
+            .reportName(getClass().getName() + (method == null ? "" : "." + method.getName()))
+            .run(table);
+    }
+
     /**
      * Build an entity from the current test method's scenario
      * @return Entity built according to the test scenario
      */
     protected T buildFromCurrentScenario() {
-        String methodName = Thread.currentThread().getStackTrace()[2].getMethodName();
-        try {
-            Method method = getClass().getMethod(methodName);
-            return builder.buildFromTestMethod(method);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException("Could not find test method: " + methodName, e);
-        }
+        return builder.buildFromTestMethod(getCurrentTestMethod());
     }
 
     /**
@@ -197,14 +155,10 @@ public abstract class AbstractScenarioTest<T> {
      * @return Metadata about the current test's scenario
      */
     protected TestEntityBuilder.TestScenarioMetadata getCurrentScenarioMetadata() {
-        String methodName = Thread.currentThread().getStackTrace()[2].getMethodName();
-        try {
-            Method method = getClass().getMethod(methodName);
-            return builder.getTestScenarioMetadata(method)
-                .orElseThrow(() -> new IllegalStateException("No @TestScenario annotation found on method: " + methodName));
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException("Could not find test method: " + methodName, e);
-        }
+        Method method = getCurrentTestMethod();
+        return builder.getTestScenarioMetadata(method)
+            .orElseThrow(() -> new IllegalStateException(
+                "No @TestScenario annotation found on method: " + method.getName()));
     }
 
     /**
@@ -213,13 +167,29 @@ public abstract class AbstractScenarioTest<T> {
      * @return true if the current test uses the specified scenario
      */
     protected boolean isScenario(String scenarioName) {
-        String methodName = Thread.currentThread().getStackTrace()[2].getMethodName();
-        try {
-            Method method = getClass().getMethod(methodName);
-            TestScenario scenario = method.getAnnotation(TestScenario.class);
-            return scenario != null && scenario.value().equals(scenarioName);
-        } catch (NoSuchMethodException e) {
-            return false;
+        Method method = currentTestMethod.get();
+        TestScenario scenario = method == null ? null : method.getAnnotation(TestScenario.class);
+        return scenario != null && scenario.value().equals(scenarioName);
+    }
+
+    /**
+     * Get the test method being run, as resolved by the {@link ScenarioTestExecutionListener} extension
+     * @return the current test method
+     */
+    protected Method getCurrentTestMethod() {
+        Method method = currentTestMethod.get();
+        if (method == null) {
+            throw new IllegalStateException(
+                "No test method is running; is the test run through ScenarioTestExecutionListener?");
+        }
+        return method;
+    }
+
+    void setCurrentTestMethod(Method method) {
+        if (method == null) {
+            currentTestMethod.remove();
+        } else {
+            currentTestMethod.set(method);
         }
     }
 
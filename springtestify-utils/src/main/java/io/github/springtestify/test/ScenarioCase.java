@@ -0,0 +1,90 @@
+package io.github.springtestify.test;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One row of a {@link ScenarioTable}: a request and the expectations on its response.
+ * <p>
+ * The method, path and status left unset fall back to the defaults of the table.
+ */
+public final class ScenarioCase {
+
+    private final String name;
+    private final HttpMethod method;
+    private final String path;
+    private final Supplier<?> body;
+    private final Map<String, String> params;
+    private final Map<String, String> headers;
+    private final Integer status;
+    private final Map<String, Object> jsonPathValues;
+    private final List<String> exists;
+    private final List<String> notExists;
+
+    ScenarioCase(String name, HttpMethod method, String path, Supplier<?> body, Map<String, String> params,
+                 Map<String, String> headers, Integer status, Map<String, Object> jsonPathValues,
+                 List<String> exists, List<String> notExists) {
+        this.name = name;
+        this.method = method;
+        this.path = path;
+        this.body = body;
+        this.params = Collections.unmodifiableMap(params);
+        this.headers = Collections.unmodifiableMap(headers);
+        this.status = status;
+        this.jsonPathValues = Collections.unmodifiableMap(jsonPathValues);
+        this.exists = Collections.unmodifiableList(exists);
+        this.notExists = Collections.unmodifiableList(notExists);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the factory of the request body, called for each run, or null for no body.
+     */
+    public Supplier<?> getBody() {
+        return body;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public Map<String, Object> getJsonPathValues() {
+        return jsonPathValues;
+    }
+
+    public List<String> getExists() {
+        return exists;
+    }
+
+    public List<String> getNotExists() {
+        return notExists;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.springtestify.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.springtestify.annotation.Expect;
+import io.github.springtestify.annotation.ScenarioAction;
+import io.github.springtestify.annotation.TestScenario;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The scenario methods of a test class, compiled once.
+ * <p>
+ * The annotations of a scenario method are read the first time it runs and turned into a step:
+ * the resolved request URI, parameters and headers, a prebuilt entity template and the result
+ * matchers of its expectations, whose JSON path expressions are compiled when the matchers are
+ * created. Later runs of the method, including repeated and parameterized ones, reuse the step.
+ */
+final class ScenarioPlan {
+
+    private static final Map<Class<?>, ScenarioPlan> PLANS = new ConcurrentHashMap<>();
+
+    private final Class<?> entityClass;
+    private final String basePath;
+    private final Map<Method, Step> steps = new ConcurrentHashMap<>();
+
+    private ScenarioPlan(Class<?> entityClass, String basePath) {
+        this.entityClass = entityClass;
+        this.basePath = basePath;
+    }
+
+    /**
+     * Returns the plan of a test class, creating it on first use.
+     *
+     * @param test the test instance, whose class, entity class and base path define the plan
+     * @return the plan of the test class
+     */
+    static ScenarioPlan of(AbstractScenarioTest<?> test) {
+        return PLANS.computeIfAbsent(test.getClass(), type -> new ScenarioPlan(test.entityClass, test.getBasePath()));
+    }
+
+    /**
+     * Returns the step of a scenario method, compiling it on first use.
+     *
+     * @param method the test method, annotated with {@link TestScenario}
+     * @return the compiled step
+     */
+    Step step(Method method) {
+        return steps.computeIfAbsent(method, this::compile);
+    }
+
+    /**
+     * Compiles expectations into result matchers.
+     *
+     * @param expectations the expectations
+     * @return the result matchers, in the order they must be applied
+     */
+    static List<ResultMatcher> compileExpectations(Expect[] expectations) {
+        List<ResultMatcher> matchers = new ArrayList<>();
+        for (Expect expect : expectations) {
+            // Verify status if specified
+            if (expect.status() != null) {
+                matchers.add(status().is(expect.status().value()));
+            }
+
+            // Verify JSON paths if specified
+            String[] paths = expect.jsonPath();
+            String[] values = expect.value();
+            for (int i = 0; i < paths.length && i < values.length; i++) {
+                matchers.add(jsonPath(paths[i]).value(values[i]));
+            }
+
+            for (String path : expect.exists()) {
+                matchers.add(jsonPath(path).exists());
+            }
+            for (String path : expect.notExists()) {
+                matchers.add(jsonPath(path).doesNotExist());
+            }
+            for (String path : expect.isNull()) {
+                matchers.add(jsonPath(path).isEmpty());
+            }
+            for (String path : expect.notNull()) {
+                matchers.add(jsonPath(path).isNotEmpty());
+            }
+
+            // Verify error message if specified
+            if (!expect.error().isEmpty()) {
+                matchers.add(jsonPath("$.message").value(expect.error()));
+            }
+        }
+        return matchers;
+    }
+
+    private Step compile(Method method) {
+        TestScenario scenario = method.getAnnotation(TestScenario.class);
+        if (scenario == null) {
+            throw new IllegalStateException("No @TestScenario annotation found on method: " + method.getName());
+        }
+        return new Step(scenario, method.getAnnotation(ScenarioAction.class));
+    }
+
+    /**
+     * A compiled scenario method.
+     */
+    final class Step {
+
+        private final TestScenario scenario;
+        private final ScenarioAction action;
+        private final TestEntityBuilder<?> template;
+        private final URI uri;
+        private final boolean sendsBody;
+        private final List<ResultMatcher> expectations;
+
+        private Step(TestScenario scenario, ScenarioAction action) {
+            this.scenario = scenario;
+            this.action = action;
+            if (action == null) {
+                this.template = null;
+                this.uri = null;
+                this.sendsBody = false;
+                this.expectations = Collections.emptyList();
+                return;
+            }
+
+            if (!isSupported(action.method())) {
+                throw new IllegalArgumentException("Unsupported HTTP method: " + action.method());
+            }
+            this.template = new TestEntityBuilder<>(entityClass).withScenario(scenario.value());
+            String path = action.path().isEmpty() ? basePath : action.path();
+            this.uri = UriComponentsBuilder.fromUriString(path).buildAndExpand().encode().toUri();
+            this.sendsBody = action.includeBody() && (action.method() == HttpMethod.POST
+                    || action.method() == HttpMethod.PUT || action.method() == HttpMethod.PATCH);
+            this.expectations = Collections.unmodifiableList(compileExpectations(scenario.expect()));
+        }
+
+        /**
+         * Returns whether the method declares an action, and can therefore be executed.
+         */
+        boolean isExecutable() {
+            return action != null;
+        }
+
+        /**
+         * Creates the request of the action, with a new entity built from the scenario as its body.
+         */
+        MockHttpServletRequestBuilder newRequest(ObjectMapper objectMapper) throws Exception {
+            MockHttpServletRequestBuilder request = MockMvcRequestBuilders.request(action.method(), uri);
+            if (sendsBody) {
+                Object entity = template.build();
+                if (entity != null) {
+                    request.contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsBytes(entity));
+                }
+            }
+            for (ScenarioAction.RequestParam param : action.params()) {
+                request.param(param.name(), param.value());
+            }
+            for (ScenarioAction.RequestHeader header : action.headers()) {
+                request.header(header.name(), header.value());
+            }
+            return request;
+        }
+
+        List<ResultMatcher> expectations() {
+            return expectations;
+        }
+
+        private boolean isSupported(HttpMethod method) {
+            return method == HttpMethod.GET || method == HttpMethod.POST || method == HttpMethod.PUT
+                    || method == HttpMethod.DELETE || method == HttpMethod.PATCH;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package io.github.springtestify.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.DynamicTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the cases of a {@link ScenarioTable} concurrently against a shared {@link MockMvc}, as dynamic tests.
+ * <p>
+ * The cases are compiled into requests and result matchers, then all submitted to a pool of workers when
+ * {@link #run(ScenarioTable)} is called. Each returned dynamic test waits for its own case and reports its
+ * outcome, so JUnit shows one result per scenario whether or not it runs dynamic tests in parallel. Once every
+ * case has completed, the durations are logged and written to
+ * {@code target/springtestify/scenarios/<name>.md}, unless the {@value #REPORT_DIRECTORY_PROPERTY} system
+ * property points elsewhere.
+ * <p>
+ * Example usage, in a class extending {@link AbstractScenarioTest}:
+ *
+ * <pre>
+ * &#064;TestFactory
+ * Stream&lt;DynamicTest&gt; userCatalogue() {
+ *     return runScenarios(ScenarioTable.fromResource("scenarios/users.json", User.class));
+ * }
+ * </pre>
+ * <p>
+ * Cases must be independent of each other, since they run in no particular order. The security context of the
+ * test, such as the user of {@code @WithMockUser}, is set on the worker threads, but the test transaction is not:
+ * each case would run in its own transactions and commit its changes, so the runner rejects test methods running
+ * in a transaction, such as the ones of a {@code @Transactional} test class.
+ */
+public class ScenarioRunner {
+
+    /**
+     * System property setting the directory of the timing reports.
+     */
+    public static final String REPORT_DIRECTORY_PROPERTY = "springtestify.scenarios.reports";
+
+    private static final String DEFAULT_REPORT_DIRECTORY = "target/springtestify/scenarios";
+
+    private static final Log logger = LogFactory.getLog(ScenarioRunner.class);
+
+    private static final boolean SECURITY_PRESENT = ClassUtils.isPresent(
+            "org.springframework.security.test.context.TestSecurityContextHolder", ScenarioRunner.class.getClassLoader());
+
+    private static final boolean TRANSACTIONS_PRESENT = ClassUtils.isPresent(
+            "org.springframework.transaction.support.TransactionSynchronizationManager",
+            ScenarioRunner.class.getClassLoader());
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private String basePath = "";
+    private String reportName;
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates a runner sending its requests to a MockMvc instance.
+     *
+     * @param mockMvc the MockMvc instance, shared by the concurrent cases
+     * @param objectMapper the object mapper serializing the request bodies
+     */
+    public ScenarioRunner(MockMvc mockMvc, ObjectMapper objectMapper) {
+        this.mockMvc = mockMvc;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sets the path of the cases that specify none, neither themselves nor through their table.
+     *
+     * @param basePath the base path
+     * @return this runner, for method chaining
+     */
+    public ScenarioRunner basePath(String basePath) {
+        this.basePath = basePath;
+        return this;
+    }
+
+    /**
+     * Sets the number of cases run at the same time, the number of processors by default.
+     *
+     * @param concurrency the number of workers
+     * @return this runner, for method chaining
+     */
+    public ScenarioRunner concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Sets the name of the timing report, which is not written without one.
+     *
+     * @param reportName the report name, typically the test class name
+     * @return this runner, for method chaining
+     */
+    public ScenarioRunner reportName(String reportName) {
+        this.reportName = reportName;
+        return this;
+    }
+
+    /**
+     * Starts running the cases of a table and returns one dynamic test per case.
+     *
+     * @param table the scenario table
+     * @return the dynamic tests, to return from a {@code @TestFactory} method
+     * @throws IllegalStateException if called within a transaction, which the cases could not join
+     */
+    public Stream<DynamicTest> run(ScenarioTable table) {
+        if (TRANSACTIONS_PRESENT && TransactionCheck.isActive()) {
+            throw new IllegalStateException("Scenario cases run on worker threads, outside the test transaction, "
+                    + "and would commit their changes; run them from a test method that is not @Transactional");
+        }
+
+        List<CompiledCase> compiled = new ArrayList<>(table.getCases().size());
+        for (ScenarioCase scenarioCase : table.getCases()) {
+            compiled.add(new CompiledCase(scenarioCase, table));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, Math.max(compiled.size(), 1)));
+        Object securityContext = SECURITY_PRESENT ? SecurityContextPropagation.capture() : null;
+        List<CompletableFuture<Result>> futures = new ArrayList<>(compiled.size());
+        for (CompiledCase compiledCase : compiled) {
+            futures.add(CompletableFuture.supplyAsync(() -> compiledCase.execute(securityContext), executor));
+        }
+        CompletableFuture<Void> reported = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, failure) -> {
+                    executor.shutdown();
+                    report(futures);
+                });
+
+        List<DynamicTest> tests = new ArrayList<>(compiled.size());
+        for (int i = 0; i < compiled.size(); i++) {
+            CompletableFuture<Result> future = futures.get(i);
+            boolean last = i == compiled.size() - 1;
+            tests.add(DynamicTest.dynamicTest(compiled.get(i).scenarioCase.getName(), () -> {
+                Result result = await(future);
+                if (last) {
+                    // Keeps the report within the run of the test factory
+                    await(reported);
+                }
+                if (result.failure != null) {
+                    throw result.failure;
+                }
+            }));
+        }
+        return tests.stream();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scenario worker failed", e.getCause());
+        }
+    }
+
+    private void report(List<CompletableFuture<Result>> futures) {
+        List<Result> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<Result> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                // Already reported by the dynamic test of the case
+            }
+        }
+        results.sort(Comparator.comparingLong((Result result) -> result.durationNanos).reversed());
+
+        StringBuilder table = new StringBuilder("| Scenario | Result | Time (ms) |\n|---|---|---|\n");
+        for (Result result : results) {
+            table.append(String.format("| %s | %s | %.1f |%n", result.name,
+                    result.failure == null ? "passed" : "FAILED",
+                    result.durationNanos / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Scenarios" + (reportName == null ? "" : " of " + reportName) + ":\n" + table);
+        }
+        if (reportName == null) {
+            return;
+        }
+
+        Path directory = Paths.get(System.getProperty(REPORT_DIRECTORY_PROPERTY, DEFAULT_REPORT_DIRECTORY));
+        Path file = directory.resolve(reportName + ".md");
+        try {
+            Files.createDirectories(directory);
+            Files.write(file, table.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Could not write the scenario report to " + file, e);
+        }
+    }
+
+    /**
+     * A case resolved against the defaults of its table, with its result matchers built once.
+     */
+    private final class CompiledCase {
+
+        private final ScenarioCase scenarioCase;
+        private final HttpMethod method;
+        private final URI uri;
+        private final List<ResultMatcher> matchers = new ArrayList<>();
+
+        private CompiledCase(ScenarioCase scenarioCase, ScenarioTable table) {
+            this.scenarioCase = scenarioCase;
+            this.method = scenarioCase.getMethod() != null ? scenarioCase.getMethod() : table.getDefaultMethod();
+            String path = scenarioCase.getPath() != null ? scenarioCase.getPath()
+                    : table.getDefaultPath() != null ? table.getDefaultPath() : basePath;
+            this.uri = UriComponentsBuilder.fromUriString(path).buildAndExpand().encode().toUri();
+
+            Integer status = scenarioCase.getStatus() != null ? scenarioCase.getStatus() : table.getDefaultStatus();
+            if (status != null) {
+                matchers.add(status().is(status));
+            }
+            for (Map.Entry<String, Object> value : scenarioCase.getJsonPathValues().entrySet()) {
+                matchers.add(jsonPath(value.getKey()).value(value.getValue()));
+            }
+            for (String expression : scenarioCase.getExists()) {
+                matchers.add(jsonPath(expression).exists());
+            }
+            for (String expression : scenarioCase.getNotExists()) {
+                matchers.add(jsonPath(expression).doesNotExist());
+            }
+        }
+
+        private Result execute(Object securityContext) {
+            if (securityContext != null) {
+                SecurityContextPropagation.restore(securityContext);
+            }
+            long start = System.nanoTime();
+            Throwable failure = null;
+            try {
+                MockHttpServletRequestBuilder request = MockMvcRequestBuilders.request(method, uri);
+                Object body = scenarioCase.getBody() == null ? null : scenarioCase.getBody().get();
+                if (body != null) {
+                    request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+                }
+                scenarioCase.getParams().forEach(request::param);
+                scenarioCase.getHeaders().forEach(request::header);
+
+                ResultActions result = mockMvc.perform(request);
+                for (ResultMatcher matcher : matchers) {
+                    result.andExpect(matcher);
+                }
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                if (securityContext != null) {
+                    SecurityContextPropagation.clear();
+                }
+            }
+            return new Result(scenarioCase.getName(), System.nanoTime() - start, failure);
+        }
+    }
+
+    /**
+     * Isolates the references to Spring Security Test, which is optional.
+     */
+    private static class SecurityContextPropagation {
+
+        static Object capture() {
+            return org.springframework.security.test.context.TestSecurityContextHolder.getContext();
+        }
+
+        static void restore(Object context) {
+            org.springframework.security.test.context.TestSecurityContextHolder.setContext(
+                    (org.springframework.security.core.context.SecurityContext) context);
+        }
+
+        static void clear() {
+            org.springframework.security.test.context.TestSecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Isolates the references to Spring transactions, which are optional.
+     */
+    private static class TransactionCheck {
+
+        static boolean isActive() {
+            return org.springframework.transaction.support.TransactionSynchronizationManager
+                    .isActualTransactionActive();
+        }
+    }
+
+    private static final class Result {
+
+        private final String name;
+        private final long durationNanos;
+        private final Throwable failure;
+
+        private Result(String name, long durationNanos, Throwable failure) {
+            this.name = name;
+            this.durationNanos = durationNanos;
+            this.failure = failure;
+        }
+    }
+}
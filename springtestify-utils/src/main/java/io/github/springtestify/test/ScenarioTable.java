@@ -0,0 +1,218 @@
+package io.github.springtestify.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.springtestify.annotation.TestEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A table of scenarios, each a request and the expectations on its response, run by a {@link ScenarioRunner}.
+ * <p>
+ * A table is read from the scenarios of an entity's {@link TestEntity} annotation, each sent as the body of
+ * the table's action, or from a JSON resource listing the cases:
+ *
+ * <pre>
+ * [
+ *   {
+ *     "name": "creates a user",
+ *     "method": "POST",
+ *     "path": "/api/users",
+ *     "scenario": "valid",
+ *     "params": {"notify": "false"},
+ *     "headers": {"X-Tenant": "acme"},
+ *     "expect": {"status": 201, "jsonPath": {"$.name": "John"}, "exists": ["$.id"], "notExists": ["$.password"]}
+ *   },
+ *   {
+ *     "name": "rejects an empty name",
+ *     "body": {"name": ""},
+ *     "expect": {"status": 400}
+ *   }
+ * ]
+ * </pre>
+ * <p>
+ * A case sends either the entity built from a named {@code scenario} of the entity class, or a literal
+ * {@code body}. Its method, path and status default to those of the table.
+ */
+public final class ScenarioTable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final List<ScenarioCase> cases;
+    private HttpMethod defaultMethod = HttpMethod.POST;
+    private String defaultPath;
+    private Integer defaultStatus;
+
+    private ScenarioTable(List<ScenarioCase> cases) {
+        this.cases = Collections.unmodifiableList(cases);
+    }
+
+    /**
+     * Creates a table with one case per scenario of an entity's {@link TestEntity} annotation.
+     *
+     * @param entityClass the entity class
+     * @return the table
+     */
+    public static ScenarioTable fromEntity(Class<?> entityClass) {
+        TestEntity testEntity = entityClass.getAnnotation(TestEntity.class);
+        if (testEntity == null) {
+            throw new IllegalArgumentException("No @TestEntity annotation found on " + entityClass.getName());
+        }
+
+        List<ScenarioCase> cases = new ArrayList<>();
+        for (TestEntity.Scenario scenario : testEntity.scenarios()) {
+            cases.add(new ScenarioCase(scenario.name(), null, null, template(entityClass, scenario.name()),
+                    Collections.emptyMap(), Collections.emptyMap(), null, Collections.emptyMap(),
+                    Collections.emptyList(), Collections.emptyList()));
+        }
+        return new ScenarioTable(cases);
+    }
+
+    /**
+     * Creates a table from a JSON resource of the classpath, whose cases send literal bodies.
+     *
+     * @param resource the resource path, such as {@code scenarios/users.json}
+     * @return the table
+     */
+    public static ScenarioTable fromResource(String resource) {
+        return fromResource(resource, null);
+    }
+
+    /**
+     * Creates a table from a JSON resource of the classpath, whose cases may send entities built from
+     * the scenarios of an entity class.
+     *
+     * @param resource the resource path, such as {@code scenarios/users.json}
+     * @param entityClass the entity class of the named scenarios, or null
+     * @return the table
+     */
+    public static ScenarioTable fromResource(String resource, Class<?> entityClass) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try (InputStream input = classLoader.getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Scenario table not found on the classpath: " + resource);
+            }
+            JsonNode root = OBJECT_MAPPER.readTree(input);
+            if (!root.isArray()) {
+                throw new IllegalArgumentException("Scenario table " + resource + " must be a JSON array");
+            }
+
+            List<ScenarioCase> cases = new ArrayList<>();
+            for (JsonNode node : root) {
+                cases.add(parseCase(node, entityClass, resource + "[" + cases.size() + "]"));
+            }
+            return new ScenarioTable(cases);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read scenario table " + resource, e);
+        }
+    }
+
+    /**
+     * Sets the method and path of the cases that do not specify theirs.
+     *
+     * @param method the HTTP method, POST by default
+     * @param path the path, the base path of the test by default
+     * @return this table, for method chaining
+     */
+    public ScenarioTable action(HttpMethod method, String path) {
+        this.defaultMethod = method;
+        this.defaultPath = path;
+        return this;
+    }
+
+    /**
+     * Sets the status expected for the cases that do not specify theirs.
+     *
+     * @param status the expected status
+     * @return this table, for method chaining
+     */
+    public ScenarioTable expectStatus(HttpStatus status) {
+        this.defaultStatus = status.value();
+        return this;
+    }
+
+    public List<ScenarioCase> getCases() {
+        return cases;
+    }
+
+    HttpMethod getDefaultMethod() {
+        return defaultMethod;
+    }
+
+    String getDefaultPath() {
+        return defaultPath;
+    }
+
+    Integer getDefaultStatus() {
+        return defaultStatus;
+    }
+
+    private static ScenarioCase parseCase(JsonNode node, Class<?> entityClass, String location) {
+        String name = node.path("name").asText(location);
+
+        Supplier<?> body = null;
+        if (node.hasNonNull("scenario")) {
+            if (entityClass == null) {
+                throw new IllegalArgumentException(location + " names a scenario but no entity class was given");
+            }
+            body = template(entityClass, node.get("scenario").asText());
+        } else if (node.has("body")) {
+            JsonNode literal = node.get("body");
+            body = () -> literal;
+        }
+
+        JsonNode expect = node.path("expect");
+        Map<String, Object> jsonPathValues = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> values = expect.path("jsonPath").fields();
+        while (values.hasNext()) {
+            Map.Entry<String, JsonNode> value = values.next();
+            jsonPathValues.put(value.getKey(), OBJECT_MAPPER.convertValue(value.getValue(), Object.class));
+        }
+
+        HttpMethod method = null;
+        if (node.hasNonNull("method")) {
+            method = HttpMethod.resolve(node.get("method").asText().toUpperCase());
+            if (method == null) {
+                throw new IllegalArgumentException(location + " has an unknown method: " + node.get("method"));
+            }
+        }
+
+        return new ScenarioCase(name, method,
+                node.hasNonNull("path") ? node.get("path").asText() : null,
+                body,
+                toStringMap(node.path("params")),
+                toStringMap(node.path("headers")),
+                expect.hasNonNull("status") ? expect.get("status").asInt() : null,
+                jsonPathValues,
+                toStringList(expect.path("exists")),
+                toStringList(expect.path("notExists")));
+    }
+
+    private static Supplier<?> template(Class<?> entityClass, String scenario) {
+        TestEntityBuilder<?> template = new TestEntityBuilder<>(entityClass).withScenario(scenario);
+        return template::build;
+    }
+
+    private static Map<String, String> toStringMap(JsonNode node) {
+        Map<String, String> map = new LinkedHashMap<>();
+        node.fields().forEachRemaining(entry -> map.put(entry.getKey(), entry.getValue().asText()));
+        return map;
+    }
+
+    private static List<String> toStringList(JsonNode node) {
+        List<String> list = new ArrayList<>();
+        node.forEach(element -> list.add(element.asText()));
+        return list;
+    }
+}
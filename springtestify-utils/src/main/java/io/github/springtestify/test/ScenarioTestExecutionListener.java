@@ -2,6 +2,8 @@ package io.github.springtestify.test;
 
 import io.github.springtestify.annotation.ScenarioAction;
 import io.github.springtestify.annotation.TestScenario;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.InvocationInterceptor;
 import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
@@ -11,9 +13,27 @@ import java.lang.reflect.Method;
 
 /**
  * JUnit extension that handles scenario test execution.
- * Automatically executes tests based on annotations.
+ * Automatically executes tests based on annotations, and exposes the running test method to
+ * {@link AbstractScenarioTest} from the {@link ExtensionContext}.
  */
-public class ScenarioTestExecutionListener implements TestInstancePostProcessor, InvocationInterceptor {
+public class ScenarioTestExecutionListener implements TestInstancePostProcessor, InvocationInterceptor,
+        BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        Object testInstance = context.getRequiredTestInstance();
+        if (testInstance instanceof AbstractScenarioTest) {
+            ((AbstractScenarioTest<?>) testInstance).setCurrentTestMethod(context.getRequiredTestMethod());
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Object testInstance = context.getRequiredTestInstance();
+        if (testInstance instanceof AbstractScenarioTest) {
+            ((AbstractScenarioTest<?>) testInstance).setCurrentTestMethod(null);
+        }
+    }
 
     @Override
     public void interceptTestMethod(Invocation<Void> invocation,
@@ -25,6 +45,8 @@ public class ScenarioTestExecutionListener implements TestInstancePostProcessor,
         if (method.isAnnotationPresent(TestScenario.class) && method.isAnnotationPresent(ScenarioAction.class)) {
             if (testInstance instanceof AbstractScenarioTest) {
                 ((AbstractScenarioTest<?>) testInstance).executeScenario(method);
+                // The scenario replaces the method body, which JUnit requires to be explicitly skipped
+                invocation.skip();
             } else {
                 throw new IllegalStateException("Test class must extend AbstractScenarioTest");
             }
@@ -0,0 +1,147 @@
+package io.github.springtestify.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.springtestify.annotation.Expect;
+import io.github.springtestify.annotation.ScenarioAction;
+import io.github.springtestify.annotation.TestScenario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScenarioPlanTest extends AbstractScenarioTest<User> {
+
+    ScenarioPlanTest() {
+        super(User.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController()).build();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Override
+    protected String getBasePath() {
+        return "/api/users";
+    }
+
+    @Test
+    @TestScenario(value = "valid", expect = @Expect(status = HttpStatus.CREATED, jsonPath = "$.name", value = "John",
+        exists = "$.id", notExists = "$.tenant"))
+    @ScenarioAction(params = @ScenarioAction.RequestParam(name = "notify", value = "false"))
+    void createsUser() {
+        // Executed from its annotations
+    }
+
+    @Test
+    @TestScenario(value = "unnamed", expect = @Expect(status = HttpStatus.BAD_REQUEST, error = "Name is required"))
+    @ScenarioAction
+    void rejectsUnnamedUser() {
+        // Executed from its annotations
+    }
+
+    @Test
+    @TestScenario(value = "valid", expect = @Expect(notNull = "$.name"))
+    @ScenarioAction(method = HttpMethod.GET, path = "/api/users/7")
+    void readsUser() {
+        // Executed from its annotations
+    }
+
+    @Test
+    void shouldCompileEachMethodOnce() throws Exception {
+        // given
+        Method method = ScenarioPlanTest.class.getDeclaredMethod("createsUser");
+
+        // when
+        ScenarioPlan.Step step = ScenarioPlan.of(this).step(method);
+
+        // then
+        assertThat(ScenarioPlan.of(new ScenarioPlanTest())).isSameAs(ScenarioPlan.of(this));
+        assertThat(ScenarioPlan.of(this).step(method)).isSameAs(step);
+        assertThat(step.isExecutable()).isTrue();
+        assertThat(step.expectations()).hasSize(4);
+    }
+
+    @Test
+    void shouldBuildNewRequestFromStep() throws Exception {
+        // given
+        ScenarioPlan.Step step = ScenarioPlan.of(this).step(ScenarioPlanTest.class.getDeclaredMethod("createsUser"));
+
+        // when
+        MockHttpServletRequest first = step.newRequest(objectMapper).buildRequest(new MockServletContext());
+        MockHttpServletRequest second = step.newRequest(objectMapper).buildRequest(new MockServletContext());
+
+        // then
+        assertThat(first.getMethod()).isEqualTo("POST");
+        assertThat(first.getRequestURI()).isEqualTo("/api/users");
+        assertThat(first.getParameter("notify")).isEqualTo("false");
+        assertThat(first.getContentType()).isEqualTo("application/json");
+        assertThat(new String(first.getContentAsByteArray(), StandardCharsets.UTF_8))
+            .isEqualTo("{\"id\":1,\"name\":\"John\"}");
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+    }
+
+    @Test
+    void shouldSendNoBodyForGet() throws Exception {
+        // given
+        ScenarioPlan.Step step = ScenarioPlan.of(this).step(ScenarioPlanTest.class.getDeclaredMethod("readsUser"));
+
+        // when
+        MockHttpServletRequest request = step.newRequest(objectMapper).buildRequest(new MockServletContext());
+
+        // then
+        assertThat(request.getMethod()).isEqualTo("GET");
+        assertThat(request.getRequestURI()).isEqualTo("/api/users/7");
+        assertThat(request.getContentLength()).isEqualTo(-1);
+    }
+
+    @Test
+    @TestScenario("valid")
+    void shouldNotExecuteMethodWithoutAction() {
+        // when
+        ScenarioPlan.Step step = ScenarioPlan.of(this).step(getCurrentTestMethod());
+
+        // then
+        assertThat(step.isExecutable()).isFalse();
+        assertThatThrownBy(() -> executeScenario(getCurrentTestMethod()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Both @TestScenario and @ScenarioAction annotations are required");
+    }
+
+    @Test
+    void shouldRejectMethodWithoutScenario() {
+        // when / then
+        assertThatThrownBy(() -> ScenarioPlan.of(this).step(getCurrentTestMethod()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("No @TestScenario annotation found on method: shouldRejectMethodWithoutScenario");
+    }
+
+    @Test
+    void shouldRejectUnsupportedMethod() throws Exception {
+        // given
+        Method method = Fixtures.class.getDeclaredMethod("head");
+
+        // when / then
+        assertThatThrownBy(() -> ScenarioPlan.of(this).step(method))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unsupported HTTP method: HEAD");
+    }
+
+    static class Fixtures {
+
+        @TestScenario("valid")
+        @ScenarioAction(method = HttpMethod.HEAD)
+        void head() {
+        }
+    }
+}
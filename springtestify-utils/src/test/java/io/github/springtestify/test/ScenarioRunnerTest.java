@@ -0,0 +1,129 @@
+package io.github.springtestify.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScenarioRunnerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestSecurityContextHolder.clearContext();
+        System.clearProperty(ScenarioRunner.REPORT_DIRECTORY_PROPERTY);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> userCatalogue() {
+        return new ScenarioRunner(mockMvc, new ObjectMapper())
+            .basePath("/api/users")
+            .concurrency(2)
+            .run(ScenarioTable.fromResource("scenarios/users.json", User.class));
+    }
+
+    @Test
+    void shouldReportEachCaseAndWriteTimings(@TempDir Path reports) throws Exception {
+        // given
+        System.setProperty(ScenarioRunner.REPORT_DIRECTORY_PROPERTY, reports.toString());
+        ScenarioTable table = ScenarioTable.fromEntity(User.class)
+            .action(HttpMethod.POST, "/api/users")
+            .expectStatus(HttpStatus.CREATED);
+
+        // when
+        Map<String, Throwable> failures = execute(new ScenarioRunner(mockMvc, new ObjectMapper())
+            .reportName("users")
+            .run(table));
+
+        // then
+        assertThat(failures).containsOnlyKeys("valid", "unnamed");
+        assertThat(failures.get("valid")).isNull();
+        assertThat(failures.get("unnamed"))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("Response status expected:<201> but was:<400>");
+
+        String report = new String(Files.readAllBytes(reports.resolve("users.md")), StandardCharsets.UTF_8);
+        assertThat(report).startsWith("| Scenario | Result | Time (ms) |")
+            .containsPattern("\\| valid \\| passed \\| [0-9.,]+ \\|")
+            .containsPattern("\\| unnamed \\| FAILED \\| [0-9.,]+ \\|");
+    }
+
+    @Test
+    void shouldRunCasesWithTestSecurityContext() throws Exception {
+        // given
+        TestSecurityContextHolder.setAuthentication(new UsernamePasswordAuthenticationToken("john", "secret"));
+
+        // when
+        Map<String, Throwable> failures = execute(new ScenarioRunner(mockMvc, new ObjectMapper())
+            .run(ScenarioTable.fromResource("scenarios/current-user.json")));
+
+        // then
+        assertThat(failures).containsOnlyKeys("reads the current user").containsValue(null);
+    }
+
+    @Test
+    void shouldRejectRunWithinTransaction() {
+        // given
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        try {
+            // when / then
+            assertThatThrownBy(() -> new ScenarioRunner(mockMvc, new ObjectMapper())
+                .run(ScenarioTable.fromEntity(User.class)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Scenario cases run on worker threads, outside the test transaction");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidConcurrency() {
+        // when / then
+        assertThatThrownBy(() -> new ScenarioRunner(mockMvc, new ObjectMapper()).concurrency(0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Concurrency must be at least 1: 0");
+    }
+
+    private static Map<String, Throwable> execute(Stream<DynamicTest> tests) throws InterruptedException {
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        for (DynamicTest test : tests.collect(Collectors.toList())) {
+            try {
+                test.getExecutable().execute();
+                failures.put(test.getDisplayName(), null);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Throwable e) {
+                failures.put(test.getDisplayName(), e);
+            }
+        }
+        return failures;
+    }
+}
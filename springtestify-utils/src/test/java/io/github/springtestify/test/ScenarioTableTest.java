@@ -0,0 +1,105 @@
+package io.github.springtestify.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScenarioTableTest {
+
+    @Test
+    void shouldReadCasesFromResource() {
+        // when
+        ScenarioTable table = ScenarioTable.fromResource("scenarios/users.json", User.class);
+        List<ScenarioCase> cases = table.getCases();
+
+        // then
+        assertThat(cases).extracting(ScenarioCase::getName)
+            .containsExactly("creates a user", "rejects an empty name", "reads a user", "scenarios/users.json[3]");
+
+        ScenarioCase create = cases.get(0);
+        assertThat(create.getMethod()).isNull();
+        assertThat(create.getPath()).isNull();
+        assertThat(create.getBody().get()).isInstanceOf(User.class)
+            .extracting("name").isEqualTo("John");
+        assertThat(create.getParams()).containsEntry("notify", "false");
+        assertThat(create.getHeaders()).containsEntry("X-Tenant", "acme");
+        assertThat(create.getStatus()).isEqualTo(201);
+        assertThat(create.getJsonPathValues()).containsEntry("$.name", "John").containsEntry("$.notify", false);
+        assertThat(create.getExists()).containsExactly("$.id");
+        assertThat(create.getNotExists()).containsExactly("$.password");
+
+        assertThat(cases.get(1).getBody().get()).isInstanceOf(JsonNode.class).hasToString("{\"name\":\"\"}");
+        assertThat(cases.get(2).getMethod()).isEqualTo(HttpMethod.GET);
+        assertThat(cases.get(2).getPath()).isEqualTo("/api/users/7");
+        assertThat(cases.get(2).getBody()).isNull();
+        assertThat(cases.get(3).getMethod()).isEqualTo(HttpMethod.DELETE);
+    }
+
+    @Test
+    void shouldBuildNewEntityForEachCaseRun() {
+        // given
+        ScenarioCase create = ScenarioTable.fromResource("scenarios/users.json", User.class).getCases().get(0);
+
+        // when
+        Object first = create.getBody().get();
+        Object second = create.getBody().get();
+
+        // then
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void shouldCreateCasePerEntityScenario() {
+        // when
+        ScenarioTable table = ScenarioTable.fromEntity(User.class)
+            .action(HttpMethod.PUT, "/api/users/1")
+            .expectStatus(HttpStatus.OK);
+
+        // then
+        assertThat(table.getCases()).extracting(ScenarioCase::getName).containsExactlyInAnyOrder("valid", "unnamed");
+        assertThat(table.getDefaultMethod()).isEqualTo(HttpMethod.PUT);
+        assertThat(table.getDefaultPath()).isEqualTo("/api/users/1");
+        assertThat(table.getDefaultStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRejectEntityWithoutScenarios() {
+        // when / then
+        assertThatThrownBy(() -> ScenarioTable.fromEntity(String.class))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("No @TestEntity annotation found on java.lang.String");
+    }
+
+    @Test
+    void shouldRejectNamedScenarioWithoutEntityClass() {
+        // when / then
+        assertThatThrownBy(() -> ScenarioTable.fromResource("scenarios/users.json"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("scenarios/users.json[0] names a scenario but no entity class was given");
+    }
+
+    @Test
+    void shouldRejectUnknownMethod() {
+        // when / then
+        assertThatThrownBy(() -> ScenarioTable.fromResource("scenarios/unknown-method.json"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("scenarios/unknown-method.json[0] has an unknown method: \"FETCH\"");
+    }
+
+    @Test
+    void shouldRejectInvalidResources() {
+        // when / then
+        assertThatThrownBy(() -> ScenarioTable.fromResource("scenarios/missing.json"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Scenario table not found on the classpath: scenarios/missing.json");
+        assertThatThrownBy(() -> ScenarioTable.fromResource("scenarios/object.json"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Scenario table scenarios/object.json must be a JSON array");
+    }
+}
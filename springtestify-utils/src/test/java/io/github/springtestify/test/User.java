@@ -0,0 +1,29 @@
+package io.github.springtestify.test;
+
+import io.github.springtestify.annotation.TestEntity;
+
+@TestEntity(scenarios = {
+    @TestEntity.Scenario(name = "valid", values = @TestEntity.FieldValue(field = "name", value = "John")),
+    @TestEntity.Scenario(name = "unnamed", values = @TestEntity.FieldValue(field = "name", value = ""))
+})
+class User {
+
+    private Long id;
+    private String name;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
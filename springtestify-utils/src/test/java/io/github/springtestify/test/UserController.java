@@ -0,0 +1,60 @@
+package io.github.springtestify.test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users")
+class UserController {
+
+    @PostMapping
+    ResponseEntity<Map<String, Object>> create(@RequestBody User user,
+                                               @RequestParam(defaultValue = "true") boolean notify,
+                                               @RequestHeader(name = "X-Tenant", required = false) String tenant) {
+        if (user.getName() == null || user.getName().isEmpty()) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", "Name is required"));
+        }
+        Map<String, Object> created = new LinkedHashMap<>();
+        created.put("id", 42);
+        created.put("name", user.getName());
+        created.put("notify", notify);
+        if (tenant != null) {
+            created.put("tenant", tenant);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @GetMapping("/{id}")
+    Map<String, Object> get(@PathVariable long id) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", id);
+        user.put("name", "John");
+        return user;
+    }
+
+    @GetMapping("/me")
+    Map<String, Object> me() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return Collections.singletonMap("name", authentication == null ? null : authentication.getName());
+    }
+
+    @DeleteMapping("/{id}")
+    ResponseEntity<Void> delete(@PathVariable long id) {
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.springtestify.web.config;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A bean scope exposing values bound to the thread running a test.
+ * <p>
+ * A test execution listener binds the values of the current test class before its instance is
+ * prepared, and the scoped beans resolve to them. Test methods running in parallel on one context
+ * therefore each see their own values, and the bean definitions are only registered once per
+ * context instead of destroying and registering singletons for every method.
+ * <p>
+ * The values are resolved when they are injected. Types such as {@code String} or
+ * {@code MockMvc} are final and cannot be wrapped in a scoped proxy, so a scoped bean must be
+ * injected into the test instance, not into a singleton.
+ * <p>
+ * The scoped beans are primary, so that injecting them by type still works when the context
+ * defines a bean of the same type, such as the request builder of {@link WebTestConfig}.
+ */
+public class TestScope implements Scope {
+
+    /**
+     * The name of the scope.
+     */
+    public static final String SCOPE_NAME = "springTestifyTest";
+
+    private static final ThreadLocal<Map<String, Object>> VALUES = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Registers the scope and a primary, scoped bean definition for each name, unless already done.
+     *
+     * @param beanFactory the bean factory of the test context
+     * @param beans the bean names and types
+     */
+    public static void register(ConfigurableListableBeanFactory beanFactory, Map<String, Class<?>> beans) {
+        synchronized (beanFactory) {
+            if (beanFactory.getRegisteredScope(SCOPE_NAME) == null) {
+                beanFactory.registerScope(SCOPE_NAME, new TestScope());
+            }
+            if (!(beanFactory instanceof BeanDefinitionRegistry)) {
+                return;
+            }
+
+            BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+            beans.forEach((name, type) -> {
+                if (!registry.containsBeanDefinition(name)) {
+                    RootBeanDefinition definition = new RootBeanDefinition(type);
+                    definition.setScope(SCOPE_NAME);
+                    definition.setPrimary(true);
+                    registry.registerBeanDefinition(name, definition);
+                }
+            });
+        }
+    }
+
+    /**
+     * Binds a value to the current thread.
+     *
+     * @param name the bean name
+     * @param value the value
+     */
+    public static void bind(String name, Object value) {
+        VALUES.get().put(name, value);
+    }
+
+    /**
+     * Removes the values bound to the current thread.
+     */
+    public static void clear() {
+        VALUES.remove();
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        Object value = VALUES.get().get(name);
+        if (value == null) {
+            throw new IllegalStateException("No value bound for '" + name + "' on this thread; is the test class "
+                    + "annotated with @ControllerTest?");
+        }
+        return value;
+    }
+
+    @Override
+    public Object remove(String name) {
+        return VALUES.get().remove(name);
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        // Values are owned by the test, nothing to destroy
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return Thread.currentThread().getName();
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.springtestify.web.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.springtestify.web.util.ApiRequestBuilder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,14 +20,23 @@ import org.springframework.context.annotation.Configuration;
 public class WebTestConfig {
 
     /**
-     * Creates an {@link ApiRequestBuilder} instance configured with the base path.
+     * Creates an {@link ApiRequestBuilder} instance configured with the base path
+     * and the object mapper of the application.
+     * <p>
+     * In controller tests, the request builder of the test class is a primary bean
+     * of the {@link TestScope} and is injected by type instead of this one.
      *
      * @param springTestifyBasePath the base path for API requests, injected from
-     *                              the test context
+     *                              the test context, which defines none outside of
+     *                              controller tests
+     * @param objectMapper the object mapper of the application, if any
      * @return configured {@link ApiRequestBuilder} instance
      */
     @Bean
-    public ApiRequestBuilder apiRequestBuilder(@Qualifier("springTestifyBasePath") String springTestifyBasePath) {
-        return new ApiRequestBuilder(springTestifyBasePath);
+    public ApiRequestBuilder apiRequestBuilder(
+            @Qualifier("springTestifyBasePath") ObjectProvider<String> springTestifyBasePath,
+            ObjectProvider<ObjectMapper> objectMapper) {
+        return new ApiRequestBuilder(springTestifyBasePath.getIfAvailable(() -> ""),
+                objectMapper.getIfAvailable(ObjectMapper::new));
     }
 }
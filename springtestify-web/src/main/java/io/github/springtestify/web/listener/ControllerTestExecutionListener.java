@@ -1,14 +1,23 @@
 package io.github.springtestify.web.listener;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.springtestify.core.annotation.ControllerTest;
-import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import io.github.springtestify.web.config.TestScope;
+import io.github.springtestify.web.util.ApiRequestBuilder;
+import io.github.springtestify.web.util.MockMvcCache;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.test.context.TestContext;
 import org.springframework.test.context.support.AbstractTestExecutionListener;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcConfigurer;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Test execution listener that configures the test environment based on the
  * {@link ControllerTest} annotation.
@@ -16,8 +25,12 @@ import org.springframework.web.context.WebApplicationContext;
  * This listener:
  * <ul>
  * <li>Sets up the {@link MockMvc} instance with the proper configuration based
- * on annotation settings</li>
- * <li>Registers request path information for use in tests</li>
+ * on annotation settings, reusing the one of an earlier test class with the same
+ * context and settings through the {@link MockMvcCache}</li>
+ * <li>Exposes the base path, MockMvc and an {@link ApiRequestBuilder} using the
+ * application's object mapper as the {@code springTestifyBasePath},
+ * {@code springTestifyMockMvc} and {@code springTestifyRequestBuilder} beans of
+ * the {@link TestScope}, bound to the thread running each test so that test methods can run in parallel on one context</li>
  * <li>Configures security if specified in the annotation</li>
  * </ul>
  */
@@ -25,6 +38,10 @@ public class ControllerTestExecutionListener extends AbstractTestExecutionListen
 
     private static final String BASE_PATH_ATTRIBUTE = "io.github.springtestify.basePath";
     private static final String MOCK_MVC_ATTRIBUTE = "io.github.springtestify.mockMvc";
+    private static final String REQUEST_BUILDER_ATTRIBUTE = "io.github.springtestify.requestBuilder";
+    private static final String BASE_PATH_BEAN = "springTestifyBasePath";
+    private static final String MOCK_MVC_BEAN = "springTestifyMockMvc";
+    private static final String REQUEST_BUILDER_BEAN = "springTestifyRequestBuilder";
 
     @Override
     public void beforeTestClass(TestContext testContext) {
@@ -37,58 +54,81 @@ public class ControllerTestExecutionListener extends AbstractTestExecutionListen
             // Store the base path for later use
             testContext.setAttribute(BASE_PATH_ATTRIBUTE, basePath);
 
+            // Built once per test class, with the object mapper of the application
+            ObjectMapper objectMapper = testContext.getApplicationContext().getBeanProvider(ObjectMapper.class)
+                    .getIfAvailable(ObjectMapper::new);
+            testContext.setAttribute(REQUEST_BUILDER_ATTRIBUTE, new ApiRequestBuilder(basePath, objectMapper));
+
+            // Registered once per context, the beans resolve to the values bound to the running test
+            if (testContext.getApplicationContext() instanceof ConfigurableApplicationContext) {
+                Map<String, Class<?>> beans = new LinkedHashMap<>();
+                beans.put(BASE_PATH_BEAN, String.class);
+                beans.put(MOCK_MVC_BEAN, MockMvc.class);
+                beans.put(REQUEST_BUILDER_BEAN, ApiRequestBuilder.class);
+                TestScope.register(((ConfigurableApplicationContext) testContext.getApplicationContext())
+                        .getBeanFactory(), beans);
+            }
+
             // Configure MockMvc if not already done
             if (testContext.getApplicationContext() instanceof WebApplicationContext) {
                 WebApplicationContext webContext = (WebApplicationContext) testContext.getApplicationContext();
                 if (!testContext.hasAttribute(MOCK_MVC_ATTRIBUTE)) {
-                    MockMvc mockMvc;
+                    List<MockMvcConfigurer> configurers = new ArrayList<>();
 
                     if (annotation.withSecurity()) {
                         try {
                             Class.forName(
                                     "org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers");
-                            mockMvc = MockMvcBuilders.webAppContextSetup(webContext)
-                                    .apply(org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers
-                                            .springSecurity())
-                                    .build();
+                            configurers.add(org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers
+                                    .springSecurity());
                         } catch (ClassNotFoundException e) {
                             // Spring Security Test is not on the classpath, proceed without security
-                            mockMvc = MockMvcBuilders.webAppContextSetup(webContext).build();
                         }
-                    } else {
-                        mockMvc = MockMvcBuilders.webAppContextSetup(webContext).build();
                     }
 
+                    // Built once per context and configuration, shared by the test classes using them
+                    MockMvc mockMvc = MockMvcCache.forContext(webContext).get(configurers);
                     testContext.setAttribute(MOCK_MVC_ATTRIBUTE, mockMvc);
                 }
             }
         }
     }
 
+    @Override
+    public void prepareTestInstance(TestContext testContext) {
+        // Bound before dependency injection, so that the test instance can autowire the values
+        bindValues(testContext);
+    }
+
     @Override
     public void beforeTestMethod(TestContext testContext) {
-        // Ensure attributes are available to the test method
-        String basePath = (String) testContext.getAttribute(BASE_PATH_ATTRIBUTE);
-        MockMvc mockMvc = (MockMvc) testContext.getAttribute(MOCK_MVC_ATTRIBUTE);
+        // Bound again on the thread running the method, which may differ from the one preparing the instance
+        bindValues(testContext);
+    }
 
-        if (basePath != null || mockMvc != null) {
-            DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) testContext.getApplicationContext()
-                    .getAutowireCapableBeanFactory();
+    @Override
+    public void afterTestMethod(TestContext testContext) {
+        TestScope.clear();
+    }
 
-            if (basePath != null) {
-                beanFactory.destroySingleton("springTestifyBasePath");
-                beanFactory.registerSingleton("springTestifyBasePath", basePath);
-            }
+    private void bindValues(TestContext testContext) {
+        String basePath = (String) testContext.getAttribute(BASE_PATH_ATTRIBUTE);
+        MockMvc mockMvc = (MockMvc) testContext.getAttribute(MOCK_MVC_ATTRIBUTE);
+        ApiRequestBuilder requestBuilder = (ApiRequestBuilder) testContext.getAttribute(REQUEST_BUILDER_ATTRIBUTE);
 
-            if (mockMvc != null) {
-                beanFactory.destroySingleton("springTestifyMockMvc");
-                beanFactory.registerSingleton("springTestifyMockMvc", mockMvc);
-            }
+        if (basePath != null) {
+            TestScope.bind(BASE_PATH_BEAN, basePath);
+        }
+        if (requestBuilder != null) {
+            TestScope.bind(REQUEST_BUILDER_BEAN, requestBuilder);
+        }
+        if (mockMvc != null) {
+            TestScope.bind(MOCK_MVC_BEAN, mockMvc);
         }
     }
 
     @Override
     public int getOrder() {
-        return 2000; // Run after the standard Spring test listeners
+        return 1900; // Run before the DependencyInjectionTestExecutionListener
     }
 }
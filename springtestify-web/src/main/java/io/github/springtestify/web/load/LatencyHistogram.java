@@ -0,0 +1,154 @@
+package io.github.springtestify.web.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A histogram of latencies with a bounded relative error, in the manner of HdrHistogram.
+ * <p>
+ * Values below 128 nanoseconds are counted exactly. Above, each power of two is split into 128
+ * linear sub-buckets, so a recorded value is known within 1/128 (under 0.8%) of itself, whatever
+ * its magnitude, with a fixed number of counters. Recording is a few shifts and an array
+ * increment, without allocation.
+ * <p>
+ * A histogram is not thread-safe: each load worker records into its own, and they are merged once
+ * the run is over.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = 64 - SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[SUB_BUCKET_COUNT * BUCKET_COUNT];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private long sum;
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds, negative values being counted as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values recorded by another histogram to this one.
+     *
+     * @param other the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of values
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return the value in nanoseconds, 0 if none was recorded
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the value in nanoseconds, 0 if none was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean in nanoseconds, 0 if none was recorded
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Returns the value below or at which a percentage of the recorded values fall.
+     * <p>
+     * The value is the highest one equivalent to the matching counter, capped by the largest recorded
+     * value, so the percentile is never under-estimated.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value in nanoseconds, 0 if none was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long cumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulated += counts[i];
+            if (cumulated >= target) {
+                return Math.min(highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Describes the distribution in milliseconds.
+     *
+     * @return the description
+     */
+    public String summary() {
+        return String.format("count=%d min=%.3fms p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms mean=%.3fms",
+                totalCount, toMillis(getMin()), toMillis(getValueAtPercentile(50)),
+                toMillis(getValueAtPercentile(99)), toMillis(getValueAtPercentile(99.9)), toMillis(max),
+                getMean() / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT * (exponent - SUB_BUCKET_BITS + 1) + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
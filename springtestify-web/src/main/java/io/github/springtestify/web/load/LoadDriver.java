@@ -0,0 +1,300 @@
+package io.github.springtestify.web.load;
+
+import io.github.springtestify.web.loopback.LoopbackClient;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives concurrent load against a controller through {@link MockMvc}, or over real HTTP through a
+ * {@link LoopbackClient}, and measures the latencies.
+ * <p>
+ * Requests are fired by a number of workers, running on virtual threads when the JVM provides them
+ * (JDK 21 and later) and on a fixed pool of platform threads otherwise. Two modes are supported:
+ * <ul>
+ * <li>Closed loop, the default: each worker sends its next request as soon as the previous one
+ * completed, measuring the capacity of the controller at that concurrency</li>
+ * <li>Target rate, with {@link #targetRate(double)}: requests are scheduled at a fixed rate and their
+ * latency is measured from their scheduled start, so that requests delayed by slow ones are not left
+ * out of the percentiles</li>
+ * </ul>
+ * <p>
+ * The test security context of the calling thread, set up by {@code @WithMockUser} for instance, is
+ * propagated to the workers when Spring Security Test is on the classpath.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * LoadDriver.with(mockMvc)
+ *         .request(() -&gt; requestBuilder.get("/1"))
+ *         .concurrency(16)
+ *         .warmupRequests(1_000)
+ *         .requests(100_000)
+ *         .run()
+ *         .assertNoErrors()
+ *         .assertPercentileBelow(99, Duration.ofMillis(20));
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final Log logger = LogFactory.getLog(LoadDriver.class);
+
+    private static final boolean SECURITY_PRESENT = ClassUtils.isPresent(
+            "org.springframework.security.test.context.TestSecurityContextHolder", LoadDriver.class.getClassLoader());
+
+    private final Target target;
+    private Supplier<? extends RequestBuilder> request;
+    private ResultMatcher expectation = MockMvcResultMatchers.status().is2xxSuccessful();
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+    private long warmupRequests;
+    private long requests = 1000;
+    private Duration duration;
+    private double targetRate;
+
+    private LoadDriver(Target target) {
+        this.target = target;
+    }
+
+    /**
+     * Creates a load driver sending requests to a MockMvc instance.
+     *
+     * @param mockMvc the MockMvc instance
+     * @return a new load driver
+     */
+    public static LoadDriver with(MockMvc mockMvc) {
+        return new LoadDriver(request -> mockMvc.perform(request).andReturn());
+    }
+
+    /**
+     * Creates a load driver sending requests over HTTP to a running application.
+     *
+     * @param client the loopback client
+     * @return a new load driver
+     */
+    public static LoadDriver with(LoopbackClient client) {
+        return new LoadDriver(request -> client.perform(request).andReturn());
+    }
+
+    /**
+     * Sets the request to send, created anew for each request.
+     *
+     * @param request the request factory, such as {@code () -> requestBuilder.get("/1")}
+     * @return this driver, for method chaining
+     */
+    public LoadDriver request(Supplier<? extends RequestBuilder> request) {
+        this.request = request;
+        return this;
+    }
+
+    /**
+     * Sets the expectation a response must meet not to be counted as an error, a 2xx status by default.
+     *
+     * @param expectation the result matcher
+     * @return this driver, for method chaining
+     */
+    public LoadDriver expect(ResultMatcher expectation) {
+        this.expectation = expectation;
+        return this;
+    }
+
+    /**
+     * Sets the number of concurrent workers, the number of processors by default.
+     *
+     * @param concurrency the number of workers
+     * @return this driver, for method chaining
+     */
+    public LoadDriver concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Sets the number of requests sent before measuring, to warm up the JIT and the caches.
+     *
+     * @param warmupRequests the number of warm-up requests
+     * @return this driver, for method chaining
+     */
+    public LoadDriver warmupRequests(long warmupRequests) {
+        this.warmupRequests = warmupRequests;
+        return this;
+    }
+
+    /**
+     * Sets the number of measured requests, 1000 by default.
+     *
+     * @param requests the number of requests
+     * @return this driver, for method chaining
+     */
+    public LoadDriver requests(long requests) {
+        this.requests = requests;
+        return this;
+    }
+
+    /**
+     * Limits the measured run to a duration, stopping before the number of requests is reached if needed.
+     *
+     * @param duration the maximum duration of the run
+     * @return this driver, for method chaining
+     */
+    public LoadDriver duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Schedules the requests at a fixed rate instead of running a closed loop.
+     *
+     * @param requestsPerSecond the target rate
+     * @return this driver, for method chaining
+     */
+    public LoadDriver targetRate(double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Target rate must be positive: " + requestsPerSecond);
+        }
+        this.targetRate = requestsPerSecond;
+        return this;
+    }
+
+    /**
+     * Runs the warm-up, then the measured load.
+     *
+     * @return the result of the measured run
+     */
+    public LoadResult run() {
+        if (request == null) {
+            throw new IllegalStateException("No request set, call request(...) first");
+        }
+
+        ExecutorService executor = newExecutor(concurrency);
+        try {
+            if (warmupRequests > 0) {
+                execute(executor, warmupRequests, null);
+            }
+            LoadResult result = execute(executor, requests, duration);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Load run with " + concurrency + " workers: " + result);
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LoadResult execute(ExecutorService executor, long count, Duration limit) {
+        long intervalNanos = targetRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / targetRate) : 0;
+        AtomicLong issued = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        Object securityContext = SECURITY_PRESENT ? SecurityContextPropagation.capture() : null;
+
+        long start = System.nanoTime();
+        long deadline = limit == null ? 0 : start + limit.toNanos();
+        List<Future<LatencyHistogram>> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(executor.submit(() -> {
+                if (securityContext != null) {
+                    SecurityContextPropagation.restore(securityContext);
+                }
+                LatencyHistogram histogram = new LatencyHistogram();
+                long index;
+                while ((index = issued.getAndIncrement()) < count) {
+                    long scheduled = intervalNanos > 0 ? start + index * intervalNanos : System.nanoTime();
+                    if (limit != null && (scheduled - deadline >= 0 || System.nanoTime() - deadline >= 0)) {
+                        break;
+                    }
+                    long wait;
+                    while ((wait = scheduled - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+
+                    try {
+                        MvcResult result = target.perform(request.get());
+                        expectation.match(result);
+                    } catch (Throwable e) {
+                        errors.incrementAndGet();
+                        firstError.compareAndSet(null, e);
+                    }
+                    histogram.record(System.nanoTime() - scheduled);
+                }
+                if (securityContext != null) {
+                    SecurityContextPropagation.clear();
+                }
+                return histogram;
+            }));
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (Future<LatencyHistogram> worker : workers) {
+            try {
+                histogram.add(worker.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the load workers", e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Load worker failed", e);
+            }
+        }
+        return new LoadResult(histogram, System.nanoTime() - start, errors.get(), firstError.get());
+    }
+
+    /**
+     * Creates a virtual thread per task executor when available, a fixed thread pool otherwise.
+     */
+    private static ExecutorService newExecutor(int concurrency) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Virtual threads are not available before JDK 21
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+
+    /**
+     * Where the requests are sent.
+     */
+    private interface Target {
+
+        MvcResult perform(RequestBuilder request) throws Exception;
+    }
+
+    /**
+     * Isolates the references to Spring Security Test, which is optional.
+     */
+    private static class SecurityContextPropagation {
+
+        static Object capture() {
+            return org.springframework.security.test.context.TestSecurityContextHolder.getContext();
+        }
+
+        static void restore(Object context) {
+            org.springframework.security.test.context.TestSecurityContextHolder.setContext(
+                    (org.springframework.security.core.context.SecurityContext) context);
+        }
+
+        static void clear() {
+            org.springframework.security.test.context.TestSecurityContextHolder.clearContext();
+        }
+    }
+}
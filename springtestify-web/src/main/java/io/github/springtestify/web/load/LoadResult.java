@@ -0,0 +1,135 @@
+package io.github.springtestify.web.load;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a {@link LoadDriver} run, with assertions that fail the test when the latencies or
+ * the throughput miss their targets.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * result.assertNoErrors()
+ *         .assertPercentileBelow(99, Duration.ofMillis(20))
+ *         .assertThroughputAtLeast(5_000);
+ * </pre>
+ */
+public class LoadResult {
+
+    private final LatencyHistogram histogram;
+    private final long elapsedNanos;
+    private final long errorCount;
+    private final Throwable firstError;
+
+    LoadResult(LatencyHistogram histogram, long elapsedNanos, long errorCount, Throwable firstError) {
+        this.histogram = histogram;
+        this.elapsedNanos = elapsedNanos;
+        this.errorCount = errorCount;
+        this.firstError = firstError;
+    }
+
+    /**
+     * Returns the latencies of all the measured requests, failed ones included.
+     *
+     * @return the latency histogram
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Returns the number of measured requests.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return histogram.getTotalCount();
+    }
+
+    /**
+     * Returns the number of requests that threw or failed the expectations of the driver.
+     *
+     * @return the number of failed requests
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the wall-clock duration of the measured run.
+     *
+     * @return the duration
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * Returns the number of requests completed per second.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : histogram.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Returns the latency at a percentile.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency
+     */
+    public Duration getPercentile(double percentile) {
+        return Duration.ofNanos(histogram.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * Asserts that no request failed.
+     *
+     * @return this instance, for method chaining
+     */
+    public LoadResult assertNoErrors() {
+        if (errorCount > 0) {
+            throw new AssertionError(errorCount + " of " + getRequestCount() + " requests failed, first with: "
+                    + firstError, firstError);
+        }
+        return this;
+    }
+
+    /**
+     * Asserts that the latency at a percentile is below a maximum.
+     *
+     * @param percentile the percentile, between 0 and 100, such as 99 or 99.9
+     * @param max the maximum latency
+     * @return this instance, for method chaining
+     */
+    public LoadResult assertPercentileBelow(double percentile, Duration max) {
+        long value = histogram.getValueAtPercentile(percentile);
+        if (value > max.toNanos()) {
+            throw new AssertionError(String.format("p%s latency %.3fms exceeds %dms (%s)",
+                    percentile, value / 1_000_000.0, max.toMillis(), this));
+        }
+        return this;
+    }
+
+    /**
+     * Asserts that the throughput reached a minimum.
+     *
+     * @param requestsPerSecond the minimum number of requests per second
+     * @return this instance, for method chaining
+     */
+    public LoadResult assertThroughputAtLeast(double requestsPerSecond) {
+        double throughput = getThroughput();
+        if (throughput < requestsPerSecond) {
+            throw new AssertionError(String.format("Throughput %.1f req/s is below %.1f req/s (%s)",
+                    throughput, requestsPerSecond, this));
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f req/s, %d errors, %s", getThroughput(), errorCount, histogram.summary());
+    }
+}
@@ -0,0 +1,529 @@
+package io.github.springtestify.web.loopback;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultHandler;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.SmartRequestBuilder;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.UriUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sends the requests of MockMvc request builders over real HTTP to the application running on a local port.
+ * <p>
+ * MockMvc calls the dispatcher servlet directly, leaving out the servlet container, the serialization of the
+ * messages on the wire, compression and connection handling. This client goes through all of them, so that
+ * throughput and latencies can be measured against the full stack of an application started with
+ * {@code @SpringBootTest(webEnvironment = RANDOM_PORT)}, or {@code @CrudControllerTest(webEnvironment =
+ * RANDOM_PORT)}, without any external service. {@code @ControllerTest} cannot be used, as it is a
+ * {@code @WebMvcTest}, which always runs in a mock servlet environment.
+ * <p>
+ * The client accepts the same request builders as {@link org.springframework.test.web.servlet.MockMvc},
+ * such as the ones of an {@link io.github.springtestify.web.util.ApiRequestBuilder}, and returns the response
+ * as {@link ResultActions}, so that result matchers, {@link io.github.springtestify.web.util.ApiAssertions}
+ * and the {@link io.github.springtestify.web.load.LoadDriver} work unchanged. Request post processors
+ * adding headers, such as {@code httpBasic(...)}, apply; the ones relying on mock request attributes, such as
+ * {@code user(...)} or {@code csrf()}, have no effect on the server.
+ * <p>
+ * Requests go through the {@code java.net.http.HttpClient} of JDK 11 and later, looked up reflectively since
+ * this library also runs on Java 8. Its HTTP/1.1 connections are kept alive and pooled without limit, so a load
+ * run reuses one connection per worker rather than measuring connection setup. The headers the client sets
+ * itself, such as {@code Connection} or {@code Expect}, are not sent.
+ * <p>
+ * On Java 8, requests go through {@link HttpURLConnection}, which does not support the PATCH method and keeps
+ * up to {@code http.maxConnections} idle connections per destination, 5 by default. Set that system property
+ * to at least the concurrency of a load run, on the command line of the test JVM.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * &#064;CrudControllerTest(path = "/api/users", webEnvironment = WebEnvironment.RANDOM_PORT)
+ * class UserThroughputTest {
+ *
+ *     &#064;LocalServerPort
+ *     int port;
+ *
+ *     &#064;Test
+ *     void sustainsLoad() {
+ *         ApiRequestBuilder requestBuilder = new ApiRequestBuilder("/api/users");
+ *         LoadDriver.with(LoopbackClient.to(port))
+ *                 .request(() -&gt; requestBuilder.get("/1"))
+ *                 .concurrency(4)
+ *                 .requests(10_000)
+ *                 .run()
+ *                 .assertNoErrors();
+ *     }
+ * }
+ * </pre>
+ */
+public class LoopbackClient {
+
+    private static final boolean HTTP_CLIENT_PRESENT = ClassUtils.isPresent("java.net.http.HttpClient",
+            LoopbackClient.class.getClassLoader());
+
+    private final String baseUrl;
+    private final MockServletContext servletContext = new MockServletContext();
+    private Transport transport;
+    private boolean compression;
+
+    private LoopbackClient(int port) {
+        this.baseUrl = "http://localhost:" + port;
+        this.transport = newTransport(10_000, 30_000);
+    }
+
+    /**
+     * Creates a client sending its requests to a local port.
+     *
+     * @param port the port of the running application, as injected by {@code @LocalServerPort}
+     * @return a new client
+     */
+    public static LoopbackClient to(int port) {
+        if (port <= 0) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        return new LoopbackClient(port);
+    }
+
+    /**
+     * Creates a client sending its requests to the embedded web server of an application context.
+     *
+     * @param applicationContext the application context, started with a real web environment
+     * @return a new client
+     * @throws IllegalStateException if the context does not run an embedded web server
+     */
+    public static LoopbackClient forContext(ApplicationContext applicationContext) {
+        if (!(applicationContext instanceof WebServerApplicationContext)
+                || ((WebServerApplicationContext) applicationContext).getWebServer() == null) {
+            throw new IllegalStateException("The application context does not run an embedded web server; "
+                    + "use @SpringBootTest(webEnvironment = RANDOM_PORT) or @CrudControllerTest(webEnvironment = "
+                    + "RANDOM_PORT) rather than a mock web environment");
+        }
+        return to(((WebServerApplicationContext) applicationContext).getWebServer().getPort());
+    }
+
+    /**
+     * Sets the connect and read timeouts, 10 and 30 seconds by default.
+     *
+     * @param connectTimeout the connect timeout, in milliseconds
+     * @param readTimeout the read timeout, in milliseconds
+     * @return this client, for method chaining
+     */
+    public LoopbackClient timeouts(int connectTimeout, int readTimeout) {
+        this.transport = newTransport(connectTimeout, readTimeout);
+        return this;
+    }
+
+    /**
+     * Accepts gzip compressed responses, inflated before being returned, as a browser or gateway would.
+     *
+     * @param compression whether to send {@code Accept-Encoding: gzip}
+     * @return this client, for method chaining
+     */
+    public LoopbackClient compression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Sends a request and reads its response.
+     *
+     * @param requestBuilder the request builder, as given to MockMvc
+     * @return the result, for expectations and assertions
+     * @throws IOException if the request fails at the HTTP level
+     * @throws UnsupportedOperationException for a PATCH request on Java 8
+     */
+    public ResultActions perform(RequestBuilder requestBuilder) throws IOException {
+        MockHttpServletRequest request = requestBuilder.buildRequest(servletContext);
+        if (requestBuilder instanceof SmartRequestBuilder) {
+            request = ((SmartRequestBuilder) requestBuilder).postProcessRequest(request);
+        }
+
+        byte[] content = request.getContentAsByteArray();
+        RawResponse raw = transport.send(request.getMethod(), URI.create(baseUrl + toPathAndQuery(request)),
+                requestHeaders(request), content != null ? content : new byte[0]);
+        return new LoopbackResultActions(new LoopbackResult(request, toResponse(raw)));
+    }
+
+    private static Transport newTransport(int connectTimeout, int readTimeout) {
+        return HTTP_CLIENT_PRESENT ? new HttpClientTransport(connectTimeout, readTimeout)
+                : new UrlConnectionTransport(connectTimeout, readTimeout);
+    }
+
+    private static String toPathAndQuery(MockHttpServletRequest request) {
+        String path = request.getRequestURI();
+        boolean formContent = request.getContentType() != null && MediaType.APPLICATION_FORM_URLENCODED
+                .includes(MediaType.parseMediaType(request.getContentType()));
+        if (formContent && request.getContentLength() > 0) {
+            // The parameters were read from the form content, sent as the body
+            return request.getQueryString() == null ? path : path + "?" + request.getQueryString();
+        }
+
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+            for (String value : parameter.getValue()) {
+                query.append(query.length() == 0 ? '?' : '&')
+                        .append(UriUtils.encodeQueryParam(parameter.getKey(), StandardCharsets.UTF_8));
+                if (value != null) {
+                    query.append('=').append(UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return path + query;
+    }
+
+    private HttpHeaders requestHeaders(MockHttpServletRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        // Cookies are part of the headers, as the mock request keeps its Cookie header in sync
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (HttpHeaders.HOST.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                    || HttpHeaders.CONNECTION.equalsIgnoreCase(name) || HttpHeaders.EXPECT.equalsIgnoreCase(name)
+                    || HttpHeaders.UPGRADE.equalsIgnoreCase(name)) {
+                // Set by the client
+                continue;
+            }
+            for (String value : Collections.list(request.getHeaders(name))) {
+                headers.add(name, value);
+            }
+        }
+        if (compression) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        return headers;
+    }
+
+    private static MockHttpServletResponse toResponse(RawResponse raw) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(raw.status);
+        for (Map.Entry<String, List<String>> header : raw.headers.entrySet()) {
+            if (header.getKey() == null) {
+                // The status line
+                continue;
+            }
+            for (String value : header.getValue()) {
+                response.addHeader(header.getKey(), value);
+            }
+        }
+
+        if (raw.body.length > 0 && "gzip".equalsIgnoreCase(response.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(raw.body))) {
+                response.getOutputStream().write(StreamUtils.copyToByteArray(input));
+            }
+        } else {
+            response.getOutputStream().write(raw.body);
+        }
+        return response;
+    }
+
+    /**
+     * Sends a request over HTTP.
+     */
+    private interface Transport {
+
+        RawResponse send(String method, URI uri, HttpHeaders headers, byte[] content) throws IOException;
+    }
+
+    /**
+     * The status, headers and body of a response, as received.
+     */
+    private static final class RawResponse {
+
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        private RawResponse(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Sends the requests through {@code java.net.http.HttpClient}, whose methods are looked up once.
+     */
+    private static final class HttpClientTransport implements Transport {
+
+        private static final Method NEW_CLIENT_BUILDER;
+        private static final Method CONNECT_TIMEOUT;
+        private static final Method FOLLOW_REDIRECTS;
+        private static final Method VERSION;
+        private static final Method BUILD_CLIENT;
+        private static final Object REDIRECT_NEVER;
+        private static final Object HTTP_1_1;
+        private static final Method NEW_REQUEST_BUILDER;
+        private static final Method TIMEOUT;
+        private static final Method HEADER;
+        private static final Method METHOD;
+        private static final Method BUILD_REQUEST;
+        private static final Method NO_BODY;
+        private static final Method OF_BYTE_ARRAY;
+        private static final Object BYTE_ARRAY_HANDLER;
+        private static final Method SEND;
+        private static final Method STATUS_CODE;
+        private static final Method HEADERS;
+        private static final Method HEADER_MAP;
+        private static final Method BODY;
+
+        static {
+            try {
+                ClassLoader classLoader = LoopbackClient.class.getClassLoader();
+                Class<?> client = ClassUtils.forName("java.net.http.HttpClient", classLoader);
+                Class<?> clientBuilder = ClassUtils.forName("java.net.http.HttpClient$Builder", classLoader);
+                Class<?> redirect = ClassUtils.forName("java.net.http.HttpClient$Redirect", classLoader);
+                Class<?> version = ClassUtils.forName("java.net.http.HttpClient$Version", classLoader);
+                Class<?> request = ClassUtils.forName("java.net.http.HttpRequest", classLoader);
+                Class<?> requestBuilder = ClassUtils.forName("java.net.http.HttpRequest$Builder", classLoader);
+                Class<?> bodyPublisher = ClassUtils.forName("java.net.http.HttpRequest$BodyPublisher", classLoader);
+                Class<?> bodyPublishers = ClassUtils.forName("java.net.http.HttpRequest$BodyPublishers",
+                        classLoader);
+                Class<?> bodyHandler = ClassUtils.forName("java.net.http.HttpResponse$BodyHandler", classLoader);
+                Class<?> bodyHandlers = ClassUtils.forName("java.net.http.HttpResponse$BodyHandlers", classLoader);
+                Class<?> response = ClassUtils.forName("java.net.http.HttpResponse", classLoader);
+                Class<?> headers = ClassUtils.forName("java.net.http.HttpHeaders", classLoader);
+
+                NEW_CLIENT_BUILDER = client.getMethod("newBuilder");
+                CONNECT_TIMEOUT = clientBuilder.getMethod("connectTimeout", Duration.class);
+                FOLLOW_REDIRECTS = clientBuilder.getMethod("followRedirects", redirect);
+                VERSION = clientBuilder.getMethod("version", version);
+                BUILD_CLIENT = clientBuilder.getMethod("build");
+                REDIRECT_NEVER = redirect.getField("NEVER").get(null);
+                HTTP_1_1 = version.getField("HTTP_1_1").get(null);
+                NEW_REQUEST_BUILDER = request.getMethod("newBuilder", URI.class);
+                TIMEOUT = requestBuilder.getMethod("timeout", Duration.class);
+                HEADER = requestBuilder.getMethod("header", String.class, String.class);
+                METHOD = requestBuilder.getMethod("method", String.class, bodyPublisher);
+                BUILD_REQUEST = requestBuilder.getMethod("build");
+                NO_BODY = bodyPublishers.getMethod("noBody");
+                OF_BYTE_ARRAY = bodyPublishers.getMethod("ofByteArray", byte[].class);
+                BYTE_ARRAY_HANDLER = bodyHandlers.getMethod("ofByteArray").invoke(null);
+                SEND = client.getMethod("send", request, bodyHandler);
+                STATUS_CODE = response.getMethod("statusCode");
+                HEADERS = response.getMethod("headers");
+                HEADER_MAP = headers.getMethod("map");
+                BODY = response.getMethod("body");
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot look up java.net.http.HttpClient", e);
+            }
+        }
+
+        private final Object client;
+        private final Duration readTimeout;
+
+        private HttpClientTransport(int connectTimeout, int readTimeout) {
+            try {
+                Object builder = NEW_CLIENT_BUILDER.invoke(null);
+                CONNECT_TIMEOUT.invoke(builder, Duration.ofMillis(connectTimeout));
+                FOLLOW_REDIRECTS.invoke(builder, REDIRECT_NEVER);
+                // Plain HTTP/1.1, without the h2c upgrade attempt of the default version
+                VERSION.invoke(builder, HTTP_1_1);
+                this.client = BUILD_CLIENT.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create an HttpClient", e);
+            }
+            this.readTimeout = Duration.ofMillis(readTimeout);
+        }
+
+        @Override
+        public RawResponse send(String method, URI uri, HttpHeaders headers, byte[] content) throws IOException {
+            try {
+                Object builder = NEW_REQUEST_BUILDER.invoke(null, uri);
+                TIMEOUT.invoke(builder, readTimeout);
+                for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                    for (String value : header.getValue()) {
+                        HEADER.invoke(builder, header.getKey(), value);
+                    }
+                }
+                METHOD.invoke(builder, method, content.length > 0 ? OF_BYTE_ARRAY.invoke(null, (Object) content)
+                        : NO_BODY.invoke(null));
+                Object response = SEND.invoke(client, BUILD_REQUEST.invoke(builder), BYTE_ARRAY_HANDLER);
+
+                @SuppressWarnings("unchecked")
+                Map<String, List<String>> responseHeaders =
+                        (Map<String, List<String>>) HEADER_MAP.invoke(HEADERS.invoke(response));
+                return new RawResponse((Integer) STATUS_CODE.invoke(response), responseHeaders,
+                        (byte[]) BODY.invoke(response));
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for " + method + " " + uri);
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("HttpClient failed", cause);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot call HttpClient", e);
+            }
+        }
+    }
+
+    /**
+     * Sends the requests through {@link HttpURLConnection}, on Java 8.
+     */
+    private static final class UrlConnectionTransport implements Transport {
+
+        private final int connectTimeout;
+        private final int readTimeout;
+
+        private UrlConnectionTransport(int connectTimeout, int readTimeout) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+        }
+
+        @Override
+        public RawResponse send(String method, URI uri, HttpHeaders headers, byte[] content) throws IOException {
+            if (HttpMethod.PATCH.matches(method)) {
+                throw new UnsupportedOperationException("PATCH is not supported by HttpURLConnection, "
+                        + "run the test on Java 11 or later");
+            }
+
+            HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
+            connection.setInstanceFollowRedirects(false);
+            connection.setUseCaches(false);
+            connection.setRequestMethod(method);
+            headers.forEach((name, values) -> values.forEach(value -> connection.addRequestProperty(name, value)));
+
+            if (content.length > 0) {
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(content.length);
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(content);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            InputStream body = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            byte[] bytes = new byte[0];
+            if (body != null) {
+                // Read to the end and closed, so that the connection goes back to the keep-alive cache
+                try (InputStream input = body) {
+                    bytes = StreamUtils.copyToByteArray(input);
+                }
+            }
+            return new RawResponse(status, connection.getHeaderFields(), bytes);
+        }
+    }
+
+    /**
+     * The request sent and the response received, exposed as the result of a MockMvc call.
+     * <p>
+     * There is no handler, model or exception to expose, since the request was handled by another server.
+     */
+    private static final class LoopbackResult implements MvcResult {
+
+        private final MockHttpServletRequest request;
+        private final MockHttpServletResponse response;
+        private final FlashMap flashMap = new FlashMap();
+
+        private LoopbackResult(MockHttpServletRequest request, MockHttpServletResponse response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public MockHttpServletRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public MockHttpServletResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public Object getHandler() {
+            return null;
+        }
+
+        @Override
+        public HandlerInterceptor[] getInterceptors() {
+            return null;
+        }
+
+        @Override
+        public ModelAndView getModelAndView() {
+            return null;
+        }
+
+        @Override
+        public Exception getResolvedException() {
+            return null;
+        }
+
+        @Override
+        public FlashMap getFlashMap() {
+            return flashMap;
+        }
+
+        @Override
+        public Object getAsyncResult() {
+            throw new IllegalStateException("No async result for a request sent over HTTP");
+        }
+
+        @Override
+        public Object getAsyncResult(long timeToWait) {
+            return getAsyncResult();
+        }
+    }
+
+    private static final class LoopbackResultActions implements ResultActions {
+
+        private final MvcResult result;
+
+        private LoopbackResultActions(MvcResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public ResultActions andExpect(ResultMatcher matcher) throws Exception {
+            matcher.match(result);
+            return this;
+        }
+
+        @Override
+        public ResultActions andDo(ResultHandler handler) throws Exception {
+            handler.handle(result);
+            return this;
+        }
+
+        @Override
+        public MvcResult andReturn() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.springtestify.web.standalone;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation for testing Spring MVC controllers without an application context.
+ * <p>
+ * Where {@link io.github.springtestify.core.annotation.ControllerTest} starts a {@code @WebMvcTest} slice,
+ * this annotation instantiates the controllers itself, with Mockito mocks for their constructor parameters and
+ * autowired fields, and builds {@link org.springframework.test.web.servlet.MockMvc} with
+ * {@link org.springframework.test.web.servlet.setup.MockMvcBuilders#standaloneSetup(Object...)}. A test class
+ * therefore starts in milliseconds, which suits controller logic tested against mocked collaborators. Filters,
+ * security, auto-configured converters and {@code @Value} properties are not applied: use
+ * {@code @ControllerTest} for those.
+ * <p>
+ * The {@code @Autowired} and {@code @MockBean} fields of the test instance are injected by type: the
+ * {@code MockMvc} instance, an {@link io.github.springtestify.web.util.ApiRequestBuilder} using the base
+ * path, the base path itself for a {@code String} qualified as {@code springTestifyBasePath}, the object
+ * mapper, the controllers, and otherwise the mock of the field type shared with the controllers. Test classes
+ * extending {@link io.github.springtestify.web.test.AbstractControllerTest} therefore work unchanged. The
+ * mocks are reset after each test method.
+ * <p>
+ * Example usage:
+ * <pre>
+ * &#064;StandaloneControllerTest(controllers = UserController.class, path = "/api/users")
+ * public class UserControllerTest extends AbstractControllerTest {
+ *
+ *     &#064;MockBean
+ *     UserService userService;
+ *
+ *     &#064;Test
+ *     void shouldReturnUser() throws Exception {
+ *         when(userService.findById(1L)).thenReturn(new User(1L, "John"));
+ *
+ *         performGet("/1").andExpect(jsonPath("$.name").value("John"));
+ *     }
+ * }
+ * </pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ExtendWith(StandaloneControllerTestExtension.class)
+public @interface StandaloneControllerTest {
+    /**
+     * The controllers to test, instantiated with mocked dependencies.
+     * @return the controllers to test
+     */
+    Class<?>[] controllers();
+
+    /**
+     * The API path associated with the controller under test.
+     * @return the API path
+     */
+    String path() default "";
+
+    /**
+     * The controller advice classes to register, instantiated with mocked dependencies as well.
+     * @return the controller advice classes
+     */
+    Class<?>[] controllerAdvice() default {};
+}
@@ -0,0 +1,184 @@
+package io.github.springtestify.web.standalone;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.springtestify.web.util.ApiRequestBuilder;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstancePostProcessor;
+import org.mockito.Mockito;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JUnit extension running the test classes annotated with {@link StandaloneControllerTest}.
+ * <p>
+ * The controllers, their mocks and the {@link MockMvc} instance are created once per test class, when its first
+ * test instance is post-processed, and kept in the store of the class. Every mock of the class is created at that
+ * point, so that injecting them into test instances running in parallel only reads the mocks of the class.
+ */
+public class StandaloneControllerTestExtension implements TestInstancePostProcessor, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(StandaloneControllerTestExtension.class);
+
+    private static final String BASE_PATH_QUALIFIER = "springTestifyBasePath";
+
+    @Override
+    public void postProcessTestInstance(Object testInstance, ExtensionContext context) {
+        Setup setup = setup(testInstance.getClass(), context);
+        ReflectionUtils.doWithFields(testInstance.getClass(), field -> {
+            ReflectionUtils.makeAccessible(field);
+            ReflectionUtils.setField(field, testInstance, setup.resolve(field));
+        }, StandaloneControllerTestExtension::isInjectable);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Setup setup = context.getStore(NAMESPACE).get(annotatedClass(context.getRequiredTestClass()), Setup.class);
+        if (setup != null) {
+            setup.mocks.values().forEach(Mockito::reset);
+        }
+    }
+
+    private static Setup setup(Class<?> testClass, ExtensionContext context) {
+        Class<?> annotatedClass = annotatedClass(testClass);
+        ExtensionContext classContext = context;
+        while (classContext.getTestMethod().isPresent() && classContext.getParent().isPresent()) {
+            classContext = classContext.getParent().get();
+        }
+        return classContext.getStore(NAMESPACE).getOrComputeIfAbsent(annotatedClass,
+                type -> new Setup(testClass, AnnotatedElementUtils.findMergedAnnotation(annotatedClass,
+                        StandaloneControllerTest.class)), Setup.class);
+    }
+
+    /**
+     * Returns the class carrying the annotation, which is an enclosing class for a nested test class.
+     */
+    private static Class<?> annotatedClass(Class<?> testClass) {
+        for (Class<?> type = testClass; type != null; type = type.getEnclosingClass()) {
+            if (AnnotatedElementUtils.hasAnnotation(type, StandaloneControllerTest.class)) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("No @StandaloneControllerTest annotation found on " + testClass.getName());
+    }
+
+    private static boolean isInjectable(Field field) {
+        return field.isAnnotationPresent(Autowired.class) || field.isAnnotationPresent(MockBean.class);
+    }
+
+    /**
+     * The controllers, mocks and MockMvc instance of a test class.
+     */
+    private static final class Setup {
+
+        private final Map<Class<?>, Object> mocks = new HashMap<>();
+        private final Map<Class<?>, Object> controllers = new HashMap<>();
+        private final String basePath;
+        private final ObjectMapper objectMapper;
+        private final MockMvc mockMvc;
+        private final ApiRequestBuilder requestBuilder;
+
+        private Setup(Class<?> testClass, StandaloneControllerTest annotation) {
+            this.basePath = annotation.path().trim();
+            // Configured as the mapper of the default message converter of the standalone setup
+            this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+            List<Object> controllerInstances = new ArrayList<>();
+            for (Class<?> controllerClass : annotation.controllers()) {
+                Object controller = instantiate(controllerClass);
+                controllers.put(controllerClass, controller);
+                controllerInstances.add(controller);
+            }
+            List<Object> adviceInstances = new ArrayList<>();
+            for (Class<?> adviceClass : annotation.controllerAdvice()) {
+                adviceInstances.add(instantiate(adviceClass));
+            }
+
+            this.mockMvc = MockMvcBuilders.standaloneSetup(controllerInstances.toArray())
+                    .setControllerAdvice(adviceInstances.toArray())
+                    .build();
+            this.requestBuilder = new ApiRequestBuilder(basePath, objectMapper);
+
+            // Created upfront, the mocks are only read when injecting test instances
+            ReflectionUtils.doWithFields(testClass, this::resolve, StandaloneControllerTestExtension::isInjectable);
+        }
+
+        /**
+         * Creates an instance through its autowired or only constructor, with mocks for its dependencies.
+         */
+        private Object instantiate(Class<?> type) {
+            Constructor<?> constructor = autowiredConstructor(type);
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            Object[] arguments = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                arguments[i] = mock(parameterTypes[i]);
+            }
+            Object instance = BeanUtils.instantiateClass(constructor, arguments);
+
+            ReflectionUtils.doWithFields(type, field -> {
+                ReflectionUtils.makeAccessible(field);
+                ReflectionUtils.setField(field, instance, mock(field.getType()));
+            }, field -> field.isAnnotationPresent(Autowired.class));
+            return instance;
+        }
+
+        private static Constructor<?> autowiredConstructor(Class<?> type) {
+            for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+                if (constructor.isAnnotationPresent(Autowired.class)) {
+                    return constructor;
+                }
+            }
+            return BeanUtils.getResolvableConstructor(type);
+        }
+
+        /**
+         * Returns the mock of a type, shared by all the controllers and test instances of the class.
+         */
+        private Object mock(Class<?> type) {
+            return mocks.computeIfAbsent(type, Mockito::mock);
+        }
+
+        /**
+         * Resolves the value of an injectable field of the test class.
+         */
+        private Object resolve(Field field) {
+            Class<?> type = field.getType();
+            if (type == MockMvc.class) {
+                return mockMvc;
+            }
+            if (type == ApiRequestBuilder.class) {
+                return requestBuilder;
+            }
+            if (type == ObjectMapper.class) {
+                return objectMapper;
+            }
+            if (type == String.class) {
+                Qualifier qualifier = field.getAnnotation(Qualifier.class);
+                if (qualifier == null || !BASE_PATH_QUALIFIER.equals(qualifier.value())) {
+                    throw new IllegalStateException("Cannot inject String field " + field.getName()
+                            + " in a standalone controller test, only the " + BASE_PATH_QUALIFIER + " base path");
+                }
+                return basePath;
+            }
+            if (controllers.containsKey(type)) {
+                return controllers.get(type);
+            }
+            return mock(type);
+        }
+    }
+}
@@ -1,18 +1,36 @@
 package io.github.springtestify.web.util;
 
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.cache.Cache;
+import com.jayway.jsonpath.spi.cache.CacheProvider;
 import org.hamcrest.Matcher;
+import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 /**
  * Utility class for making assertions on API responses.
  * <p>
  * Provides convenient methods for common assertions on API responses in a fluent API style.
+ * <p>
+ * JSON path assertions parse the response body once per {@link MvcResult}, caching the parsed
+ * document as a request attribute, and evaluate JSON path expressions compiled once per expression.
+ * Asserting many paths on one response therefore costs one parse rather than one per assertion.
+ * The compiled expressions are kept in the bounded cache of JsonPath, configured through its
+ * {@link CacheProvider}, so expressions built from test data do not accumulate.
  */
 public class ApiAssertions {
 
+    private static final String DOCUMENT_ATTRIBUTE = ApiAssertions.class.getName() + ".document";
+
     private final ResultActions resultActions;
 
     /**
@@ -77,7 +95,13 @@ public class ApiAssertions {
      * @throws Exception if the assertion fails
      */
     public ApiAssertions hasJsonPath(String jsonPath) throws Exception {
-        resultActions.andExpect(MockMvcResultMatchers.jsonPath(jsonPath).exists());
+        Object value = evaluate(jsonPath);
+        if (value == null) {
+            throw new AssertionError("No value at JSON path \"" + jsonPath + "\"");
+        }
+        if (!compile(jsonPath).isDefinite() && value instanceof List && ((List<?>) value).isEmpty()) {
+            throw new AssertionError("No values for JSON path \"" + jsonPath + "\"");
+        }
         return this;
     }
 
@@ -90,8 +114,7 @@ public class ApiAssertions {
      * @throws Exception if the assertion fails
      */
     public ApiAssertions hasJsonPathWithValue(String jsonPath, Object value) throws Exception {
-        resultActions.andExpect(MockMvcResultMatchers.jsonPath(jsonPath, Matchers.is(value)));
-        return this;
+        return hasJsonPathWithValue(jsonPath, Matchers.is(value));
     }
 
     /**
@@ -102,8 +125,9 @@ public class ApiAssertions {
      * @return this instance, for method chaining
      * @throws Exception if the assertion fails
      */
+    @SuppressWarnings("unchecked")
     public ApiAssertions hasJsonPathWithValue(String jsonPath, Matcher<?> matcher) throws Exception {
-        resultActions.andExpect(MockMvcResultMatchers.jsonPath(jsonPath, matcher));
+        MatcherAssert.assertThat("JSON path \"" + jsonPath + "\"", evaluate(jsonPath), (Matcher<Object>) matcher);
         return this;
     }
 
@@ -155,6 +179,17 @@ public class ApiAssertions {
         return this;
     }
 
+    /**
+     * Returns streaming assertions on the root array of the response, for responses too large to parse
+     * into a document.
+     *
+     * @return the streaming assertions
+     * @see StreamingJsonAssertions
+     */
+    public StreamingJsonAssertions streaming() {
+        return StreamingJsonAssertions.assertThat(resultActions);
+    }
+
     /**
      * Returns the underlying ResultActions for further assertions.
      *
@@ -164,6 +199,50 @@ public class ApiAssertions {
         return resultActions;
     }
 
+    /**
+     * Evaluates a JSON path expression against the parsed response body.
+     *
+     * @param jsonPath the JSON path expression
+     * @return the value at the path
+     * @throws AssertionError if the path cannot be evaluated
+     */
+    private Object evaluate(String jsonPath) {
+        JsonPath compiled = compile(jsonPath);
+        try {
+            return document().read(compiled);
+        } catch (Throwable e) {
+            throw new AssertionError("No value at JSON path \"" + jsonPath + "\"", e);
+        }
+    }
+
+    /**
+     * Returns the parsed response body, parsing it on first use.
+     * <p>
+     * The body is decoded as UTF-8, like the JSON path matchers of {@link MockMvcResultMatchers}.
+     *
+     * @return the parsed JSON document
+     */
+    private DocumentContext document() {
+        MvcResult result = resultActions.andReturn();
+        MockHttpServletRequest request = result.getRequest();
+        DocumentContext document = (DocumentContext) request.getAttribute(DOCUMENT_ATTRIBUTE);
+        if (document == null) {
+            document = JsonPath.parse(new String(result.getResponse().getContentAsByteArray(), StandardCharsets.UTF_8));
+            request.setAttribute(DOCUMENT_ATTRIBUTE, document);
+        }
+        return document;
+    }
+
+    private static JsonPath compile(String jsonPath) {
+        Cache cache = CacheProvider.getCache();
+        JsonPath compiled = cache.get(jsonPath);
+        if (compiled == null) {
+            compiled = JsonPath.compile(jsonPath);
+            cache.put(jsonPath, compiled);
+        }
+        return compiled;
+    }
+
     /**
      * Creates a new ApiAssertions instance for the specified ResultActions.
      *
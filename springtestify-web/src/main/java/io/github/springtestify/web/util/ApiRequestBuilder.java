@@ -1,23 +1,35 @@
 package io.github.springtestify.web.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * A builder for API requests in controller tests.
  * <p>
  * This builder helps create requests that include the base path from the {@code @ControllerTest} annotation.
  * It provides methods for common HTTP methods and handles path concatenation and query parameters.
+ * <p>
+ * Request bodies are serialized with the {@link ObjectMapper} of the application when one is given, through an
+ * {@link ObjectWriter} cached per body type, straight to UTF-8 bytes in a buffer reused by the calling thread.
+ * The normalized base path is computed once, so that building a request stays cheap when firing many of them.
  */
 public class ApiRequestBuilder {
 
+    private static final ThreadLocal<ByteArrayBuilder> BUFFER = ThreadLocal.withInitial(ByteArrayBuilder::new);
+
     private final String basePath;
     private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
 
     /**
      * Creates a new ApiRequestBuilder with the specified base path.
@@ -25,8 +37,7 @@ public class ApiRequestBuilder {
      * @param basePath the base path for API requests
      */
     public ApiRequestBuilder(String basePath) {
-        this.basePath = basePath;
-        this.objectMapper = new ObjectMapper();
+        this(basePath, new ObjectMapper());
     }
 
     /**
@@ -36,7 +47,7 @@ public class ApiRequestBuilder {
      * @param objectMapper the object mapper to use for serializing objects
      */
     public ApiRequestBuilder(String basePath, ObjectMapper objectMapper) {
-        this.basePath = basePath;
+        this.basePath = normalizeBasePath(basePath);
         this.objectMapper = objectMapper;
     }
 
@@ -76,15 +87,10 @@ public class ApiRequestBuilder {
      * @return the request builder
      */
     public MockHttpServletRequestBuilder post(String path, Object body) {
-        try {
-            String json = objectMapper.writeValueAsString(body);
-            return MockMvcRequestBuilders.post(buildFullPath(path))
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .content(json);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize object to JSON", e);
-        }
+        return MockMvcRequestBuilders.post(buildFullPath(path))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(toJson(body));
     }
 
     /**
@@ -95,15 +101,10 @@ public class ApiRequestBuilder {
      * @return the request builder
      */
     public MockHttpServletRequestBuilder put(String path, Object body) {
-        try {
-            String json = objectMapper.writeValueAsString(body);
-            return MockMvcRequestBuilders.put(buildFullPath(path))
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .content(json);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize object to JSON", e);
-        }
+        return MockMvcRequestBuilders.put(buildFullPath(path))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(toJson(body));
     }
 
     /**
@@ -125,14 +126,33 @@ public class ApiRequestBuilder {
      * @return the request builder
      */
     public MockHttpServletRequestBuilder patch(String path, Object body) {
+        return MockMvcRequestBuilders.patch(buildFullPath(path))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(toJson(body));
+    }
+
+    /**
+     * Serializes a body to JSON bytes.
+     * <p>
+     * The request builder keeps a reference to the content until the request is performed, so the
+     * bytes are copied out of the reused buffer, once and at their exact size.
+     *
+     * @param body the request body object
+     * @return the JSON bytes
+     */
+    private byte[] toJson(Object body) {
+        ObjectWriter writer = body == null
+                ? objectMapper.writer()
+                : writers.computeIfAbsent(body.getClass(), objectMapper::writerFor);
+        ByteArrayBuilder buffer = BUFFER.get();
         try {
-            String json = objectMapper.writeValueAsString(body);
-            return MockMvcRequestBuilders.patch(buildFullPath(path))
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .content(json);
-        } catch (JsonProcessingException e) {
+            writer.writeValue(buffer, body);
+            return buffer.toByteArray();
+        } catch (IOException e) {
             throw new RuntimeException("Failed to serialize object to JSON", e);
+        } finally {
+            buffer.reset();
         }
     }
 
@@ -143,13 +163,19 @@ public class ApiRequestBuilder {
      * @return the full path
      */
     private String buildFullPath(String path) {
+        return path.startsWith("/") ? basePath + path : basePath + "/" + path;
+    }
+
+    /**
+     * Removes the trailing slash of the base path, if any.
+     *
+     * @param basePath the base path, may be null
+     * @return the normalized base path, empty if none
+     */
+    private static String normalizeBasePath(String basePath) {
         if (basePath == null || basePath.isEmpty()) {
-            return path.startsWith("/") ? path : "/" + path;
+            return "";
         }
-        
-        String normalizedBasePath = basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
-        String normalizedPath = path.startsWith("/") ? path : "/" + path;
-        
-        return normalizedBasePath + normalizedPath;
+        return basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package io.github.springtestify.web.util;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.ConfigurableMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcConfigurer;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the {@link MockMvc} instances built for a web application context.
+ * <p>
+ * Building a MockMvc initializes a dispatcher servlet and, with Spring Security, looks up and
+ * wraps the filter chain. Test classes sharing a cached context and the same settings get the
+ * same instance, so this only happens once per context. The cache is registered as a singleton
+ * of the context itself and goes away with it.
+ * <p>
+ * Instances are keyed by the types of their configurers, which is sufficient for stateless
+ * configurers such as {@code SecurityMockMvcConfigurers.springSecurity()}.
+ */
+public class MockMvcCache {
+
+    private static final String BEAN_NAME = "springTestifyMockMvcCache";
+
+    private final WebApplicationContext context;
+    private final Map<List<Class<?>>, MockMvc> instances = new ConcurrentHashMap<>();
+
+    private MockMvcCache(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Returns the cache of a context, creating it on first use.
+     *
+     * @param context the web application context
+     * @return the cache of the context
+     */
+    public static MockMvcCache forContext(WebApplicationContext context) {
+        if (!(context instanceof ConfigurableApplicationContext)) {
+            return new MockMvcCache(context);
+        }
+
+        ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) context).getBeanFactory();
+        synchronized (beanFactory) {
+            if (beanFactory.containsSingleton(BEAN_NAME)) {
+                return (MockMvcCache) beanFactory.getSingleton(BEAN_NAME);
+            }
+            MockMvcCache cache = new MockMvcCache(context);
+            beanFactory.registerSingleton(BEAN_NAME, cache);
+            return cache;
+        }
+    }
+
+    /**
+     * Returns the MockMvc built with the given configurers, building it on first use.
+     *
+     * @param configurers the configurers to apply, in order
+     * @return the MockMvc instance
+     */
+    public MockMvc get(List<? extends MockMvcConfigurer> configurers) {
+        List<Class<?>> key = new ArrayList<>(configurers.size());
+        for (MockMvcConfigurer configurer : configurers) {
+            key.add(configurer.getClass());
+        }
+        return instances.computeIfAbsent(Collections.unmodifiableList(key), types -> build(configurers));
+    }
+
+    private MockMvc build(List<? extends MockMvcConfigurer> configurers) {
+        ConfigurableMockMvcBuilder<?> builder = MockMvcBuilders.webAppContextSetup(context);
+        for (MockMvcConfigurer configurer : configurers) {
+            builder.apply(configurer);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,279 @@
+package io.github.springtestify.web.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Streaming assertions on a JSON array of a response, for responses too large to parse into a document.
+ * <p>
+ * Each assertion makes one pass over the response bytes with a Jackson {@link JsonParser}, without decoding the
+ * body to a string or building a tree of the whole response. Only one element is materialized at a time, so the
+ * memory used stays the same whatever the number of elements, except for {@link #hasUniqueValues(String)} which
+ * keeps the values seen.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * StreamingJsonAssertions.assertThat(mockMvc.perform(get("/api/export")))
+ *         .hasSize(100_000)
+ *         .isSortedBy("id")
+ *         .hasUniqueValues("id")
+ *         .allMatch(item -&gt; item.path("price").asDouble() &gt;= 0);
+ * </pre>
+ */
+public class StreamingJsonAssertions {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(JSON_FACTORY);
+
+    private final byte[] content;
+    private final String path;
+    private final List<String> fields;
+
+    private StreamingJsonAssertions(byte[] content, String path) {
+        this.content = content;
+        this.path = path;
+        this.fields = parsePath(path);
+    }
+
+    /**
+     * Creates assertions on the root array of the response.
+     *
+     * @param resultActions the result actions to make assertions on
+     * @return a new StreamingJsonAssertions instance
+     */
+    public static StreamingJsonAssertions assertThat(ResultActions resultActions) {
+        return assertThat(resultActions.andReturn().getResponse().getContentAsByteArray());
+    }
+
+    /**
+     * Creates assertions on the root array of a JSON document.
+     *
+     * @param content the JSON document, encoded as UTF-8
+     * @return a new StreamingJsonAssertions instance
+     */
+    public static StreamingJsonAssertions assertThat(byte[] content) {
+        return new StreamingJsonAssertions(content, "$");
+    }
+
+    /**
+     * Targets the array at a path of nested fields, such as {@code $.content} for a page.
+     *
+     * @param path the path, with {@code $} for the root followed by {@code .field} segments
+     * @return assertions on the array at the path
+     */
+    public StreamingJsonAssertions array(String path) {
+        return new StreamingJsonAssertions(content, path);
+    }
+
+    /**
+     * Asserts that the array has the expected number of elements.
+     *
+     * @param expected the expected number of elements
+     * @return this instance, for method chaining
+     */
+    public StreamingJsonAssertions hasSize(long expected) {
+        long[] count = new long[1];
+        forEachElement((index, parser) -> {
+            parser.skipChildren();
+            count[0]++;
+        });
+        if (count[0] != expected) {
+            throw new AssertionError("Expected " + expected + " elements at JSON path \"" + path + "\" but found "
+                    + count[0]);
+        }
+        return this;
+    }
+
+    /**
+     * Asserts that every element of the array matches a predicate.
+     *
+     * @param predicate the predicate, given each element as a tree
+     * @return this instance, for method chaining
+     */
+    public StreamingJsonAssertions allMatch(Predicate<JsonNode> predicate) {
+        forEachElement((index, parser) -> {
+            JsonNode element = OBJECT_MAPPER.readTree(parser);
+            if (!predicate.test(element)) {
+                throw new AssertionError("Element " + index + " at JSON path \"" + path
+                        + "\" does not match: " + element);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Asserts that the elements of the array are in ascending order of a field.
+     *
+     * @param field the name of the field of each element
+     * @return this instance, for method chaining
+     */
+    public StreamingJsonAssertions isSortedBy(String field) {
+        return assertSorted(field, false);
+    }
+
+    /**
+     * Asserts that the elements of the array are in descending order of a field.
+     *
+     * @param field the name of the field of each element
+     * @return this instance, for method chaining
+     */
+    public StreamingJsonAssertions isSortedDescendingBy(String field) {
+        return assertSorted(field, true);
+    }
+
+    /**
+     * Asserts that no two elements of the array have the same value for a field.
+     *
+     * @param field the name of the field of each element
+     * @return this instance, for method chaining
+     */
+    public StreamingJsonAssertions hasUniqueValues(String field) {
+        Set<Comparable<?>> seen = new HashSet<>();
+        forEachElement((index, parser) -> {
+            Comparable<?> value = readField(parser, field, index);
+            if (!seen.add(value)) {
+                throw new AssertionError("Element " + index + " at JSON path \"" + path + "\" repeats the value "
+                        + value + " of field \"" + field + "\"");
+            }
+        });
+        return this;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private StreamingJsonAssertions assertSorted(String field, boolean descending) {
+        Comparable[] previous = new Comparable[1];
+        forEachElement((index, parser) -> {
+            Comparable value = readField(parser, field, index);
+            if (previous[0] != null) {
+                if (previous[0].getClass() != value.getClass()) {
+                    throw new AssertionError("Element " + index + " at JSON path \"" + path + "\" has a value of "
+                            + "field \"" + field + "\" of another type than the previous ones: " + value);
+                }
+                int comparison = previous[0].compareTo(value);
+                if (descending ? comparison < 0 : comparison > 0) {
+                    throw new AssertionError("Elements at JSON path \"" + path + "\" are not sorted "
+                            + (descending ? "descending" : "ascending") + " by \"" + field + "\": element " + index
+                            + " has " + value + " after " + previous[0]);
+                }
+            }
+            previous[0] = value;
+        });
+        return this;
+    }
+
+    /**
+     * Reads a scalar field of the element at the current token, consuming the element.
+     * <p>
+     * Numbers are read as {@link BigDecimal}, so that integral and decimal values compare numerically.
+     */
+    private Comparable<?> readField(JsonParser parser, String field, long index) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new AssertionError("Element " + index + " at JSON path \"" + path + "\" is not an object");
+        }
+
+        Comparable<?> value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (!name.equals(field)) {
+                parser.skipChildren();
+            } else if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                value = parser.getDecimalValue().stripTrailingZeros();
+            } else if (token == JsonToken.VALUE_STRING) {
+                value = parser.getText();
+            } else if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+                value = parser.getBooleanValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (value == null) {
+            throw new AssertionError("Element " + index + " at JSON path \"" + path
+                    + "\" has no scalar value for field \"" + field + "\"");
+        }
+        return value;
+    }
+
+    /**
+     * Streams the elements of the target array, positioning the parser at the first token of each.
+     */
+    private void forEachElement(ElementVisitor visitor) {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            parser.nextToken();
+            for (String field : fields) {
+                moveToField(parser, field);
+            }
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new AssertionError("No array at JSON path \"" + path + "\"");
+            }
+
+            long index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                visitor.visit(index++, parser);
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Failed to parse JSON response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Moves the parser from the start of an object to the value of one of its fields.
+     */
+    private void moveToField(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if (name.equals(field)) {
+                    return;
+                }
+                parser.skipChildren();
+            }
+        }
+        throw new AssertionError("No value at JSON path \"" + path + "\"");
+    }
+
+    private static List<String> parsePath(String path) {
+        Objects.requireNonNull(path, "path must not be null");
+        if (!path.equals("$") && !path.startsWith("$.")) {
+            throw new IllegalArgumentException("Unsupported JSON path \"" + path + "\", expected $ or $.field");
+        }
+        if (path.equals("$")) {
+            return Collections.emptyList();
+        }
+
+        List<String> fields = new ArrayList<>();
+        for (String field : path.substring(2).split("\\.")) {
+            if (field.isEmpty() || field.indexOf('[') >= 0 || field.indexOf('*') >= 0) {
+                // Filters, indexes and wildcards would otherwise be looked up as field names
+                throw new IllegalArgumentException("Unsupported JSON path \"" + path + "\", expected $ or $.field");
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    /**
+     * Callback for each element of an array; it must consume the element entirely.
+     */
+    @FunctionalInterface
+    private interface ElementVisitor {
+
+        void visit(long index, JsonParser parser) throws IOException;
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.springtestify.web.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.Collections;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TestScopeTest {
+
+    private DefaultListableBeanFactory beanFactory;
+
+    @BeforeEach
+    void setUp() {
+        beanFactory = new DefaultListableBeanFactory();
+        TestScope.register(beanFactory, Collections.singletonMap("basePath", String.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestScope.clear();
+    }
+
+    @Test
+    void shouldRegisterScopeAndDefinitionsOnce() {
+        // given
+        BeanDefinition definition = beanFactory.getBeanDefinition("basePath");
+
+        // when
+        TestScope.register(beanFactory, Collections.singletonMap("basePath", String.class));
+
+        // then
+        assertThat(beanFactory.getRegisteredScope(TestScope.SCOPE_NAME)).isInstanceOf(TestScope.class);
+        assertThat(beanFactory.getBeanDefinition("basePath")).isSameAs(definition);
+        assertThat(definition.getScope()).isEqualTo(TestScope.SCOPE_NAME);
+        assertThat(definition.isPrimary()).isTrue();
+    }
+
+    @Test
+    void shouldResolveValueBoundToCurrentThread() {
+        // given
+        TestScope.bind("basePath", "/api/users");
+
+        // when
+        Object value = beanFactory.getBean("basePath");
+
+        // then
+        assertThat(value).isEqualTo("/api/users");
+    }
+
+    @Test
+    void shouldRejectUnboundValue() {
+        // when / then
+        assertThatThrownBy(() -> beanFactory.getBean("basePath"))
+            .hasRootCauseInstanceOf(IllegalStateException.class)
+            .hasRootCauseMessage("No value bound for 'basePath' on this thread; is the test class annotated "
+                + "with @ControllerTest?");
+    }
+
+    @Test
+    void shouldIsolateValuesOfParallelTests() throws Exception {
+        // given
+        CyclicBarrier bound = new CyclicBarrier(2);
+        CyclicBarrier cleared = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // when
+            Future<Object> users = executor.submit(() -> {
+                TestScope.bind("basePath", "/api/users");
+                bound.await(5, TimeUnit.SECONDS);
+                Object value = beanFactory.getBean("basePath");
+                // The other test clears its values while this one still runs
+                cleared.await(5, TimeUnit.SECONDS);
+                return value + " " + beanFactory.getBean("basePath");
+            });
+            Future<Object> orders = executor.submit(() -> {
+                TestScope.bind("basePath", "/api/orders");
+                bound.await(5, TimeUnit.SECONDS);
+                Object value = beanFactory.getBean("basePath");
+                TestScope.clear();
+                cleared.await(5, TimeUnit.SECONDS);
+                return value;
+            });
+
+            // then
+            assertThat(users.get(10, TimeUnit.SECONDS)).isEqualTo("/api/users /api/users");
+            assertThat(orders.get(10, TimeUnit.SECONDS)).isEqualTo("/api/orders");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldForgetValuesOnClear() {
+        // given
+        TestScope.bind("basePath", "/api/users");
+
+        // when
+        TestScope.clear();
+
+        // then
+        assertThatThrownBy(() -> beanFactory.getBean("basePath"))
+            .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+}
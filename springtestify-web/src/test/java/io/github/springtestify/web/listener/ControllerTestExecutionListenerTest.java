@@ -0,0 +1,59 @@
+package io.github.springtestify.web.listener;
+
+import io.github.springtestify.core.annotation.ControllerTest;
+import io.github.springtestify.web.config.WebTestConfig;
+import io.github.springtestify.web.test.AbstractControllerTest;
+import io.github.springtestify.web.util.ApiRequestBuilder;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ControllerTest(path = "/api/users")
+@ImportAutoConfiguration(WebTestConfig.class)
+class ControllerTestExecutionListenerTest extends AbstractControllerTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ApiRequestBuilder injectedRequestBuilder;
+
+    @Test
+    void shouldInjectRequestBuilderOfTestClassByType() throws Exception {
+        // given
+        Assertions.assertThat(applicationContext.getBeanNamesForType(ApiRequestBuilder.class))
+            .contains("apiRequestBuilder", "springTestifyRequestBuilder");
+
+        // when / then
+        Assertions.assertThat(injectedRequestBuilder).isSameAs(requestBuilder);
+        performGet("/7")
+            .andExpect(status().isOk())
+            .andExpect(content().string("user 7"));
+    }
+
+    @Configuration
+    @Import(UserController.class)
+    static class Config {
+    }
+
+    @RestController
+    @RequestMapping("/api/users")
+    static class UserController {
+
+        @GetMapping("/{id}")
+        String get(@PathVariable String id) {
+            return "user " + id;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.springtestify.web.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldCountSmallValuesExactly() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        // then
+        assertThat(histogram.getTotalCount()).isEqualTo(100);
+        assertThat(histogram.getMin()).isEqualTo(1);
+        assertThat(histogram.getMax()).isEqualTo(100);
+        assertThat(histogram.getMean()).isEqualTo(50.5);
+        assertThat(histogram.getValueAtPercentile(0)).isEqualTo(1);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(50);
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(99);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100);
+    }
+
+    @Test
+    void shouldMapValuesToBucketsWithinRelativeError() {
+        // given
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+
+            // when
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+
+            // then
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).isLessThanOrEqualTo(value / 128);
+            assertThat(LatencyHistogram.indexOf(highest)).isEqualTo(index);
+        }
+    }
+
+    @Test
+    void shouldCoverBucketBoundaries() {
+        // when / then
+        assertThat(LatencyHistogram.indexOf(127)).isEqualTo(127);
+        assertThat(LatencyHistogram.indexOf(128)).isEqualTo(128);
+        assertThat(LatencyHistogram.indexOf(255)).isEqualTo(255);
+        assertThat(LatencyHistogram.indexOf(256)).isEqualTo(LatencyHistogram.indexOf(257));
+        assertThat(LatencyHistogram.indexOf(258)).isEqualTo(LatencyHistogram.indexOf(256) + 1);
+        assertThat(LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(Long.MAX_VALUE)))
+            .isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void shouldNotUnderEstimatePercentiles() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(1_000_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(50_000_000);
+        }
+
+        // when
+        long p99 = histogram.getValueAtPercentile(99);
+        long p999 = histogram.getValueAtPercentile(99.9);
+
+        // then
+        assertThat(p99).isBetween(1_000_000L, 1_000_000L + 1_000_000L / 128);
+        assertThat(p999).isEqualTo(50_000_000L);
+    }
+
+    @Test
+    void shouldMergeHistograms() {
+        // given
+        LatencyHistogram first = new LatencyHistogram();
+        first.record(10);
+        first.record(20);
+        LatencyHistogram second = new LatencyHistogram();
+        second.record(5);
+        second.record(1_000);
+
+        // when
+        first.add(second);
+
+        // then
+        assertThat(first.getTotalCount()).isEqualTo(4);
+        assertThat(first.getMin()).isEqualTo(5);
+        assertThat(first.getMax()).isEqualTo(1_000);
+        assertThat(first.getMean()).isEqualTo(258.75);
+        assertThat(first.getValueAtPercentile(50)).isEqualTo(10);
+    }
+
+    @Test
+    void shouldRecordNegativeValuesAsZero() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        histogram.record(-5);
+
+        // then
+        assertThat(histogram.getMin()).isZero();
+        assertThat(histogram.getValueAtPercentile(100)).isZero();
+    }
+
+    @Test
+    void shouldReturnZeroWhenEmpty() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when / then
+        assertThat(histogram.getMin()).isZero();
+        assertThat(histogram.getMax()).isZero();
+        assertThat(histogram.getMean()).isZero();
+        assertThat(histogram.getValueAtPercentile(99)).isZero();
+    }
+
+    @Test
+    void shouldRejectInvalidPercentile() {
+        // when / then
+        assertThatThrownBy(() -> new LatencyHistogram().getValueAtPercentile(100.5))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Percentile must be between 0 and 100: 100.5");
+    }
+}
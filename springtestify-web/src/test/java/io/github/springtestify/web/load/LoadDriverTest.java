@@ -0,0 +1,156 @@
+package io.github.springtestify.web.load;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+
+class LoadDriverTest {
+
+    private final PingController controller = new PingController();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestSecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldSendWarmupThenMeasuredRequests() {
+        // when
+        LoadResult result = LoadDriver.with(mockMvc)
+            .request(() -> get("/ping"))
+            .concurrency(4)
+            .warmupRequests(50)
+            .requests(200)
+            .run();
+
+        // then
+        result.assertNoErrors();
+        assertThat(controller.calls.get()).isEqualTo(250);
+        assertThat(result.getRequestCount()).isEqualTo(200);
+        assertThat(result.getThroughput()).isPositive();
+        assertThat(result.getPercentile(50)).isLessThanOrEqualTo(result.getPercentile(100));
+    }
+
+    @Test
+    void shouldCountFailedExpectationsAsErrors() {
+        // when
+        LoadResult result = LoadDriver.with(mockMvc)
+            .request(() -> get("/status/{status}", controller.calls.get() % 2 == 0 ? 200 : 500))
+            .concurrency(1)
+            .requests(10)
+            .run();
+
+        // then
+        assertThat(result.getRequestCount()).isEqualTo(10);
+        assertThat(result.getErrorCount()).isEqualTo(5);
+        assertThatThrownBy(result::assertNoErrors)
+            .isInstanceOf(AssertionError.class)
+            .hasMessageStartingWith("5 of 10 requests failed, first with: ");
+    }
+
+    @Test
+    void shouldScheduleRequestsAtTargetRate() {
+        // when
+        LoadResult result = LoadDriver.with(mockMvc)
+            .request(() -> get("/ping"))
+            .concurrency(2)
+            .requests(11)
+            .targetRate(50)
+            .run();
+
+        // then
+        result.assertNoErrors();
+        assertThat(result.getRequestCount()).isEqualTo(11);
+        // The last request is scheduled 10 intervals of 20ms after the first
+        assertThat(result.getElapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void shouldStopAtDuration() {
+        // when
+        LoadResult result = LoadDriver.with(mockMvc)
+            .request(() -> get("/ping"))
+            .concurrency(2)
+            .requests(Long.MAX_VALUE)
+            .targetRate(100)
+            .duration(Duration.ofMillis(300))
+            .run();
+
+        // then
+        result.assertNoErrors();
+        assertThat(result.getRequestCount()).isBetween(1L, 31L);
+    }
+
+    @Test
+    void shouldPropagateTestSecurityContextToWorkers() {
+        // given
+        TestSecurityContextHolder.setAuthentication(new UsernamePasswordAuthenticationToken("john", "secret"));
+
+        // when
+        LoadResult result = LoadDriver.with(mockMvc)
+            .request(() -> get("/user"))
+            .expect(content().string("john"))
+            .concurrency(4)
+            .requests(20)
+            .run();
+
+        // then
+        result.assertNoErrors();
+    }
+
+    @Test
+    void shouldRequireRequest() {
+        // when / then
+        assertThatThrownBy(() -> LoadDriver.with(mockMvc).run())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("No request set, call request(...) first");
+    }
+
+    @RestController
+    static class PingController {
+
+        private final AtomicLong calls = new AtomicLong();
+
+        @GetMapping("/ping")
+        String ping() {
+            calls.incrementAndGet();
+            return "pong";
+        }
+
+        @GetMapping("/status/{status}")
+        ResponseEntity<String> status(@PathVariable int status) {
+            calls.incrementAndGet();
+            return ResponseEntity.status(status).body("done");
+        }
+
+        @GetMapping("/user")
+        String user() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication == null ? "anonymous" : authentication.getName();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.springtestify.web.loopback;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.springtestify.web.load.LoadDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LoopbackClientTest {
+
+    private static final int WORKERS = 8;
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(WORKERS);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/echo", this::echo);
+        server.createContext("/gzip", LoopbackClientTest::gzip);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldSendMethodQueryHeadersAndBody() throws Exception {
+        // given
+        LoopbackClient client = LoopbackClient.to(server.getAddress().getPort());
+
+        // when / then
+        client.perform(post("/echo").param("q", "a b").header("X-Trace", "42")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"John\"}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Method", "POST"))
+            .andExpect(header().string("X-Query", "q=a%20b"))
+            .andExpect(header().string("X-Trace", "42"))
+            .andExpect(content().string("{\"name\":\"John\"}"));
+    }
+
+    @Test
+    void shouldSendPatchRequests() throws Exception {
+        // given
+        LoopbackClient client = LoopbackClient.to(server.getAddress().getPort());
+
+        // when / then
+        client.perform(patch("/echo").contentType(MediaType.APPLICATION_JSON).content("{\"active\":false}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Method", "PATCH"))
+            .andExpect(content().string("{\"active\":false}"));
+    }
+
+    @Test
+    void shouldReturnErrorResponses() throws Exception {
+        // given
+        LoopbackClient client = LoopbackClient.to(server.getAddress().getPort());
+
+        // when / then
+        client.perform(get("/echo").param("status", "404"))
+            .andExpect(status().isNotFound())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldInflateCompressedResponses() throws Exception {
+        // given
+        LoopbackClient client = LoopbackClient.to(server.getAddress().getPort()).compression(true);
+
+        // when
+        MockHttpServletResponse response = client.perform(get("/gzip")).andReturn().getResponse();
+
+        // then
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getContentAsString()).isEqualTo("compressed body");
+    }
+
+    @Test
+    void shouldReuseOneConnectionPerWorker() {
+        // given
+        LoopbackClient client = LoopbackClient.to(server.getAddress().getPort());
+
+        // when
+        LoadDriver.with(client)
+            .request(() -> get("/echo"))
+            .concurrency(WORKERS)
+            .requests(400)
+            .run()
+            .assertNoErrors();
+
+        // then
+        assertThat(clientPorts).hasSizeLessThanOrEqualTo(WORKERS);
+    }
+
+    @Test
+    void shouldRejectNonPositivePort() {
+        // when / then
+        assertThatThrownBy(() -> LoopbackClient.to(0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid port: 0");
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] body = StreamUtils.copyToByteArray(exchange.getRequestBody());
+        String query = exchange.getRequestURI().getRawQuery();
+        int status = query != null && query.startsWith("status=") ? Integer.parseInt(query.substring(7)) : 200;
+
+        exchange.getResponseHeaders().add("X-Method", exchange.getRequestMethod());
+        if (query != null) {
+            exchange.getResponseHeaders().add("X-Query", query);
+        }
+        String trace = exchange.getRequestHeaders().getFirst("X-Trace");
+        if (trace != null) {
+            exchange.getResponseHeaders().add("X-Trace", trace);
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static void gzip(HttpExchange exchange) throws IOException {
+        if (!"gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+            exchange.sendResponseHeaders(406, -1);
+            return;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write("compressed body".getBytes(StandardCharsets.UTF_8));
+        }
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(200, compressed.size());
+        try (OutputStream output = exchange.getResponseBody()) {
+            compressed.writeTo(output);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.springtestify.web.standalone;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.springtestify.web.util.ApiRequestBuilder;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@StandaloneControllerTest(controllers = StandaloneControllerTestExtensionTest.GreetingController.class,
+        controllerAdvice = StandaloneControllerTestExtensionTest.NotFoundAdvice.class, path = "/api/greetings")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class StandaloneControllerTestExtensionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApiRequestBuilder requestBuilder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("springTestifyBasePath")
+    private String basePath;
+
+    @Autowired
+    private GreetingController controller;
+
+    @MockBean
+    private GreetingService greetingService;
+
+    @MockBean
+    private AuditLog auditLog;
+
+    @Test
+    @Order(1)
+    void shouldServeRequestsWithStubbedMock() throws Exception {
+        // given
+        when(greetingService.greet("John")).thenReturn("Hello, John");
+
+        // when / then
+        mockMvc.perform(requestBuilder.get("/John"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.greeting").value("Hello, John"));
+        Mockito.verify(auditLog).record("John");
+    }
+
+    @Test
+    @Order(2)
+    void shouldResetMocksAfterEachTest() throws Exception {
+        // when / then
+        verifyNoInteractions(greetingService, auditLog);
+        mockMvc.perform(requestBuilder.get("/John"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.greeting").doesNotExist());
+    }
+
+    @Test
+    void shouldInjectSetupOfTestClass() {
+        // then
+        assertThat(mockMvc).isNotNull();
+        assertThat(objectMapper).isNotNull();
+        assertThat(basePath).isEqualTo("/api/greetings");
+        assertThat(controller.greetingService).isSameAs(greetingService);
+        assertThat(controller.auditLog).isSameAs(auditLog);
+    }
+
+    @Test
+    void shouldApplyControllerAdvice() throws Exception {
+        // given
+        when(greetingService.greet("nobody")).thenThrow(new IllegalArgumentException("Unknown name: nobody"));
+
+        // when / then
+        mockMvc.perform(requestBuilder.get("/nobody"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.message").value("Unknown name: nobody"));
+    }
+
+    interface GreetingService {
+
+        String greet(String name);
+    }
+
+    interface AuditLog {
+
+        void record(String name);
+    }
+
+    @RestController
+    @RequestMapping("/api/greetings")
+    static class GreetingController {
+
+        private final GreetingService greetingService;
+
+        @Autowired
+        private AuditLog auditLog;
+
+        GreetingController(GreetingService greetingService) {
+            this.greetingService = greetingService;
+        }
+
+        @GetMapping("/{name}")
+        Map<String, String> greet(@PathVariable String name) {
+            auditLog.record(name);
+            return Collections.singletonMap("greeting", greetingService.greet(name));
+        }
+    }
+
+    @RestControllerAdvice
+    static class NotFoundAdvice {
+
+        @ExceptionHandler(IllegalArgumentException.class)
+        @ResponseStatus(HttpStatus.NOT_FOUND)
+        Map<String, String> handle(IllegalArgumentException e) {
+            return Collections.singletonMap("message", e.getMessage());
+        }
+    }
+}
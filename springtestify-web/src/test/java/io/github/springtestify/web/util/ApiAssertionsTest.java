@@ -0,0 +1,111 @@
+package io.github.springtestify.web.util;
+
+import com.jayway.jsonpath.spi.cache.CacheProvider;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class ApiAssertionsTest {
+
+    private static final String DOCUMENT_ATTRIBUTE = ApiAssertions.class.getName() + ".document";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController()).build();
+    }
+
+    @Test
+    void shouldParseResponseOnceForAllPaths() throws Exception {
+        // given
+        ResultActions result = mockMvc.perform(get("/user"));
+
+        // when
+        ApiAssertions.assertThat(result)
+            .isSuccessful()
+            .isJson()
+            .hasJsonPath("$.name");
+        Object document = result.andReturn().getRequest().getAttribute(DOCUMENT_ATTRIBUTE);
+        ApiAssertions.assertThat(result)
+            .hasJsonPathWithValue("$.name", "John")
+            .hasJsonPathWithValue("$.roles", Matchers.hasSize(2));
+
+        // then
+        assertThat(document).isNotNull();
+        assertThat(result.andReturn().getRequest().getAttribute(DOCUMENT_ATTRIBUTE)).isSameAs(document);
+    }
+
+    @Test
+    void shouldKeepCompiledPathsInJsonPathCache() throws Exception {
+        // given
+        ResultActions result = mockMvc.perform(get("/user"));
+
+        // when
+        ApiAssertions.assertThat(result).hasJsonPathWithValue("$.roles[0]", "admin");
+
+        // then
+        assertThat(CacheProvider.getCache().get("$.roles[0]")).isNotNull();
+    }
+
+    @Test
+    void shouldReportMissingPath() throws Exception {
+        // given
+        ResultActions result = mockMvc.perform(get("/user"));
+
+        // when / then
+        assertThatThrownBy(() -> ApiAssertions.assertThat(result).hasJsonPath("$.email"))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("No value at JSON path \"$.email\"");
+    }
+
+    @Test
+    void shouldReportEmptyIndefinitePath() throws Exception {
+        // given
+        ResultActions result = mockMvc.perform(get("/user"));
+
+        // when / then
+        assertThatThrownBy(() -> ApiAssertions.assertThat(result).hasJsonPath("$.groups[*]"))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("No values for JSON path \"$.groups[*]\"");
+    }
+
+    @Test
+    void shouldReportUnexpectedValue() throws Exception {
+        // given
+        ResultActions result = mockMvc.perform(get("/user"));
+
+        // when / then
+        assertThatThrownBy(() -> ApiAssertions.assertThat(result).hasJsonPathWithValue("$.name", "Jane"))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("JSON path \"$.name\"")
+            .hasMessageContaining("\"Jane\"");
+    }
+
+    @RestController
+    static class UserController {
+
+        @GetMapping("/user")
+        Map<String, Object> user() {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("name", "John");
+            user.put("roles", Arrays.asList("admin", "user"));
+            user.put("groups", Collections.emptyList());
+            return user;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.springtestify.web.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiRequestBuilderTest {
+
+    private final MockServletContext servletContext = new MockServletContext();
+
+    @Test
+    void shouldJoinBasePathAndPath() {
+        // given
+        ApiRequestBuilder requestBuilder = new ApiRequestBuilder("/api/users/");
+
+        // when
+        MockHttpServletRequest relative = build(requestBuilder.get("1"));
+        MockHttpServletRequest absolute = build(requestBuilder.delete("/1"));
+
+        // then
+        assertThat(relative.getRequestURI()).isEqualTo("/api/users/1");
+        assertThat(absolute.getRequestURI()).isEqualTo("/api/users/1");
+        assertThat(absolute.getMethod()).isEqualTo("DELETE");
+    }
+
+    @Test
+    void shouldAddQueryParameters() {
+        // given
+        ApiRequestBuilder requestBuilder = new ApiRequestBuilder("/api/users");
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("page", "2");
+        params.add("sort", "name");
+
+        // when
+        MockHttpServletRequest request = build(requestBuilder.get("", params));
+
+        // then
+        assertThat(request.getRequestURI()).isEqualTo("/api/users/");
+        assertThat(request.getParameter("page")).isEqualTo("2");
+        assertThat(request.getParameter("sort")).isEqualTo("name");
+    }
+
+    @Test
+    void shouldSerializeBodyWithGivenObjectMapper() {
+        // given
+        ObjectMapper objectMapper = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        ApiRequestBuilder requestBuilder = new ApiRequestBuilder("/api/users", objectMapper);
+
+        // when
+        MockHttpServletRequest request = build(requestBuilder.post("", new User("John", "Doe")));
+
+        // then
+        assertThat(request.getContentType()).isEqualTo("application/json");
+        assertThat(content(request)).isEqualTo("{\"first_name\":\"John\",\"last_name\":\"Doe\"}");
+    }
+
+    @Test
+    void shouldNotShareReusedBufferBetweenRequests() {
+        // given
+        ApiRequestBuilder requestBuilder = new ApiRequestBuilder("/api/users");
+
+        // when
+        MockHttpServletRequest first = build(requestBuilder.put("/1", new User("John", "Doe")));
+        MockHttpServletRequest second = build(requestBuilder.patch("/2", new User("Jane", "Roe")));
+
+        // then
+        assertThat(content(first)).isEqualTo("{\"firstName\":\"John\",\"lastName\":\"Doe\"}");
+        assertThat(content(second)).isEqualTo("{\"firstName\":\"Jane\",\"lastName\":\"Roe\"}");
+        assertThat(second.getMethod()).isEqualTo("PATCH");
+    }
+
+    @Test
+    void shouldSerializeNullBody() {
+        // given
+        ApiRequestBuilder requestBuilder = new ApiRequestBuilder("/api/users");
+
+        // when
+        MockHttpServletRequest request = build(requestBuilder.post("", null));
+
+        // then
+        assertThat(content(request)).isEqualTo("null");
+    }
+
+    @Test
+    void shouldReportUnserializableBody() {
+        // given
+        ApiRequestBuilder requestBuilder = new ApiRequestBuilder("/api/users");
+
+        // when / then
+        assertThatThrownBy(() -> requestBuilder.post("", new Object()))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessage("Failed to serialize object to JSON");
+    }
+
+    private MockHttpServletRequest build(RequestBuilder requestBuilder) {
+        return requestBuilder.buildRequest(servletContext);
+    }
+
+    private static String content(MockHttpServletRequest request) {
+        return new String(request.getContentAsByteArray(), StandardCharsets.UTF_8);
+    }
+
+    static class User {
+
+        private final String firstName;
+        private final String lastName;
+
+        User(String firstName, String lastName) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+    }
+}
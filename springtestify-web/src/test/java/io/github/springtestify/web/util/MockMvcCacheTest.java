@@ -0,0 +1,110 @@
+package io.github.springtestify.web.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcConfigurer;
+import org.springframework.test.web.servlet.setup.MockMvcConfigurerAdapter;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MockMvcCacheTest {
+
+    private GenericWebApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = newContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void shouldReturnSameCacheForContext() {
+        // when
+        MockMvcCache first = MockMvcCache.forContext(context);
+        MockMvcCache second = MockMvcCache.forContext(context);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(context.getBeanFactory().getSingleton("springTestifyMockMvcCache")).isSameAs(first);
+    }
+
+    @Test
+    void shouldKeepSeparateCachesPerContext() {
+        // given
+        GenericWebApplicationContext otherContext = newContext();
+
+        try {
+            // when
+            MockMvcCache cache = MockMvcCache.forContext(context);
+            MockMvcCache otherCache = MockMvcCache.forContext(otherContext);
+
+            // then
+            assertThat(otherCache).isNotSameAs(cache);
+            assertThat(otherCache.get(Collections.emptyList()))
+                .isNotSameAs(cache.get(Collections.emptyList()));
+        } finally {
+            otherContext.close();
+        }
+    }
+
+    @Test
+    void shouldShareInstanceForSameConfigurerTypes() {
+        // given
+        MockMvcCache cache = MockMvcCache.forContext(context);
+
+        // when
+        MockMvc first = cache.get(Collections.singletonList(new FirstConfigurer()));
+        MockMvc second = MockMvcCache.forContext(context).get(Collections.singletonList(new FirstConfigurer()));
+
+        // then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void shouldBuildInstancePerConfigurerList() {
+        // given
+        MockMvcCache cache = MockMvcCache.forContext(context);
+        List<MockMvcConfigurer> both = Arrays.asList(new FirstConfigurer(), new SecondConfigurer());
+        List<MockMvcConfigurer> reversed = Arrays.asList(new SecondConfigurer(), new FirstConfigurer());
+
+        // when
+        MockMvc none = cache.get(Collections.emptyList());
+        MockMvc first = cache.get(Collections.singletonList(new FirstConfigurer()));
+        MockMvc ordered = cache.get(both);
+
+        // then
+        assertThat(first).isNotSameAs(none);
+        assertThat(ordered).isNotSameAs(first).isNotSameAs(none);
+        assertThat(cache.get(reversed)).isNotSameAs(ordered);
+    }
+
+    private static GenericWebApplicationContext newContext() {
+        GenericWebApplicationContext context = new GenericWebApplicationContext(new MockServletContext());
+        context.registerBean(WebConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    @EnableWebMvc
+    static class WebConfig {
+    }
+
+    static class FirstConfigurer extends MockMvcConfigurerAdapter {
+    }
+
+    static class SecondConfigurer extends MockMvcConfigurerAdapter {
+    }
+}
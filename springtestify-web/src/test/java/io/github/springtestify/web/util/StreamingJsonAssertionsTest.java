@@ -0,0 +1,124 @@
+package io.github.springtestify.web.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingJsonAssertionsTest {
+
+    private static final String PRODUCTS = "[{\"id\":1,\"name\":\"Cable\",\"price\":9.5,\"tags\":[\"a\"]},"
+        + "{\"id\":2,\"name\":\"Dock\",\"price\":10,\"meta\":{\"id\":99}},"
+        + "{\"id\":3.0,\"name\":\"Hub\",\"price\":25.00}]";
+
+    @Test
+    void shouldPassOnMatchingArray() {
+        // when / then
+        assertThatCode(() -> StreamingJsonAssertions.assertThat(json(PRODUCTS))
+            .hasSize(3)
+            .isSortedBy("id")
+            .isSortedBy("price")
+            .isSortedBy("name")
+            .hasUniqueValues("id")
+            .allMatch(product -> product.path("price").asDouble() > 0))
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldReportSize() {
+        // when / then
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(json(PRODUCTS)).hasSize(2))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("Expected 2 elements at JSON path \"$\" but found 3");
+    }
+
+    @Test
+    void shouldReportUnsortedElement() {
+        // when / then
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(json(PRODUCTS)).isSortedDescendingBy("id"))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("Elements at JSON path \"$\" are not sorted descending by \"id\": element 1 has 2 after 1");
+    }
+
+    @Test
+    void shouldReportRepeatedValue() {
+        // given
+        byte[] content = json("[{\"sku\":\"A\"},{\"sku\":\"B\"},{\"sku\":\"A\"}]");
+
+        // when / then
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(content).hasUniqueValues("sku"))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("Element 2 at JSON path \"$\" repeats the value A of field \"sku\"");
+    }
+
+    @Test
+    void shouldReportFirstElementNotMatching() {
+        // when / then
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(json(PRODUCTS))
+            .allMatch(product -> product.path("price").asDouble() < 20))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageStartingWith("Element 2 at JSON path \"$\" does not match: ");
+    }
+
+    @Test
+    void shouldReportMissingField() {
+        // when / then
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(json(PRODUCTS)).isSortedBy("meta"))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("Element 0 at JSON path \"$\" has no scalar value for field \"meta\"");
+    }
+
+    @Test
+    void shouldReportMixedValueTypes() {
+        // given
+        byte[] content = json("[{\"code\":1},{\"code\":\"2\"}]");
+
+        // when / then
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(content).isSortedBy("code"))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("Element 1 at JSON path \"$\" has a value of field \"code\" of another type than the "
+                + "previous ones: 2");
+    }
+
+    @Test
+    void shouldTargetNestedArray() {
+        // given
+        byte[] content = json("{\"page\":{\"number\":0,\"content\":[{\"id\":5},{\"id\":7}]},\"total\":2}");
+
+        // when / then
+        assertThatCode(() -> StreamingJsonAssertions.assertThat(content).array("$.page.content")
+            .hasSize(2)
+            .isSortedBy("id"))
+            .doesNotThrowAnyException();
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(content).array("$.page.items").hasSize(0))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("No value at JSON path \"$.page.items\"");
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(content).array("$.total").hasSize(0))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("No array at JSON path \"$.total\"");
+    }
+
+    @Test
+    void shouldRejectUnsupportedPath() {
+        // when / then
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(json("[]")).array("$.items[0]"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(json("[]")).array("$..items"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unsupported JSON path \"$..items\", expected $ or $.field");
+    }
+
+    @Test
+    void shouldReportMalformedJson() {
+        // when / then
+        assertThatThrownBy(() -> StreamingJsonAssertions.assertThat(json("[{\"id\":1},")).hasSize(1))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageStartingWith("Failed to parse JSON response: ");
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}